@@ -1,5 +1,6 @@
 plugins {
     java
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "kr.crownrpg"
@@ -21,6 +22,19 @@ dependencies {
     compileOnly ("io.papermc.paper:paper-api:1.21.1-R0.1-SNAPSHOT")
     compileOnly("com.github.jojoRy:Crown-Lib:1.0.3")
     implementation ("com.google.code.gson:gson:2.11.0")
+
+    // 벤치마크는 서버 없이 실행되므로 compileOnly 의존성을 직접 넣는다.
+    jmh("io.papermc.paper:paper-api:1.21.1-R0.1-SNAPSHOT")
+    jmh("com.github.jojoRy:Crown-Lib:1.0.3")
+}
+
+jmh {
+    // gc 프로파일러로 처리량과 함께 op당 할당량(gc.alloc.rate.norm)을 기록한다.
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
 }
 
 tasks.withType<JavaCompile> {
@@ -30,3 +44,15 @@ tasks.withType<JavaCompile> {
 tasks.processResources {
     filteringCharset = "UTF-8"
 }
+
+// 서버 없이 N명의 클라이언트 입력을 시뮬레이션한다.
+// ./gradlew loadTest -Pscenario=src/jmh/scenarios/saturation.yml (여러 개는 쉼표로 구분)
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs headless crown:packet load-test scenarios"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("kr.crownrpg.packethandler.load.LoadTest")
+    val scenarios = providers.gradleProperty("scenario").getOrElse("src/jmh/scenarios/baseline.yml")
+    args(scenarios.split(",") + listOf("--out", layout.buildDirectory.dir("results/loadtest").get().asFile.path))
+    jvmArgs("-Xms2g", "-Xmx2g")
+}
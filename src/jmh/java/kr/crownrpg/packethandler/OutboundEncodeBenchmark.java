@@ -0,0 +1,100 @@
+package kr.crownrpg.packethandler;
+
+import kr.crownrpg.packethandler.bench.Corpus;
+import kr.crownrpg.packethandler.bench.StandIns;
+import kr.crownrpg.packethandler.channel.CrownPacketChannel;
+import kr.crownrpg.packethandler.channel.OutboundWire;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.session.SessionRegistry;
+import kr.crownrpg.packethandler.template.ConfirmUiTemplate;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CrownPacketSender} 송신 메서드별 인코딩 + 전송 경로.
+ *
+ * 플레이어 대역은 받은 byte[]를 기록만 하므로 측정값은 직렬화, 크기 검증, 요청 추적 비용이다.
+ * 반환값으로 마지막 메시지를 돌려주어 JIT가 송신을 제거하지 못하게 한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OutboundEncodeBenchmark {
+
+    @Param({"json", "binary"})
+    public String format;
+
+    @Param({"typical", "max"})
+    public String shape;
+
+    private StandIns.PlayerStandIn recipient;
+    private Player player;
+    private CrownPacketSender sender;
+    private ConfirmUiTemplate template;
+    private String message;
+
+    @Setup
+    public void setup() {
+        recipient = StandIns.player(new UUID(0, 1));
+        player = recipient.player();
+
+        int features = format.equals("binary") ? ClientFeature.BINARY_V1.mask() : 0;
+        SessionRegistry sessions = new SessionRegistry(features);
+        sessions.apply(player, features);
+
+        PacketMetrics metrics = new PacketMetrics();
+        OutboundWire wire = new OutboundWire(StandIns.plugin("CrownPacketHandler"), metrics, null, 0, null);
+        CrownPacketChannel channel = new CrownPacketChannel(sessions, null, wire, metrics, null, null);
+        PendingRequests requests = new PendingRequests(true, 2_000L, 300_000L);
+
+        sender = new CrownPacketSender(channel, requests);
+        template = sender.confirmUiTemplate("party_invite", "파티 초대", "accept", "cancel", 10_000);
+
+        // max: 8KB 제한에 가까운 확인 메시지
+        message = shape.equals("max")
+                ? "파티 초대를 수락하시겠습니까? ".repeat(160)
+                : "Steve님의 파티 초대를 수락하시겠습니까?";
+    }
+
+    @Benchmark
+    public byte[] openTextInput() {
+        sender.openTextInput(player, Corpus.REQUEST_ID, "nickname_change", "닉네임 변경", "닉네임을 입력하세요", 16, 15_000);
+        return recipient.lastMessage;
+    }
+
+    @Benchmark
+    public byte[] openConfirmUi() {
+        sender.openConfirmUi(player, Corpus.REQUEST_ID, "party_invite", "파티 초대", message, "accept", "cancel", 10_000);
+        return recipient.lastMessage;
+    }
+
+    @Benchmark
+    public byte[] openConfirmUiTemplate() {
+        template.open(player, Corpus.REQUEST_ID, message);
+        return recipient.lastMessage;
+    }
+
+    @Benchmark
+    public byte[] sendValidateResult() {
+        sender.sendValidateResult(player, Corpus.REQUEST_ID, false, message);
+        return recipient.lastMessage;
+    }
+
+    @Benchmark
+    public byte[] closeUi() {
+        sender.closeUi(player, Corpus.REQUEST_ID);
+        return recipient.lastMessage;
+    }
+}
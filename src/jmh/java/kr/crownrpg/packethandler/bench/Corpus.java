@@ -0,0 +1,125 @@
+package kr.crownrpg.packethandler.bench;
+
+import kr.crownrpg.packethandler.codec.BinaryPacketCodec;
+import kr.crownrpg.packethandler.codec.JsonPacketCodec;
+import kr.crownrpg.packethandler.codec.PacketCodec;
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 벤치마크용 클라이언트 → 서버 메시지 모음.
+ *
+ * shape:
+ * - typical: 실제 클라이언트가 보내는 크기의 메시지
+ * - max: 받아들일 수 있는 가장 큰 메시지 (8KB에 가까운 입력 텍스트, 최대 길이 심볼 등)
+ * - malformed: typical 메시지를 절반에서 자른 것 (디코딩 실패 경로)
+ */
+public final class Corpus {
+
+    public static final String REQUEST_ID = "6f1c2a4e-8d3b-4c7a-9e5f-1a2b3c4d5e6f";
+
+    private static final String SYMBOL_64 = "x".repeat(64);
+
+    private Corpus() {}
+
+    public static byte[] inbound(PacketType type, String format, String shape) {
+        PacketCodec codec = switch (format) {
+            case "json" -> JsonPacketCodec.INSTANCE;
+            case "binary" -> BinaryPacketCodec.INSTANCE;
+            default -> throw new IllegalArgumentException("format: " + format);
+        };
+
+        return switch (shape) {
+            case "typical" -> typical(type, codec);
+            case "max" -> max(type, codec);
+            case "malformed" -> {
+                byte[] message = typical(type, codec);
+                yield Arrays.copyOf(message, message.length / 2);
+            }
+            default -> throw new IllegalArgumentException("shape: " + shape);
+        };
+    }
+
+    private static byte[] typical(PacketType type, PacketCodec codec) {
+        return switch (type) {
+            case HOTKEY -> encode(codec, type, null, hotkey("skill.cast.4", "combat"));
+            case TEXT_INPUT_PREVIEW -> encode(codec, type, REQUEST_ID, preview("nickname_change", "크라운나이트"));
+            case TEXT_INPUT -> encode(codec, type, REQUEST_ID, textInput("nickname_change", "크라운나이트"));
+            case UI_ACTION -> encode(codec, type, REQUEST_ID, uiAction("party_invite", "accept"));
+            case HANDSHAKE -> encode(codec, type, null, handshake(ClientFeature.wireNames(ClientFeature.allMask())));
+            default -> throw new IllegalArgumentException("Not an inbound type: " + type);
+        };
+    }
+
+    private static byte[] max(PacketType type, PacketCodec codec) {
+        return switch (type) {
+            case HOTKEY -> encode(codec, type, null, hotkey(SYMBOL_64, SYMBOL_64));
+            case TEXT_INPUT_PREVIEW -> encode(codec, type, REQUEST_ID, preview(SYMBOL_64, longText()));
+            case TEXT_INPUT -> encode(codec, type, REQUEST_ID, textInput(SYMBOL_64, longText()));
+            case UI_ACTION -> encode(codec, type, REQUEST_ID, uiAction(SYMBOL_64, SYMBOL_64));
+            case HANDSHAKE -> {
+                String[] names = ClientFeature.wireNames(ClientFeature.allMask());
+                String[] repeated = new String[names.length * 4];
+                for (int i = 0; i < repeated.length; i++) {
+                    repeated[i] = names[i % names.length];
+                }
+                yield encode(codec, type, null, handshake(repeated));
+            }
+            default -> throw new IllegalArgumentException("Not an inbound type: " + type);
+        };
+    }
+
+    /**
+     * 한글 / 영문이 섞인 약 7.5KB(UTF-8) 텍스트
+     */
+    private static String longText() {
+        StringBuilder builder = new StringBuilder();
+        String unit = "크라운RPG 길드 소개 문구입니다. ";
+        while (builder.toString().getBytes(StandardCharsets.UTF_8).length + unit.length() * 3 < 7_500) {
+            builder.append(unit);
+        }
+        return builder.toString();
+    }
+
+    private static OutboundPayload hotkey(String action, String context) {
+        return writer -> {
+            writer.string("action", action);
+            writer.bool("pressed", true);
+            writer.nullableString("context", context);
+        };
+    }
+
+    private static OutboundPayload preview(String context, String text) {
+        return writer -> {
+            writer.string("context", context);
+            writer.string("text", text);
+        };
+    }
+
+    private static OutboundPayload textInput(String context, String text) {
+        return writer -> {
+            writer.string("context", context);
+            writer.string("text", text);
+            writer.bool("confirmed", true);
+        };
+    }
+
+    private static OutboundPayload uiAction(String ui, String action) {
+        return writer -> {
+            writer.string("ui", ui);
+            writer.string("action", action);
+        };
+    }
+
+    private static OutboundPayload handshake(String[] features) {
+        return writer -> writer.stringArray("features", features);
+    }
+
+    private static byte[] encode(PacketCodec codec, PacketType type, String requestId, OutboundPayload payload) {
+        return codec.encode(type, requestId, 1_700_000_000_000L, payload);
+    }
+}
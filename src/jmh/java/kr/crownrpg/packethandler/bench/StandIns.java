@@ -0,0 +1,138 @@
+package kr.crownrpg.packethandler.bench;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredListener;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * 벤치마크용 Bukkit 대역.
+ *
+ * 서버 없이 Player / Plugin / Server / PluginManager를 동적 프록시로 만든다.
+ * 필요한 메서드만 동작하고 나머지는 기본값(null, 0, false)을 반환한다.
+ * 프록시 호출 비용은 모든 측정에 똑같이 들어가므로 비교에는 영향이 없다.
+ */
+public final class StandIns {
+
+    private static final Logger LOGGER = Logger.getLogger("CrownPacketBench");
+
+    private static boolean serverInstalled;
+
+    private StandIns() {}
+
+    /**
+     * 받은 PluginMessage를 기록하는 플레이어.
+     */
+    public static PlayerStandIn player(UUID id) {
+        PlayerStandIn handler = new PlayerStandIn(id);
+        handler.player = proxy(Player.class, handler);
+        return handler;
+    }
+
+    public static Plugin plugin(String name) {
+        return proxy(Plugin.class, (self, method, args) -> switch (method.getName()) {
+            case "getName" -> name;
+            case "getLogger" -> LOGGER;
+            case "isEnabled" -> true;
+            default -> common(self, method, args);
+        });
+    }
+
+    /**
+     * {@link Bukkit#getPluginManager()}가 동작하도록 서버 대역을 설치한다.
+     *
+     * PluginManager 대역의 callEvent는 HandlerList에 등록된 리스너를 순서대로 호출하기만 한다.
+     */
+    public static synchronized void installServer() {
+        if (serverInstalled) return;
+
+        PluginManager pluginManager = proxy(PluginManager.class, (self, method, args) -> {
+            if (method.getName().equals("callEvent")) {
+                Event event = (Event) args[0];
+                for (RegisteredListener listener : event.getHandlers().getRegisteredListeners()) {
+                    listener.callEvent(event);
+                }
+                return null;
+            }
+            return common(self, method, args);
+        });
+
+        Server server = proxy(Server.class, (self, method, args) -> switch (method.getName()) {
+            case "getPluginManager" -> pluginManager;
+            case "getLogger" -> LOGGER;
+            case "isPrimaryThread" -> true;
+            default -> common(self, method, args);
+        });
+
+        Bukkit.setServer(server);
+        serverInstalled = true;
+    }
+
+    public static final class PlayerStandIn implements InvocationHandler {
+
+        private final UUID id;
+        private Player player;
+
+        /** 마지막으로 받은 PluginMessage */
+        public byte[] lastMessage;
+        public long messages;
+
+        private PlayerStandIn(UUID id) {
+            this.id = id;
+        }
+
+        public Player player() {
+            return player;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "getUniqueId" -> id;
+                case "getName" -> "bench-" + id.getLeastSignificantBits();
+                case "isOnline" -> true;
+                case "sendPluginMessage" -> {
+                    lastMessage = (byte[]) args[2];
+                    messages++;
+                    yield null;
+                }
+                default -> common(self, method, args);
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StandIns.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object common(Object self, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> self == args[0];
+            case "hashCode" -> System.identityHashCode(self);
+            case "toString" -> "StandIn(" + method.getDeclaringClass().getSimpleName() + ")";
+            default -> defaultValue(method.getReturnType());
+        };
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0F;
+        if (type == double.class) return 0D;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        return 0;
+    }
+}
@@ -0,0 +1,140 @@
+package kr.crownrpg.packethandler.channel;
+
+import kr.crownrpg.packethandler.CrownPacketHandler;
+import kr.crownrpg.packethandler.bench.Corpus;
+import kr.crownrpg.packethandler.bench.StandIns;
+import kr.crownrpg.packethandler.event.CrownPlayerHotkeyEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerTextInputEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerUiActionEvent;
+import kr.crownrpg.packethandler.input.InputRouter;
+import kr.crownrpg.packethandler.input.Subscription;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.session.SessionRegistry;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PluginMessage 수신부터 구독 핸들러 / Bukkit Event 전달까지 전체 경로.
+ *
+ * route:
+ * - subscriber: {@link InputRouter} 키 기반 구독만 있음
+ * - event: Bukkit 리스너만 있음 (이벤트 객체 생성 + callEvent)
+ * - none: 받을 곳이 없음 (디코딩 전에 버리는 빠른 경로)
+ *
+ * 수신 큐 / 속도 제한은 끈 상태로, 수신 즉시 처리하는 경로를 측정한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DispatchBenchmark {
+
+    @Param({"HOTKEY", "TEXT_INPUT", "UI_ACTION"})
+    public String type;
+
+    @Param({"json", "binary"})
+    public String format;
+
+    @Param({"subscriber", "event", "none"})
+    public String route;
+
+    private Player player;
+    private byte[] message;
+    private CrownPluginMessageListener listener;
+    private Plugin owner;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    /** 핸들러 / 리스너가 받은 입력 수 (JIT가 전달을 제거하지 못하게 한다) */
+    private long delivered;
+
+    @Setup
+    public void setup() {
+        StandIns.installServer();
+        player = StandIns.player(new UUID(0, 2)).player();
+        owner = StandIns.plugin("FeaturePlugin");
+
+        PacketType packetType = PacketType.valueOf(type);
+        message = Corpus.inbound(packetType, format, "typical");
+
+        SymbolTable symbols = new SymbolTable(4096, 512);
+        InputRouter router = new InputRouter(owner.getLogger(), symbols);
+        // 벤치마크 메시지의 requestId는 서버가 연 요청이 아니므로 알 수 없는 응답도 이벤트로 발행한다.
+        PendingRequests requests = new PendingRequests(false, 2_000L, 300_000L);
+
+        PacketMetrics metrics = new PacketMetrics();
+        OutboundWire wire = new OutboundWire(StandIns.plugin("CrownPacketHandler"), metrics, null, 0, null);
+        CrownPacketChannel channel = new CrownPacketChannel(new SessionRegistry(0), null, wire, metrics, null, null);
+        listener = new CrownPluginMessageListener(channel, null, null, null, null, requests, router, symbols, null, null, null, null);
+
+        switch (route) {
+            case "subscriber" -> subscribe(router, owner, packetType);
+            case "event" -> listen(owner, packetType);
+            case "none" -> {
+            }
+            default -> throw new IllegalArgumentException("route: " + route);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(Subscription::unsubscribe);
+        subscriptions.clear();
+        HandlerList.unregisterAll(owner);
+    }
+
+    @Benchmark
+    public void dispatch(Blackhole blackhole) {
+        listener.onPluginMessageReceived(CrownPacketHandler.CHANNEL, player, message);
+        blackhole.consume(delivered);
+    }
+
+    private void subscribe(InputRouter router, Plugin owner, PacketType packetType) {
+        subscriptions.add(switch (packetType) {
+            case HOTKEY -> router.subscribeHotkey(owner, "skill.cast.4",
+                    (player, action, pressed, context) -> delivered++);
+            case TEXT_INPUT -> router.subscribeTextInput(owner, "nickname_change",
+                    (player, requestId, context, text, confirmed) -> delivered++);
+            case UI_ACTION -> router.subscribeUiAction(owner, "party_invite",
+                    (player, requestId, ui, action) -> delivered++);
+            default -> throw new IllegalArgumentException("type: " + packetType);
+        });
+    }
+
+    private void listen(Plugin owner, PacketType packetType) {
+        HandlerList handlers = switch (packetType) {
+            case HOTKEY -> CrownPlayerHotkeyEvent.getHandlerList();
+            case TEXT_INPUT -> CrownPlayerTextInputEvent.getHandlerList();
+            case UI_ACTION -> CrownPlayerUiActionEvent.getHandlerList();
+            default -> throw new IllegalArgumentException("type: " + packetType);
+        };
+        handlers.register(new RegisteredListener(
+                new Listener() {
+                },
+                (listener, event) -> delivered++,
+                EventPriority.NORMAL,
+                owner,
+                false
+        ));
+    }
+}
@@ -0,0 +1,68 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.bench.Corpus;
+import kr.crownrpg.packethandler.packet.InboundPacket;
+import kr.crownrpg.packethandler.packet.PacketSniffer;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 클라이언트 → 서버 메시지 디코딩 (PacketType × 포맷 × 메시지 형태).
+ *
+ * - decode: 코덱 판별 + 디코딩 (malformed는 예외 경로)
+ * - sniff: 디코딩 전 PacketType 판별 (속도 제한 / 수신 큐에서 사용)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InboundDecodeBenchmark {
+
+    @Param({"HOTKEY", "TEXT_INPUT_PREVIEW", "TEXT_INPUT", "UI_ACTION", "HANDSHAKE"})
+    public String type;
+
+    @Param({"json", "binary"})
+    public String format;
+
+    @Param({"typical", "max", "malformed"})
+    public String shape;
+
+    private byte[] message;
+    private SymbolTable symbols;
+
+    @Setup
+    public void setup() {
+        message = Corpus.inbound(PacketType.valueOf(type), format, shape);
+
+        // 실제 Feature Plugin처럼 자주 쓰는 값은 미리 등록해 둔다.
+        symbols = new SymbolTable(4096, 512);
+        for (String name : new String[]{"skill.cast.4", "combat", "nickname_change", "party_invite", "accept"}) {
+            symbols.register(name);
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        try {
+            InboundPacket packet = PacketCodecs.forMessage(message).decode(message, symbols);
+            blackhole.consume(packet);
+        } catch (Exception e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public PacketType sniff() {
+        return PacketSniffer.sniffType(message);
+    }
+}
@@ -0,0 +1,93 @@
+package kr.crownrpg.packethandler.load;
+
+import kr.crownrpg.packethandler.config.PacketHandlerConfig;
+import kr.crownrpg.packethandler.packet.PacketType;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 부하 테스트 시나리오. (YAML)
+ *
+ * <pre>
+ * name: baseline
+ * players: 1000
+ * warmup-seconds: 5
+ * duration-seconds: 30
+ * realtime: true        # true: 20 TPS에 맞춰 주입 / false: 쉬지 않고 주입 (처리 한계 측정)
+ * format: binary        # json / binary
+ * route: event          # event / subscriber / batch (HOTKEY / UI_ACTION 묶음 이벤트)
+ * rates:                # 플레이어 한 명이 초당 보내는 패킷 수
+ *   HOTKEY: 8
+ *   TEXT_INPUT_PREVIEW: 4
+ * plugin:               # config.yml과 같은 키 (수신 큐, 속도 제한 등)
+ *   inbound:
+ *     requests:
+ *       drop-unknown: false
+ * </pre>
+ *
+ * @param rates  PacketType별 플레이어당 초당 패킷 수 (HOTKEY / TEXT_INPUT_PREVIEW / TEXT_INPUT / UI_ACTION)
+ * @param config 시뮬레이션할 플러그인 설정
+ */
+public record LoadScenario(
+        String name,
+        int players,
+        int warmupSeconds,
+        int durationSeconds,
+        boolean realtime,
+        String format,
+        String route,
+        Map<PacketType, Double> rates,
+        PacketHandlerConfig config
+) {
+
+    public static LoadScenario load(File file) {
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+
+        Map<PacketType, Double> rates = new EnumMap<>(PacketType.class);
+        ConfigurationSection section = yaml.getConfigurationSection("rates");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                PacketType type = PacketType.valueOf(key.toUpperCase(Locale.ROOT));
+                switch (type) {
+                    case HOTKEY, TEXT_INPUT_PREVIEW, TEXT_INPUT, UI_ACTION -> {
+                    }
+                    default -> throw new IllegalArgumentException("Not a simulated input type: " + type);
+                }
+                double rate = section.getDouble(key, 0);
+                if (rate > 0) {
+                    rates.put(type, rate);
+                }
+            }
+        }
+        if (rates.isEmpty()) {
+            throw new IllegalArgumentException(file + ": rates is empty");
+        }
+
+        String format = yaml.getString("format", "binary").toLowerCase(Locale.ROOT);
+        if (!format.equals("json") && !format.equals("binary")) {
+            throw new IllegalArgumentException(file + ": format must be json or binary");
+        }
+        String route = yaml.getString("route", "event").toLowerCase(Locale.ROOT);
+        if (!route.equals("event") && !route.equals("subscriber") && !route.equals("batch")) {
+            throw new IllegalArgumentException(file + ": route must be event, subscriber or batch");
+        }
+
+        ConfigurationSection plugin = yaml.getConfigurationSection("plugin");
+        return new LoadScenario(
+                yaml.getString("name", file.getName()),
+                Math.max(1, yaml.getInt("players", 1000)),
+                Math.max(0, yaml.getInt("warmup-seconds", 5)),
+                Math.max(1, yaml.getInt("duration-seconds", 30)),
+                yaml.getBoolean("realtime", true),
+                format,
+                route,
+                rates,
+                PacketHandlerConfig.from(plugin != null ? plugin : yaml.createSection("plugin"))
+        );
+    }
+}
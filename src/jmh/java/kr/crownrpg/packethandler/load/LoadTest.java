@@ -0,0 +1,396 @@
+package kr.crownrpg.packethandler.load;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import kr.crownrpg.packethandler.CrownPacketHandler;
+import kr.crownrpg.packethandler.bench.Corpus;
+import kr.crownrpg.packethandler.bench.StandIns;
+import kr.crownrpg.packethandler.channel.CrownPacketChannel;
+import kr.crownrpg.packethandler.channel.CrownPluginMessageListener;
+import kr.crownrpg.packethandler.channel.InboundRateLimiter;
+import kr.crownrpg.packethandler.channel.IngestQueue;
+import kr.crownrpg.packethandler.channel.OutboundWire;
+import kr.crownrpg.packethandler.channel.PreviewCoalescer;
+import kr.crownrpg.packethandler.config.PacketHandlerConfig;
+import kr.crownrpg.packethandler.event.CrownInputBatchEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerHotkeyEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerTextInputEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerTextInputPreviewEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerUiActionEvent;
+import kr.crownrpg.packethandler.input.HotkeyState;
+import kr.crownrpg.packethandler.input.InputBatcher;
+import kr.crownrpg.packethandler.input.InputRouter;
+import kr.crownrpg.packethandler.input.Subscription;
+import kr.crownrpg.packethandler.metrics.LatencyHistogram;
+import kr.crownrpg.packethandler.metrics.MetricsReporter;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.session.SessionRegistry;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 서버 없이 N명의 클라이언트 입력을 시뮬레이션하는 부하 테스트.
+ *
+ * 한 스레드를 서버 메인 스레드로 보고 20 TPS 틱을 돌린다. 매 틱:
+ * - 시나리오의 rates대로 플레이어들의 메시지를 {@link CrownPluginMessageListener}에 넣는다.
+ * - 수신 큐 / 미리보기 병합 / 요청 만료 등 플러그인의 틱 작업을 실행한다.
+ *
+ * 측정:
+ * - 처리량 (초당 수신 패킷 수, 구독자 / 리스너까지 전달된 입력 수)
+ * - 패킷 하나의 수신 처리 시간과 틱 하나의 처리 시간 백분위수 (틱 50ms 대비 사용률)
+ * - 측정 구간의 메인 스레드 할당량과 GC 횟수 / 시간
+ *
+ * 실행:
+ * <pre>
+ * ./gradlew loadTest -Pscenario=src/jmh/scenarios/baseline.yml
+ * java ... kr.crownrpg.packethandler.load.LoadTest &lt;scenario.yml&gt;... [--out &lt;dir&gt;]
+ * </pre>
+ * --out을 주면 시나리오별 결과를 JSON으로 남기므로 릴리스 간 비교에 쓸 수 있다.
+ */
+public final class LoadTest {
+
+    private static final long TICK_NANOS = 50_000_000L;
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final LoadScenario scenario;
+    private final Player[] players;
+    private final PacketType[] types;
+    private final byte[][] messages;
+    private final double[] perTick;
+    private final double[] carry;
+    private final int[] cursor;
+
+    private final PacketMetrics metrics = new PacketMetrics();
+    private final LatencyHistogram packetLatency = new LatencyHistogram();
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+    private final List<Runnable> tickTasks = new ArrayList<>();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final Plugin owner = StandIns.plugin("LoadTestFeature");
+    private final CrownPluginMessageListener listener;
+
+    private long injected;
+    private long delivered;
+    private long overBudgetTicks;
+
+    public LoadTest(LoadScenario scenario) {
+        this.scenario = scenario;
+        StandIns.installServer();
+
+        players = new Player[scenario.players()];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = StandIns.player(new UUID(0x10AD, i)).player();
+        }
+
+        types = scenario.rates().keySet().toArray(PacketType[]::new);
+        messages = new byte[types.length][];
+        perTick = new double[types.length];
+        carry = new double[types.length];
+        cursor = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            messages[i] = Corpus.inbound(types[i], scenario.format(), "typical");
+            perTick[i] = scenario.players() * scenario.rates().get(types[i]) / TICKS_PER_SECOND;
+        }
+
+        listener = wire(scenario.config());
+    }
+
+    /**
+     * CrownPacketHandler#onEnable과 같은 순서로 수신 경로를 구성한다. (Bukkit 등록 제외)
+     */
+    private CrownPluginMessageListener wire(PacketHandlerConfig config) {
+        OutboundWire wire = new OutboundWire(StandIns.plugin("CrownPacketHandler"), metrics, null, 0, null);
+        CrownPacketChannel channel = new CrownPacketChannel(new SessionRegistry(0), null, wire, metrics, null, null);
+
+        PacketHandlerConfig.Requests requestConfig = config.inbound().requests();
+        PendingRequests requests = new PendingRequests(
+                requestConfig.dropUnknown(),
+                requestConfig.graceMillis(),
+                requestConfig.defaultTimeoutMillis()
+        );
+        tickTasks.add(requests);
+
+        PacketHandlerConfig.Symbols symbolConfig = config.inbound().symbols();
+        SymbolTable symbols = new SymbolTable(symbolConfig.maxSize(), symbolConfig.maxDynamic());
+        InputBatcher batcher = null;
+        if (scenario.route().equals("batch") || config.inbound().inputBatch().enabled()) {
+            batcher = new InputBatcher();
+            tickTasks.add(batcher);
+        }
+        InputRouter router = new InputRouter(owner.getLogger(), symbols, batcher);
+        HotkeyState hotkeyState = config.inbound().hotkeyState().enabled() ? new HotkeyState(router, symbols) : null;
+
+        PreviewCoalescer previews = null;
+        PacketHandlerConfig.PreviewCoalescing coalescing = config.inbound().previewCoalescing();
+        if (coalescing.enabled()) {
+            previews = new PreviewCoalescer(router, coalescing.intervalTicks(), coalescing.flushOnFinal());
+            tickTasks.add(previews);
+        }
+
+        PacketHandlerConfig.RateLimit rateLimit = config.inbound().rateLimit();
+        InboundRateLimiter rateLimiter = rateLimit.enabled() ? new InboundRateLimiter(rateLimit) : null;
+
+        IngestQueue ingest = null;
+        PacketHandlerConfig.Ingest ingestConfig = config.inbound().ingest();
+        if (ingestConfig.enabled()) {
+            ingest = new IngestQueue(ingestConfig.budgetNanos(), ingestConfig.queueCapacity());
+            tickTasks.add(ingest);
+        }
+
+        switch (scenario.route()) {
+            case "subscriber" -> subscribe(router);
+            case "batch" -> listenBatch();
+            default -> listen();
+        }
+
+        return new CrownPluginMessageListener(
+                channel, previews, rateLimiter, null, ingest, requests, router, symbols, null, hotkeyState, null, null);
+    }
+
+    private void subscribe(InputRouter router) {
+        subscriptions.add(router.subscribeHotkey(owner, "skill.cast.4",
+                (player, action, pressed, context) -> delivered++));
+        subscriptions.add(router.subscribeTextInputPreview(owner, "nickname_change",
+                (player, requestId, context, text) -> delivered++));
+        subscriptions.add(router.subscribeTextInput(owner, "nickname_change",
+                (player, requestId, context, text, confirmed) -> delivered++));
+        subscriptions.add(router.subscribeUiAction(owner, "party_invite",
+                (player, requestId, ui, action) -> delivered++));
+    }
+
+    private void listen() {
+        for (HandlerList handlers : List.of(
+                CrownPlayerHotkeyEvent.getHandlerList(),
+                CrownPlayerTextInputPreviewEvent.getHandlerList(),
+                CrownPlayerTextInputEvent.getHandlerList(),
+                CrownPlayerUiActionEvent.getHandlerList())) {
+            handlers.register(new RegisteredListener(
+                    new Listener() {
+                    },
+                    (listener, event) -> delivered++,
+                    EventPriority.NORMAL,
+                    owner,
+                    false
+            ));
+        }
+    }
+
+    private void listenBatch() {
+        CrownInputBatchEvent.getHandlerList().register(new RegisteredListener(
+                new Listener() {
+                },
+                (listener, event) -> delivered += ((CrownInputBatchEvent) event).size(),
+                EventPriority.NORMAL,
+                owner,
+                false
+        ));
+    }
+
+    public Result run() {
+        try {
+            int warmupTicks = scenario.warmupSeconds() * TICKS_PER_SECOND;
+            for (int i = 0; i < warmupTicks; i++) {
+                tick(System.nanoTime());
+            }
+            resetCounters();
+
+            List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+            long gcCount = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+            long gcMillis = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+
+            int ticks = scenario.durationSeconds() * TICKS_PER_SECOND;
+            long next = start;
+            for (int i = 0; i < ticks; i++) {
+                if (scenario.realtime()) {
+                    // 틱이 밀렸으면 쉬지 않고 따라잡는다. (실제 서버와 같음)
+                    LockSupport.parkNanos(next - System.nanoTime());
+                }
+                tick(System.nanoTime());
+                next += TICK_NANOS;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            allocated = allocatedBytes() - allocated;
+            gcCount = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum() - gcCount;
+            gcMillis = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum() - gcMillis;
+
+            double seconds = elapsed / 1e9;
+            LatencyHistogram.Snapshot ticksSnapshot = tickLatency.snapshot();
+            return new Result(
+                    scenario.name(),
+                    scenario.players(),
+                    scenario.realtime(),
+                    seconds,
+                    injected,
+                    delivered,
+                    injected / seconds,
+                    delivered / seconds,
+                    packetLatency.snapshot(),
+                    ticksSnapshot,
+                    ticksSnapshot.meanNanos() / (double) TICK_NANOS,
+                    overBudgetTicks,
+                    allocated,
+                    injected == 0 ? 0 : allocated / injected,
+                    gcCount,
+                    gcMillis,
+                    metrics.snapshot()
+            );
+        } finally {
+            subscriptions.forEach(Subscription::unsubscribe);
+            HandlerList.unregisterAll(owner);
+        }
+    }
+
+    private void tick(long tickStart) {
+        for (int i = 0; i < types.length; i++) {
+            carry[i] += perTick[i];
+            int count = (int) carry[i];
+            carry[i] -= count;
+
+            byte[] message = messages[i];
+            for (int n = 0; n < count; n++) {
+                Player player = players[cursor[i]];
+                cursor[i] = cursor[i] + 1 == players.length ? 0 : cursor[i] + 1;
+
+                long start = System.nanoTime();
+                listener.onPluginMessageReceived(CrownPacketHandler.CHANNEL, player, message);
+                packetLatency.record(System.nanoTime() - start);
+                injected++;
+            }
+        }
+
+        for (Runnable task : tickTasks) {
+            task.run();
+        }
+
+        long elapsed = System.nanoTime() - tickStart;
+        tickLatency.record(elapsed);
+        if (elapsed > TICK_NANOS) {
+            overBudgetTicks++;
+        }
+    }
+
+    private void resetCounters() {
+        injected = 0;
+        delivered = 0;
+        overBudgetTicks = 0;
+        packetLatency.reset();
+        tickLatency.reset();
+        metrics.reset();
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    /**
+     * @param injectedPerSecond 초당 수신 패킷 수
+     * @param deliveredPerSecond 초당 구독자 / 리스너까지 전달된 입력 수
+     * @param packetLatency     패킷 하나의 수신 처리 시간 (onPluginMessageReceived)
+     * @param tickLatency       틱 하나의 처리 시간 (수신 + 틱 작업)
+     * @param tickUtilization   평균 틱 처리 시간 / 50ms
+     * @param overBudgetTicks   처리 시간이 50ms를 넘은 틱 수
+     * @param allocatedBytes    측정 구간에 메인 스레드가 할당한 byte
+     * @param bytesPerPacket    패킷당 할당 byte
+     * @param metrics           플러그인 송수신 지표 (버린 패킷과 이유, 디코딩 시간)
+     */
+    public record Result(
+            String scenario,
+            int players,
+            boolean realtime,
+            double seconds,
+            long injected,
+            long delivered,
+            double injectedPerSecond,
+            double deliveredPerSecond,
+            LatencyHistogram.Snapshot packetLatency,
+            LatencyHistogram.Snapshot tickLatency,
+            double tickUtilization,
+            long overBudgetTicks,
+            long allocatedBytes,
+            long bytesPerPacket,
+            long gcCount,
+            long gcMillis,
+            PacketMetrics.Snapshot metrics
+    ) {
+
+        public List<String> lines() {
+            List<String> lines = new ArrayList<>();
+            lines.add("== " + scenario + " (" + players + " players, " + (realtime ? "realtime" : "unthrottled") + ")");
+            lines.add(String.format(Locale.ROOT, "throughput  %.0f pkts/s in, %.0f inputs/s delivered (%d / %d over %.1fs)",
+                    injectedPerSecond, deliveredPerSecond, delivered, injected, seconds));
+            lines.add("packet      " + latency(packetLatency));
+            lines.add(String.format(Locale.ROOT, "tick        %s, utilization %.1f%%, over 50ms %d",
+                    latency(tickLatency), tickUtilization * 100, overBudgetTicks));
+            lines.add(String.format(Locale.ROOT, "allocation  %.1f MB, %d B/pkt, gc %d times / %d ms",
+                    allocatedBytes / (1024.0 * 1024.0), bytesPerPacket, gcCount, gcMillis));
+            lines.addAll(MetricsReporter.lines(metrics));
+            return lines;
+        }
+
+        private static String latency(LatencyHistogram.Snapshot snapshot) {
+            return String.format(Locale.ROOT, "mean %.1fus p50<%.1fus p99<%.1fus p99.9<%.1fus",
+                    snapshot.meanNanos() / 1e3, snapshot.p50Nanos() / 1e3,
+                    snapshot.p99Nanos() / 1e3, snapshot.p999Nanos() / 1e3);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> scenarios = new ArrayList<>();
+        Path out = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out") && i + 1 < args.length) {
+                out = Path.of(args[++i]);
+            } else {
+                scenarios.add(Path.of(args[i]));
+            }
+        }
+        if (scenarios.isEmpty()) {
+            System.err.println("usage: LoadTest <scenario.yml>... [--out <dir>]");
+            System.exit(2);
+            return;
+        }
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        for (Path file : scenarios) {
+            LoadScenario scenario = LoadScenario.load(file.toFile());
+            Result result = new LoadTest(scenario).run();
+            result.lines().forEach(System.out::println);
+
+            if (out != null) {
+                Files.createDirectories(out);
+                Path json = out.resolve(stripExtension(file.getFileName().toString()) + ".json");
+                Files.writeString(json, gson.toJson(result),
+                        StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private static String stripExtension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+}
@@ -0,0 +1,178 @@
+package kr.crownrpg.packethandler;
+
+import kr.crownrpg.packethandler.channel.CrownPacketChannel;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.packet.PayloadSchema;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.template.PacketTemplate;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 여러 플레이어에게 같은 서버 → 클라이언트 패킷을 보내는 API.
+ *
+ * {@link CrownPacketSender#audience}로 얻는다.
+ * 플레이어마다 CrownPacketSender를 호출하는 것과 결과는 같지만,
+ * 패킷은 코덱별로 한 번만 직렬화되고 수신자마다 requestId만 이어 붙인다.
+ * - 공용 requestId: 같은 byte[]를 모든 수신자에게 재사용한다.
+ * - 수신자별 requestId: requestIds 함수가 플레이어마다 requestId를 정한다.
+ *
+ * 모든 메서드는 실제로 전송한 플레이어 수를 반환한다.
+ */
+public final class CrownPacketAudience {
+
+    private final CrownPacketChannel channel;
+    private final PendingRequests requests;
+    private final List<? extends Player> players;
+
+    CrownPacketAudience(CrownPacketChannel channel, PendingRequests requests, List<? extends Player> players) {
+        this.channel = channel;
+        this.requests = requests;
+        this.players = players;
+    }
+
+    /**
+     * @return 수신자 수
+     */
+    public int size() {
+        return players.size();
+    }
+
+    /**
+     * 모든 수신자에게 같은 requestId로 텍스트 입력 UI를 연다.
+     */
+    public int openTextInput(
+            String requestId,
+            String context,
+            String title,
+            String placeholder,
+            int maxLength,
+            int timeoutMillis
+    ) {
+        if (requestId == null) {
+            return 0;
+        }
+        return openTextInput(player -> requestId, context, title, placeholder, maxLength, timeoutMillis);
+    }
+
+    /**
+     * 수신자마다 다른 requestId로 텍스트 입력 UI를 연다.
+     */
+    public int openTextInput(
+            Function<? super Player, String> requestIds,
+            String context,
+            String title,
+            String placeholder,
+            int maxLength,
+            int timeoutMillis
+    ) {
+        if (requestIds == null || context == null || title == null) {
+            return 0;
+        }
+
+        OutboundPayload payload = CrownPacketSender.textInputPayload(context, title, placeholder, maxLength, timeoutMillis);
+        return open(PacketType.OPEN_TEXT_INPUT, payload, requestIds, PendingRequests.Kind.TEXT_INPUT, timeoutMillis);
+    }
+
+    /**
+     * 모든 수신자에게 같은 requestId로 확인/취소 UI를 연다.
+     */
+    public int openConfirmUi(
+            String requestId,
+            String ui,
+            String title,
+            String message,
+            String acceptAction,
+            String cancelAction,
+            int timeoutMillis
+    ) {
+        if (requestId == null) {
+            return 0;
+        }
+        return openConfirmUi(player -> requestId, ui, title, message, acceptAction, cancelAction, timeoutMillis);
+    }
+
+    /**
+     * 수신자마다 다른 requestId로 확인/취소 UI를 연다.
+     */
+    public int openConfirmUi(
+            Function<? super Player, String> requestIds,
+            String ui,
+            String title,
+            String message,
+            String acceptAction,
+            String cancelAction,
+            int timeoutMillis
+    ) {
+        if (requestIds == null
+                || ui == null
+                || title == null
+                || message == null
+                || acceptAction == null
+                || cancelAction == null) {
+            return 0;
+        }
+
+        OutboundPayload payload = CrownPacketSender.confirmUiPayload(
+                ui, title, message, acceptAction, cancelAction, timeoutMillis);
+        return open(PacketType.OPEN_CONFIRM_UI, payload, requestIds, PendingRequests.Kind.CONFIRM_UI, timeoutMillis);
+    }
+
+    /**
+     * 모든 수신자의 같은 requestId UI를 닫는다.
+     */
+    public int closeUi(String requestId) {
+        if (requestId == null) {
+            return 0;
+        }
+        return closeUi(player -> requestId);
+    }
+
+    /**
+     * 수신자마다 다른 requestId의 UI를 닫는다.
+     */
+    public int closeUi(Function<? super Player, String> requestIds) {
+        if (requestIds == null) {
+            return 0;
+        }
+
+        CrownPacketChannel.Broadcast broadcast = channel.broadcast(new PacketTemplate(PacketType.CLOSE_UI, PayloadSchema.payload(PacketType.CLOSE_UI)));
+        int sent = 0;
+        for (Player player : players) {
+            String requestId = requestIds.apply(player);
+            if (player == null || requestId == null) continue;
+
+            requests.close(player, requestId);
+            if (broadcast.send(player, requestId)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    private int open(
+            PacketType type,
+            OutboundPayload payload,
+            Function<? super Player, String> requestIds,
+            PendingRequests.Kind kind,
+            int timeoutMillis
+    ) {
+        CrownPacketChannel.Broadcast broadcast = channel.broadcast(new PacketTemplate(type, payload));
+        int sent = 0;
+        for (Player player : players) {
+            String requestId = requestIds.apply(player);
+            if (player == null || requestId == null) continue;
+
+            requests.track(player, requestId, kind, timeoutMillis);
+            if (broadcast.send(player, requestId)) {
+                sent++;
+            } else {
+                requests.fail(player, requestId, new IllegalStateException("Failed to send " + type + ": " + requestId));
+            }
+        }
+        return sent;
+    }
+}
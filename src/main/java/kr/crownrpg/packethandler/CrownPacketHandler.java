@@ -1,9 +1,39 @@
 package kr.crownrpg.packethandler;
 
+import kr.crownrpg.packethandler.capture.PacketCapture;
+import kr.crownrpg.packethandler.channel.CrownPacketChannel;
 import kr.crownrpg.packethandler.channel.CrownPluginMessageListener;
+import kr.crownrpg.packethandler.channel.FragmentReassembler;
+import kr.crownrpg.packethandler.channel.InboundRateLimiter;
+import kr.crownrpg.packethandler.channel.IngestQueue;
+import kr.crownrpg.packethandler.channel.OutboundBatcher;
+import kr.crownrpg.packethandler.channel.OutboundScheduler;
+import kr.crownrpg.packethandler.channel.OutboundWire;
+import kr.crownrpg.packethandler.channel.PreviewCoalescer;
+import kr.crownrpg.packethandler.codec.PacketCompression;
+import kr.crownrpg.packethandler.command.CrownPacketCommand;
+import kr.crownrpg.packethandler.config.PacketHandlerConfig;
+import kr.crownrpg.packethandler.input.HotkeyState;
+import kr.crownrpg.packethandler.input.InputBatcher;
+import kr.crownrpg.packethandler.input.InputRouter;
+import kr.crownrpg.packethandler.latency.LatencyTracker;
+import kr.crownrpg.packethandler.metrics.MetricsReporter;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.session.SessionRegistry;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import kr.crownrpg.packethandler.validate.PreviewValidators;
 import org.bukkit.Bukkit;
+import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
 /**
  * Crown-PacketHandler 메인 플러그인 클래스.
  *
@@ -30,16 +60,176 @@ public final class CrownPacketHandler extends JavaPlugin {
     public static final String CHANNEL = "crown:packet";
 
     private CrownPacketSender packetSender;
+    private final PacketMetrics metrics = new PacketMetrics();
+    private OutboundBatcher batcher;
+    private OutboundScheduler outboundScheduler;
+    private PacketCompression compression;
+    private PreviewCoalescer previewCoalescer;
+    private InboundRateLimiter rateLimiter;
+    private FragmentReassembler fragments;
+    private IngestQueue ingest;
+    private PendingRequests requests;
+    private InputRouter inputRouter;
+    private HotkeyState hotkeyState;
+    private InputBatcher inputBatcher;
+    private PreviewValidators previewValidators;
+    private LatencyTracker latencyTracker;
+    private SymbolTable symbols;
+    private PacketCapture capture;
+    private CrownPacketCommand command;
 
     @Override
     public void onEnable() {
-        this.packetSender = new CrownPacketSender(this);
+        saveDefaultConfig();
+        PacketHandlerConfig config = PacketHandlerConfig.from(getConfig());
+
+        // Paper / Folia 공용 작업 예약 (반복 작업은 global region, 플레이어 작업은 플레이어를 소유한 스레드)
+        CrownScheduler scheduler = new CrownScheduler(this);
+
+        // 서버가 수락할 수 있는 클라이언트 기능
+        int supportedFeatures = ClientFeature.BINARY_V1.mask();
+        if (config.outbound().batching()) {
+            supportedFeatures |= ClientFeature.BATCH.mask();
+        }
+        if (config.compression().enabled()) {
+            supportedFeatures |= ClientFeature.DEFLATE.mask();
+        }
+        if (config.fragmentation().enabled()) {
+            supportedFeatures |= ClientFeature.FRAGMENT.mask();
+        }
+        if (config.latency().enabled()) {
+            supportedFeatures |= ClientFeature.PING.mask();
+        }
+
+        // 플레이어별 HANDSHAKE 협상 결과 (코덱 등)
+        SessionRegistry sessions = new SessionRegistry(supportedFeatures);
+        Bukkit.getPluginManager().registerEvents(sessions, this);
+
+        PacketHandlerConfig.Compression compressionConfig = config.compression();
+        if (compressionConfig.enabled()) {
+            compression = new PacketCompression(
+                    compressionConfig.threshold(),
+                    compressionConfig.level(),
+                    compressionConfig.maxInflatedBytes()
+            );
+        }
+
+        // 송수신 raw byte[] 캡처 (링 버퍼 파일)
+        Path captureDirectory = getDataFolder().toPath().resolve("captures");
+        if (config.capture().enabled()) {
+            capture = openCapture(captureDirectory, config.capture().sizeBytes());
+        }
+
+        // 압축 / 조각 전송 후 PluginMessage 송신
+        PacketHandlerConfig.Fragmentation fragmentConfig = config.fragmentation();
+        OutboundWire wire = new OutboundWire(
+                this,
+                metrics,
+                compression,
+                fragmentConfig.enabled() ? fragmentConfig.maxMessageBytes() : 0,
+                capture
+        );
+
+        if (config.outbound().batching()) {
+            batcher = new OutboundBatcher(wire, scheduler);
+            Bukkit.getPluginManager().registerEvents(batcher, this);
+        }
+
+        // 플레이어별 틱당 송신 예산 / PacketType별 우선순위
+        CrownPacketChannel channel = new CrownPacketChannel(
+                sessions, batcher, wire, metrics, scheduler, config.outbound().scheduling());
+        outboundScheduler = channel.outboundScheduler();
+        if (outboundScheduler != null) {
+            Bukkit.getPluginManager().registerEvents(outboundScheduler, this);
+            scheduler.repeat(outboundScheduler, 1L, 1L);
+        }
+
+        // 서버가 연 UI 요청과 응답의 대응 (CompletableFuture API, 타임아웃)
+        PacketHandlerConfig.Requests requestConfig = config.inbound().requests();
+        requests = new PendingRequests(
+                requestConfig.dropUnknown(),
+                requestConfig.graceMillis(),
+                requestConfig.defaultTimeoutMillis(),
+                scheduler
+        );
+        Bukkit.getPluginManager().registerEvents(requests, this);
+        scheduler.repeat(requests, 1L, 1L);
+
+        this.packetSender = new CrownPacketSender(channel, requests);
+
+        // action / ui / context 심볼 테이블
+        PacketHandlerConfig.Symbols symbolConfig = config.inbound().symbols();
+        symbols = new SymbolTable(symbolConfig.maxSize(), symbolConfig.maxDynamic());
+
+        // HOTKEY / UI_ACTION 틱 단위 묶음 이벤트
+        if (config.inbound().inputBatch().enabled()) {
+            inputBatcher = new InputBatcher();
+            Bukkit.getPluginManager().registerEvents(inputBatcher, this);
+            scheduler.repeat(inputBatcher, 1L, 1L);
+        }
+
+        // 입력 구독 핸들러 / Bukkit Event 전달
+        inputRouter = new InputRouter(getLogger(), symbols, inputBatcher, scheduler);
+        Bukkit.getPluginManager().registerEvents(inputRouter, this);
+
+        if (config.inbound().hotkeyState().enabled()) {
+            hotkeyState = new HotkeyState(inputRouter, symbols);
+            Bukkit.getPluginManager().registerEvents(hotkeyState, this);
+        }
+
+        // context별 TEXT_INPUT_PREVIEW 검증 규칙 (이벤트 없이 바로 응답)
+        previewValidators = new PreviewValidators(packetSender);
+        Bukkit.getPluginManager().registerEvents(previewValidators, this);
+
+        // PING / PONG 기반 지연 / 시계 차이 / 입력 지연 추정
+        PacketHandlerConfig.Latency latencyConfig = config.latency();
+        if (latencyConfig.enabled()) {
+            latencyTracker = new LatencyTracker(channel);
+            Bukkit.getPluginManager().registerEvents(latencyTracker, this);
+            scheduler.repeat(latencyTracker, latencyConfig.pingIntervalTicks(), latencyConfig.pingIntervalTicks());
+        }
+
+        PacketHandlerConfig.PreviewCoalescing coalescing = config.inbound().previewCoalescing();
+        if (coalescing.enabled()) {
+            previewCoalescer = new PreviewCoalescer(
+                    inputRouter, coalescing.intervalTicks(), coalescing.flushOnFinal(), scheduler);
+            Bukkit.getPluginManager().registerEvents(previewCoalescer, this);
+            scheduler.repeat(previewCoalescer, 1L, 1L);
+        }
+
+        PacketHandlerConfig.RateLimit rateLimit = config.inbound().rateLimit();
+        if (rateLimit.enabled()) {
+            rateLimiter = new InboundRateLimiter(rateLimit, scheduler);
+            Bukkit.getPluginManager().registerEvents(rateLimiter, this);
+        }
+
+        if (fragmentConfig.enabled()) {
+            fragments = new FragmentReassembler(
+                    fragmentConfig.maxMessageBytes(),
+                    fragmentConfig.playerBufferBytes(),
+                    fragmentConfig.globalBufferBytes(),
+                    fragmentConfig.timeoutMillis()
+            );
+            Bukkit.getPluginManager().registerEvents(fragments, this);
+            // 미완성 메시지 만료는 1초마다 확인한다.
+            scheduler.repeat(fragments, 20L, 20L);
+        }
+
+        PacketHandlerConfig.Ingest ingestConfig = config.inbound().ingest();
+        if (ingestConfig.enabled()) {
+            ingest = new IngestQueue(ingestConfig.budgetNanos(), ingestConfig.queueCapacity());
+            Bukkit.getPluginManager().registerEvents(ingest, this);
+            scheduler.repeat(ingest, 1L, 1L);
+        }
 
         // 클라이언트 → 서버 패킷 수신 등록
+        CrownPluginMessageListener listener = new CrownPluginMessageListener(
+                channel, previewCoalescer, rateLimiter, fragments, ingest, requests, inputRouter, symbols, capture, hotkeyState, previewValidators,
+                latencyTracker);
         Bukkit.getMessenger().registerIncomingPluginChannel(
                 this,
                 CHANNEL,
-                new CrownPluginMessageListener()
+                listener
         );
 
         // 서버 → 클라이언트 패킷 송신 채널 등록
@@ -48,11 +238,60 @@ public final class CrownPacketHandler extends JavaPlugin {
                 CHANNEL
         );
 
-        getLogger().info("Crown-PacketHandler enabled");
+        // 송수신 지표 / 캡처 재생: 관리자 명령어와 주기적 로그
+        PluginCommand pluginCommand = getCommand("crownpacket");
+        if (pluginCommand != null) {
+            command = new CrownPacketCommand(scheduler, metrics, capture, captureDirectory, listener);
+            pluginCommand.setExecutor(command);
+            pluginCommand.setTabCompleter(command);
+        }
+        long logIntervalTicks = config.metrics().logIntervalSeconds() * 20L;
+        if (logIntervalTicks > 0) {
+            scheduler.repeat(new MetricsReporter(metrics, getLogger()), logIntervalTicks, logIntervalTicks);
+        }
+
+        getLogger().info("Crown-PacketHandler enabled" + (CrownScheduler.isFolia() ? " (Folia)" : ""));
+    }
+
+    /**
+     * 서버 시작마다 새 캡처 파일을 연다.
+     *
+     * @return 파일을 열 수 없으면 null (캡처 없이 동작)
+     */
+    private PacketCapture openCapture(Path directory, int sizeBytes) {
+        try {
+            Files.createDirectories(directory);
+            String name = "capture-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".bin";
+            PacketCapture opened = new PacketCapture(directory.resolve(name), sizeBytes);
+            getLogger().info("Capturing crown:packet to " + opened.path());
+            return opened;
+        } catch (Exception e) {
+            getLogger().warning("Failed to open capture file: " + e.getMessage());
+            return null;
+        }
     }
 
     @Override
     public void onDisable() {
+        if (command != null) {
+            command.stopReplay();
+        }
+        if (batcher != null) {
+            // 틱 끝을 기다리던 패킷을 마저 보낸다.
+            batcher.flushAll();
+        }
+        if (requests != null) {
+            // 응답을 기다리던 future를 취소한다.
+            requests.cancelAll();
+        }
+        if (compression != null) {
+            // 비활성화하는 스레드의 Deflater / Inflater 네이티브 버퍼를 해제한다. (나머지는 GC가 해제)
+            compression.close();
+        }
+        if (capture != null) {
+            // 매핑된 캡처 파일을 디스크에 내보낸다.
+            capture.close();
+        }
         getLogger().info("Crown-PacketHandler disabled");
     }
 
@@ -63,6 +302,151 @@ public final class CrownPacketHandler extends JavaPlugin {
         return packetSender;
     }
 
+    /**
+     * 키 기반 입력 구독 API를 반환한다.
+     *
+     * 예: {@code getInputRouter().subscribeHotkey(plugin, "skill_1", handler)}
+     */
+    public InputRouter getInputRouter() {
+        return inputRouter;
+    }
+
+    /**
+     * 플레이어별 HOTKEY 눌림 상태를 반환한다.
+     *
+     * 예: {@code getHotkeyState().isHeld(player, "skill_1")}
+     *
+     * @return 상태 추적을 사용하지 않으면 null
+     */
+    public HotkeyState getHotkeyState() {
+        return hotkeyState;
+    }
+
+    /**
+     * TEXT_INPUT_PREVIEW 검증 규칙 등록소를 반환한다.
+     *
+     * 예: {@code getPreviewValidators().register(plugin, "nickname_change", TextRule.length(2, 12, "2~12자"))}
+     */
+    public PreviewValidators getPreviewValidators() {
+        return previewValidators;
+    }
+
+    /**
+     * 플레이어별 지연 / 시계 차이 추정기를 반환한다.
+     *
+     * 예: {@code getLatencyTracker().estimate(player).inputDelayMillis()}
+     *
+     * @return 지연 측정을 사용하지 않으면 null
+     */
+    public LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    /**
+     * action / ui / context 심볼 테이블을 반환한다.
+     *
+     * Feature Plugin은 onEnable에서 사용할 값을 등록해 두고,
+     * 이벤트의 {@code getActionId()} 등으로 int 비교할 수 있다.
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * TEXT_INPUT_PREVIEW 병합 통계를 반환한다.
+     *
+     * @return 병합을 사용하지 않으면 null
+     */
+    public PreviewCoalescer.Stats getPreviewStats() {
+        return previewCoalescer == null ? null : previewCoalescer.stats();
+    }
+
+    /**
+     * HOTKEY 반복 입력 억제 / 자동 release 통계를 반환한다.
+     *
+     * @return 상태 추적을 사용하지 않으면 null
+     */
+    public HotkeyState.Stats getHotkeyStats() {
+        return hotkeyState == null ? null : hotkeyState.stats();
+    }
+
+    /**
+     * 틱 단위 입력 묶음 통계를 반환한다.
+     *
+     * @return 입력 묶음을 사용하지 않으면 null
+     */
+    public InputBatcher.Stats getInputBatchStats() {
+        return inputBatcher == null ? null : inputBatcher.stats();
+    }
+
+    /**
+     * TEXT_INPUT_PREVIEW 규칙 검증 통계를 반환한다.
+     */
+    public PreviewValidators.Stats getValidatorStats() {
+        return previewValidators.stats();
+    }
+
+    /**
+     * PING / PONG 수와 서버 전체 RTT / 입력 지연 분포를 반환한다.
+     *
+     * @return 지연 측정을 사용하지 않으면 null
+     */
+    public LatencyTracker.Stats getLatencyStats() {
+        return latencyTracker == null ? null : latencyTracker.stats();
+    }
+
+    /**
+     * 송신 예산 통계(대기 / 대체 / 버린 패킷 수, 대기 중인 플레이어 수)를 반환한다.
+     *
+     * @return 송신 예산을 사용하지 않으면 null
+     */
+    public OutboundScheduler.Stats getOutboundStats() {
+        return outboundScheduler == null ? null : outboundScheduler.stats();
+    }
+
+    /**
+     * 수신 속도 제한 통계를 반환한다.
+     *
+     * @return 속도 제한을 사용하지 않으면 null
+     */
+    public InboundRateLimiter.Stats getRateLimitStats() {
+        return rateLimiter == null ? null : rateLimiter.stats();
+    }
+
+    /**
+     * 수신 큐 통계(대기 패킷 수, 직전 틱 처리량 등)를 반환한다.
+     *
+     * @return 수신 큐를 사용하지 않으면 null
+     */
+    public IngestQueue.Stats getIngestStats() {
+        return ingest == null ? null : ingest.stats();
+    }
+
+    /**
+     * 송수신 지표(PacketType별 송수신량, 버린 패킷 수와 이유, 디코딩 / 인코딩 시간)를 반환한다.
+     */
+    public PacketMetrics.Snapshot getMetrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * 조각 메시지 조립 통계를 반환한다.
+     *
+     * @return 조각 전송을 사용하지 않으면 null
+     */
+    public FragmentReassembler.Stats getFragmentStats() {
+        return fragments == null ? null : fragments.stats();
+    }
+
+    /**
+     * 송수신 캡처 통계를 반환한다.
+     *
+     * @return 캡처를 사용하지 않으면 null
+     */
+    public PacketCapture.Stats getCaptureStats() {
+        return capture == null ? null : capture.stats();
+    }
+
     /**
      * {@link CrownPacketSender#openTextInput(org.bukkit.entity.Player, String, String, String, String, int, int)}
      * 의 편의 래퍼.
@@ -1,27 +1,50 @@
 package kr.crownrpg.packethandler;
 
-import com.google.gson.JsonNull;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
+import kr.crownrpg.packethandler.channel.CrownPacketChannel;
+import kr.crownrpg.packethandler.channel.OutboundScheduler;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
 import kr.crownrpg.packethandler.packet.PacketType;
-import kr.crownrpg.packethandler.util.JsonUtils;
+import kr.crownrpg.packethandler.packet.PayloadSchema;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.request.TextInputResult;
+import kr.crownrpg.packethandler.request.UiActionResult;
+import kr.crownrpg.packethandler.template.ConfirmUiTemplate;
+import kr.crownrpg.packethandler.template.PacketTemplate;
+import kr.crownrpg.packethandler.template.TemplateCache;
+import kr.crownrpg.packethandler.template.TextInputTemplate;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
 
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 /**
  * Crown-PacketHandler가 제공하는 서버→클라이언트 송신 API.
  *
  * Feature Plugin은 JSON/직렬화/채널명에 대해 알 필요 없이,
  * 이 클래스의 공개 메서드를 호출하기만 하면 된다.
+ * 와이어 포맷(JSON / 바이너리)은 플레이어 세션에 따라 자동으로 선택된다.
+ *
+ * UI 요청은 두 가지 방식으로 사용할 수 있다.
+ * - open*: 응답이 기존처럼 Bukkit Event로 발행된다.
+ * - request*: 응답이 이벤트 대신 반환된 CompletableFuture로 전달된다.
+ *
+ * 송신 예산(outbound.scheduling)을 켜면 플레이어별 틱당 송신량이 제한되며,
+ * 많이 보내는 기능은 {@link #isCongested(Player)} / {@link #backlog(Player)}로 대기 상태를 확인하고 송신을 미룰 수 있다.
  */
 public final class CrownPacketSender {
 
-    private final Plugin plugin;
+    private final CrownPacketChannel channel;
+    private final PendingRequests requests;
+    private final TemplateCache templates = new TemplateCache(TemplateCache.DEFAULT_MAX_SIZE);
 
-    CrownPacketSender(Plugin plugin) {
-        this.plugin = plugin;
+    CrownPacketSender(CrownPacketChannel channel, PendingRequests requests) {
+        this.channel = channel;
+        this.requests = requests;
     }
 
     /**
@@ -40,14 +63,41 @@ public final class CrownPacketSender {
             return;
         }
 
-        JsonObject payload = new JsonObject();
-        payload.addProperty("context", context);
-        payload.addProperty("title", title);
-        addNullableString(payload, "placeholder", placeholder);
-        payload.addProperty("maxLength", maxLength);
-        addPositiveTimeout(payload, timeoutMillis);
+        requests.track(player, requestId, PendingRequests.Kind.TEXT_INPUT, timeoutMillis);
+        if (!send(player, PacketType.OPEN_TEXT_INPUT, requestId,
+                textInputPayload(context, title, placeholder, maxLength, timeoutMillis))) {
+            requests.fail(player, requestId, new IllegalStateException("Failed to send OPEN_TEXT_INPUT: " + requestId));
+        }
+    }
 
-        send(player, PacketType.OPEN_TEXT_INPUT, requestId, payload);
+    /**
+     * 텍스트 입력 UI를 요청하고 결과를 CompletableFuture로 받는다.
+     *
+     * 응답은 {@link kr.crownrpg.packethandler.event.CrownPlayerTextInputEvent} 대신 future로 전달되며,
+     * future는 플레이어를 소유한 스레드(Paper에서는 메인 스레드)에서 완료된다.
+     * - 타임아웃: {@link java.util.concurrent.TimeoutException}
+     * - 퇴장 / closeUi / 같은 requestId로 재요청: {@link java.util.concurrent.CancellationException}
+     * 미리보기(TEXT_INPUT_PREVIEW)는 기존처럼 이벤트로 발행된다.
+     */
+    public CompletableFuture<TextInputResult> requestTextInput(
+            Player player,
+            String requestId,
+            String context,
+            String title,
+            String placeholder,
+            int maxLength,
+            int timeoutMillis
+    ) {
+        if (player == null || requestId == null || context == null || title == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Missing required argument"));
+        }
+
+        CompletableFuture<TextInputResult> future = requests.awaitTextInput(player, requestId, timeoutMillis);
+        if (!send(player, PacketType.OPEN_TEXT_INPUT, requestId,
+                textInputPayload(context, title, placeholder, maxLength, timeoutMillis))) {
+            requests.fail(player, requestId, new IllegalStateException("Failed to send OPEN_TEXT_INPUT: " + requestId));
+        }
+        return future;
     }
 
     /**
@@ -73,15 +123,45 @@ public final class CrownPacketSender {
             return;
         }
 
-        JsonObject payload = new JsonObject();
-        payload.addProperty("ui", ui);
-        payload.addProperty("title", title);
-        payload.addProperty("message", message);
-        payload.addProperty("acceptAction", acceptAction);
-        payload.addProperty("cancelAction", cancelAction);
-        addPositiveTimeout(payload, timeoutMillis);
+        requests.track(player, requestId, PendingRequests.Kind.CONFIRM_UI, timeoutMillis);
+        if (!send(player, PacketType.OPEN_CONFIRM_UI, requestId,
+                confirmUiPayload(ui, title, message, acceptAction, cancelAction, timeoutMillis))) {
+            requests.fail(player, requestId, new IllegalStateException("Failed to send OPEN_CONFIRM_UI: " + requestId));
+        }
+    }
+
+    /**
+     * 확인/취소 UI를 열고 결과를 CompletableFuture로 받는다.
+     *
+     * 응답은 {@link kr.crownrpg.packethandler.event.CrownPlayerUiActionEvent} 대신 future로 전달되며,
+     * future는 플레이어를 소유한 스레드(Paper에서는 메인 스레드)에서 완료된다. 예외는 {@link #requestTextInput}과 같다.
+     */
+    public CompletableFuture<UiActionResult> requestConfirmUi(
+            Player player,
+            String requestId,
+            String ui,
+            String title,
+            String message,
+            String acceptAction,
+            String cancelAction,
+            int timeoutMillis
+    ) {
+        if (player == null
+                || requestId == null
+                || ui == null
+                || title == null
+                || message == null
+                || acceptAction == null
+                || cancelAction == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Missing required argument"));
+        }
 
-        send(player, PacketType.OPEN_CONFIRM_UI, requestId, payload);
+        CompletableFuture<UiActionResult> future = requests.awaitConfirmUi(player, requestId, timeoutMillis);
+        if (!send(player, PacketType.OPEN_CONFIRM_UI, requestId,
+                confirmUiPayload(ui, title, message, acceptAction, cancelAction, timeoutMillis))) {
+            requests.fail(player, requestId, new IllegalStateException("Failed to send OPEN_CONFIRM_UI: " + requestId));
+        }
+        return future;
     }
 
     /**
@@ -92,11 +172,8 @@ public final class CrownPacketSender {
             return;
         }
 
-        JsonObject payload = new JsonObject();
-        payload.addProperty("valid", valid);
-        payload.add("message", message == null ? JsonNull.INSTANCE : new JsonPrimitive(message));
-
-        send(player, PacketType.UI_VALIDATE_RESULT, requestId, payload);
+        send(player, PacketType.UI_VALIDATE_RESULT, requestId,
+                PayloadSchema.payload(PacketType.UI_VALIDATE_RESULT, valid, message));
     }
 
     /**
@@ -107,44 +184,147 @@ public final class CrownPacketSender {
             return;
         }
 
-        send(player, PacketType.CLOSE_UI, requestId, new JsonObject());
+        requests.close(player, requestId);
+        send(player, PacketType.CLOSE_UI, requestId, PayloadSchema.payload(PacketType.CLOSE_UI));
     }
 
-    private void send(Player player, PacketType type, String requestId, JsonObject payload) {
-        if (player == null || type == null || payload == null) {
-            return;
+    /**
+     * 여러 플레이어에게 같은 패킷을 보내는 {@link CrownPacketAudience}를 만든다.
+     *
+     * 패킷은 코덱별로 한 번만 직렬화되고, 수신자마다 requestId만 이어 붙여 보낸다.
+     */
+    public CrownPacketAudience audience(Collection<? extends Player> players) {
+        if (players == null) {
+            return new CrownPacketAudience(channel, requests, List.of());
         }
+        return new CrownPacketAudience(channel, requests, List.copyOf(players));
+    }
 
-        try {
-            if (type.requiresRequestId() && requestId == null) {
-                return;
+    /**
+     * 조건에 맞는 접속 중인 플레이어에게 보내는 {@link CrownPacketAudience}를 만든다.
+     */
+    public CrownPacketAudience audience(Predicate<? super Player> filter) {
+        List<Player> players = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (filter == null || filter.test(player)) {
+                players.add(player);
             }
+        }
+        return new CrownPacketAudience(channel, requests, players);
+    }
 
-            JsonObject envelope = new JsonObject();
-            envelope.addProperty("type", type.name());
-            envelope.add("requestId", requestId == null ? JsonNull.INSTANCE : new JsonPrimitive(requestId));
-            envelope.addProperty("clientTime", System.currentTimeMillis());
-            envelope.add("payload", payload);
+    /**
+     * 고정 필드를 미리 인코딩한 텍스트 입력 UI 템플릿을 반환한다.
+     *
+     * 같은 인자로 다시 호출하면 캐시된 템플릿을 재사용한다.
+     * 반환된 템플릿은 보관해 두고 {@link TextInputTemplate#open}으로 여러 번 보낼 수 있다.
+     *
+     * @return 필수 인자가 null이면 null
+     */
+    public TextInputTemplate textInputTemplate(
+            String context,
+            String title,
+            String placeholder,
+            int maxLength,
+            int timeoutMillis
+    ) {
+        if (context == null || title == null) {
+            return null;
+        }
 
-            byte[] bytes = JsonUtils.gson().toJson(envelope).getBytes(StandardCharsets.UTF_8);
-            if (bytes.length > 8192) {
-                // payload 최대 크기 초과 시 전송하지 않는다.
-                return;
-            }
+        PacketTemplate template = templates.get(
+                Arrays.asList(PacketType.OPEN_TEXT_INPUT, context, title, placeholder, maxLength, timeoutMillis),
+                () -> new PacketTemplate(
+                        PacketType.OPEN_TEXT_INPUT,
+                        textInputPayload(context, title, placeholder, maxLength, timeoutMillis)
+                )
+        );
+        return new TextInputTemplate(channel, requests, template, timeoutMillis);
+    }
 
-            player.sendPluginMessage(plugin, CrownPacketHandler.CHANNEL, bytes);
-        } catch (Exception ignored) {
-            // 어떤 이유로든 직렬화/전송 실패 시 서버 크래시를 방지한다.
+    /**
+     * message를 제외한 고정 필드를 미리 인코딩한 확인/취소 UI 템플릿을 반환한다.
+     *
+     * 같은 인자로 다시 호출하면 캐시된 템플릿을 재사용한다.
+     * 반환된 템플릿은 보관해 두고 {@link ConfirmUiTemplate#open}으로 여러 번 보낼 수 있다.
+     *
+     * @return 필수 인자가 null이면 null
+     */
+    public ConfirmUiTemplate confirmUiTemplate(
+            String ui,
+            String title,
+            String acceptAction,
+            String cancelAction,
+            int timeoutMillis
+    ) {
+        if (ui == null || title == null || acceptAction == null || cancelAction == null) {
+            return null;
         }
+
+        PacketTemplate template = templates.get(
+                Arrays.asList(PacketType.OPEN_CONFIRM_UI, ui, title, acceptAction, cancelAction, timeoutMillis),
+                () -> new PacketTemplate(
+                        PacketType.OPEN_CONFIRM_UI,
+                        confirmUiPayload(ui, title, PayloadSchema.slot(0), acceptAction, cancelAction, timeoutMillis)
+                )
+        );
+        return new ConfirmUiTemplate(channel, requests, template, timeoutMillis);
     }
 
-    private static void addNullableString(JsonObject payload, String key, String value) {
-        payload.add(key, value == null ? JsonNull.INSTANCE : new JsonPrimitive(value));
+    /**
+     * 플레이어 송신 대기열이 밀려 있는지 확인한다.
+     * true면 지금 보내는 NORMAL / LOW 패킷은 다음 틱 이후에 나가므로, 갱신성 패킷은 미루는 것이 좋다.
+     *
+     * @return 송신 예산을 사용하지 않으면 항상 false
+     */
+    public boolean isCongested(Player player) {
+        OutboundScheduler outbound = channel.outboundScheduler();
+        return outbound != null && player != null && outbound.isCongested(player);
     }
 
-    private static void addPositiveTimeout(JsonObject payload, int timeoutMillis) {
-        if (timeoutMillis > 0) {
-            payload.addProperty("timeout", timeoutMillis);
-        }
+    /**
+     * 플레이어 송신 대기 상태(대기 패킷 수 / 바이트 / 예상 소요 틱)를 반환한다.
+     *
+     * @return 송신 예산을 사용하지 않으면 {@link OutboundScheduler.Backlog#EMPTY}
+     */
+    public OutboundScheduler.Backlog backlog(Player player) {
+        OutboundScheduler outbound = channel.outboundScheduler();
+        return outbound == null || player == null ? OutboundScheduler.Backlog.EMPTY : outbound.backlog(player);
+    }
+
+    /**
+     * 템플릿 캐시 통계를 반환한다.
+     */
+    public TemplateCache.Stats templateStats() {
+        return templates.stats();
+    }
+
+    static OutboundPayload textInputPayload(
+            String context,
+            String title,
+            String placeholder,
+            int maxLength,
+            int timeoutMillis
+    ) {
+        return PayloadSchema.payload(PacketType.OPEN_TEXT_INPUT, context, title, placeholder, maxLength, timeoutMillis);
+    }
+
+    /**
+     * @param message 문자열, 또는 템플릿이면 {@link PayloadSchema#slot}
+     */
+    static OutboundPayload confirmUiPayload(
+            String ui,
+            String title,
+            Object message,
+            String acceptAction,
+            String cancelAction,
+            int timeoutMillis
+    ) {
+        return PayloadSchema.payload(
+                PacketType.OPEN_CONFIRM_UI, ui, title, message, acceptAction, cancelAction, timeoutMillis);
+    }
+
+    private boolean send(Player player, PacketType type, String requestId, OutboundPayload payload) {
+        return channel.send(player, type, requestId, payload);
     }
 }
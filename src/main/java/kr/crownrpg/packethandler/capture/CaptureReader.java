@@ -0,0 +1,146 @@
+package kr.crownrpg.packethandler.capture;
+
+import kr.crownrpg.packethandler.packet.PacketSniffer;
+import kr.crownrpg.packethandler.packet.PacketType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * {@link PacketCapture}가 남긴 파일을 읽는다.
+ *
+ * 서버 없이 단독으로 실행하면 내용을 출력한다.
+ * <pre>
+ * java -cp Crown-PacketHandler.jar kr.crownrpg.packethandler.capture.CaptureReader [-v] &lt;file&gt;
+ * </pre>
+ */
+public final class CaptureReader {
+
+    private CaptureReader() {
+    }
+
+    /**
+     * 파일 전체를 읽어 남아 있는 record를 오래된 순서로 돌려준다.
+     * 기록 도중 서버가 죽어 끝이 깨진 경우 온전한 record까지만 읽는다.
+     *
+     * @throws IOException 캡처 파일이 아닌 경우
+     */
+    public static Capture read(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < PacketCapture.FILE_HEADER_BYTES
+                || buffer.getLong(0) != PacketCapture.MAGIC
+                || buffer.getInt(8) != PacketCapture.VERSION) {
+            throw new IOException("Not a crown:packet capture file: " + path);
+        }
+
+        int capacity = buffer.getInt(PacketCapture.CAPACITY_OFFSET);
+        long head = buffer.getLong(PacketCapture.HEAD_OFFSET);
+        long tail = buffer.getLong(PacketCapture.TAIL_OFFSET);
+        if (capacity <= 0 || buffer.limit() < (long) PacketCapture.FILE_HEADER_BYTES + capacity
+                || tail < 0 || head < tail || head - tail > capacity) {
+            throw new IOException("Corrupted capture header: " + path);
+        }
+
+        CaptureRecord.Direction[] directions = CaptureRecord.Direction.values();
+        List<CaptureRecord> records = new ArrayList<>();
+        long position = tail;
+        while (position < head) {
+            int offset = (int) (position % capacity);
+            int remaining = capacity - offset;
+            int length = remaining < 4 ? PacketCapture.PAD : buffer.getInt(PacketCapture.FILE_HEADER_BYTES + offset);
+            if (length == PacketCapture.PAD) {
+                position += remaining;
+                continue;
+            }
+            if (length < PacketCapture.RECORD_HEADER_BYTES || length > remaining || position + length > head) {
+                break;
+            }
+
+            int index = PacketCapture.FILE_HEADER_BYTES + offset;
+            int direction = buffer.get(index + 28);
+            if (direction < 0 || direction >= directions.length) {
+                break;
+            }
+            byte[] message = new byte[length - PacketCapture.RECORD_HEADER_BYTES];
+            buffer.get(index + PacketCapture.RECORD_HEADER_BYTES, message);
+
+            records.add(new CaptureRecord(
+                    buffer.getLong(index + 4),
+                    new UUID(buffer.getLong(index + 12), buffer.getLong(index + 20)),
+                    directions[direction],
+                    message
+            ));
+            position += length;
+        }
+
+        return new Capture(
+                buffer.getLong(PacketCapture.STARTED_AT_OFFSET),
+                buffer.getLong(PacketCapture.WRITTEN_OFFSET),
+                buffer.getLong(PacketCapture.OVERWRITTEN_OFFSET),
+                records
+        );
+    }
+
+    /**
+     * @param startedAtMillis 캡처 시작 시각 (epoch ms)
+     * @param written         캡처 중 기록한 메시지 수
+     * @param overwritten     링 버퍼가 가득 차 덮어쓴 메시지 수
+     * @param records         파일에 남아 있는 record (오래된 순)
+     */
+    public record Capture(long startedAtMillis, long written, long overwritten, List<CaptureRecord> records) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean verbose = args.length == 2 && args[0].equals("-v");
+        if (args.length != 1 && !verbose) {
+            System.err.println("usage: CaptureReader [-v] <file>");
+            System.exit(2);
+            return;
+        }
+
+        Capture capture = read(Path.of(args[args.length - 1]));
+        System.out.println("started " + Instant.ofEpochMilli(capture.startedAtMillis())
+                + ", written " + capture.written()
+                + ", overwritten " + capture.overwritten()
+                + ", records " + capture.records().size());
+
+        for (CaptureRecord record : capture.records()) {
+            PacketType type = PacketSniffer.sniffType(record.message());
+            System.out.println(String.format(Locale.ROOT, "%12.3fms %-3s %s %-18s %dB",
+                    record.nanos() / 1_000_000.0,
+                    record.direction() == CaptureRecord.Direction.INBOUND ? "IN" : "OUT",
+                    record.player(),
+                    type == null ? "?" : type.name(),
+                    record.message().length));
+            if (verbose) {
+                System.out.println("    " + describe(record.message()));
+            }
+        }
+    }
+
+    /**
+     * JSON 메시지는 문자열로, 그 외(바이너리 / 압축 / 조각)는 앞부분을 16진수로 보여준다.
+     */
+    private static String describe(byte[] message) {
+        if (message.length > 0 && message[0] == '{') {
+            return new String(message, StandardCharsets.UTF_8);
+        }
+        StringBuilder hex = new StringBuilder();
+        int length = Math.min(message.length, 64);
+        for (int i = 0; i < length; i++) {
+            hex.append(String.format(Locale.ROOT, "%02x", message[i] & 0xFF));
+        }
+        if (length < message.length) {
+            hex.append("...");
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package kr.crownrpg.packethandler.capture;
+
+import java.util.UUID;
+
+/**
+ * 캡처 파일에 기록된 crown:packet 메시지 하나.
+ *
+ * @param nanos     캡처 시작 이후 경과 시간(ns)
+ * @param player    송수신 대상 플레이어
+ * @param direction 송수신 방향
+ * @param message   전송 그대로의 byte[] (압축 / 조각 / BATCH 포함)
+ */
+public record CaptureRecord(long nanos, UUID player, Direction direction, byte[] message) {
+
+    public enum Direction {
+        /** 클라이언트 → 서버 */
+        INBOUND,
+        /** 서버 → 클라이언트 */
+        OUTBOUND
+    }
+}
@@ -0,0 +1,93 @@
+package kr.crownrpg.packethandler.capture;
+
+import kr.crownrpg.packethandler.CrownPacketHandler;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.util.List;
+
+/**
+ * 캡처한 수신 메시지를 원래 간격(또는 speed배 빠르게)으로 다시 수신 리스너에 넣는다.
+ *
+ * 매 틱 실행되며, 재생 시작 이후 경과 시간 × speed 안에 들어온 메시지를 모두 전달한다.
+ * 송신 메시지는 서버가 다시 만들어 내므로 재생하지 않는다.
+ * 메시지는 캡처된 플레이어가 접속해 있으면 그 플레이어로, target을 지정하면 모두 target으로 전달한다.
+ *
+ * 한 스레드(global region, Paper에서는 메인 스레드)에서만 사용한다.
+ */
+public final class CaptureReplay implements Runnable {
+
+    private final List<CaptureRecord> records;
+    private final double speed;
+    private final Player target;
+    private final PluginMessageListener listener;
+
+    private int next;
+    private long startedAt = -1;
+    private long firstNanos;
+    private long delivered;
+    private long skipped;
+
+    /**
+     * @param speed    재생 속도 배율, {@link Double#POSITIVE_INFINITY}면 첫 틱에 모두 전달
+     * @param target   모든 메시지를 받을 플레이어, null이면 캡처된 플레이어
+     * @param listener 메시지를 넣을 수신 리스너
+     */
+    public CaptureReplay(List<CaptureRecord> records, double speed, Player target, PluginMessageListener listener) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive");
+        }
+        this.records = records.stream()
+                .filter(record -> record.direction() == CaptureRecord.Direction.INBOUND)
+                .toList();
+        this.speed = speed;
+        this.target = target;
+        this.listener = listener;
+        if (!this.records.isEmpty()) {
+            this.firstNanos = this.records.get(0).nanos();
+        }
+    }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        if (startedAt < 0) {
+            startedAt = now;
+        }
+        double due = (now - startedAt) * speed;
+
+        while (next < records.size()) {
+            CaptureRecord record = records.get(next);
+            if (record.nanos() - firstNanos > due) {
+                break;
+            }
+            next++;
+
+            Player player = target != null ? target : Bukkit.getPlayer(record.player());
+            if (player == null || !player.isOnline()) {
+                skipped++;
+                continue;
+            }
+            // 리스너가 예외를 삼키므로 실제 수신과 같은 경로로 처리된다.
+            listener.onPluginMessageReceived(CrownPacketHandler.CHANNEL, player, record.message());
+            delivered++;
+        }
+    }
+
+    public boolean finished() {
+        return next >= records.size();
+    }
+
+    public Stats stats() {
+        return new Stats(records.size(), delivered, skipped);
+    }
+
+    /**
+     * @param total     재생할 수신 메시지 수
+     * @param delivered 리스너에 전달한 메시지 수
+     * @param skipped   플레이어가 접속해 있지 않아 건너뛴 메시지 수
+     */
+    public record Stats(int total, long delivered, long skipped) {
+    }
+}
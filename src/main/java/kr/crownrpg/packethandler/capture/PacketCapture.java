@@ -0,0 +1,190 @@
+package kr.crownrpg.packethandler.capture;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * crown:packet 송수신 메시지를 고정 크기 메모리 매핑 파일에 기록한다. (opt-in)
+ *
+ * 파일은 링 버퍼로 사용되며, 가득 차면 가장 오래된 메시지부터 덮어쓴다.
+ * 기록은 매핑된 메모리에 복사하는 것뿐이므로 송수신 경로에서 시스템 콜이 없다.
+ * 디스크 반영은 OS가 하고, {@link #close()}에서 마저 내보낸다.
+ *
+ * 파일 구조:
+ * <pre>
+ * [header 64B] magic(8) version(4) capacity(4) startedAtMillis(8) head(8) tail(8) written(8) overwritten(8)
+ * [data]       record: length(4) nanos(8) uuidMost(8) uuidLeast(8) direction(1) message
+ *              데이터 영역 끝에 record가 들어가지 않으면 length -1(PAD)을 남기고 처음으로 돌아간다.
+ * </pre>
+ * head / tail은 처음부터 쓴 누적 위치이며, 실제 위치는 {@code % capacity}다.
+ * head는 record를 다 쓴 뒤에 갱신하므로 서버가 죽어도 파일에는 온전한 record만 남는다.
+ *
+ * 파일은 {@link CaptureReader}로 읽는다.
+ */
+public final class PacketCapture {
+
+    static final long MAGIC = 0x43524F574E434150L; // "CROWNCAP"
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 64;
+    static final int RECORD_HEADER_BYTES = 4 + 8 + 8 + 8 + 1;
+    static final int PAD = -1;
+
+    static final int CAPACITY_OFFSET = 12;
+    static final int STARTED_AT_OFFSET = 16;
+    static final int HEAD_OFFSET = 24;
+    static final int TAIL_OFFSET = 32;
+    static final int WRITTEN_OFFSET = 40;
+    static final int OVERWRITTEN_OFFSET = 48;
+
+    /** 데이터 영역 최소 크기 */
+    public static final int MIN_CAPACITY = 1 << 20;
+
+    private final Path path;
+    private final FileChannel file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long startedAtNanos = System.nanoTime();
+
+    private long head;
+    private long tail;
+    private long written;
+    private long overwritten;
+    private long skipped;
+    private boolean closed;
+
+    /**
+     * 파일을 새로 만들고 데이터 영역을 미리 매핑한다. 같은 파일이 있으면 덮어쓴다.
+     *
+     * @param capacity 데이터 영역 크기(byte), {@link #MIN_CAPACITY} 이상
+     */
+    public PacketCapture(Path path, int capacity) throws IOException {
+        if (capacity < MIN_CAPACITY) {
+            throw new IllegalArgumentException("capacity < " + MIN_CAPACITY);
+        }
+        this.path = path;
+        this.capacity = capacity;
+        this.file = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.buffer = file.map(FileChannel.MapMode.READ_WRITE, 0, (long) FILE_HEADER_BYTES + capacity);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        // 송수신 경로에서 page fault가 나지 않도록 미리 올려 둔다.
+        buffer.load();
+
+        buffer.putLong(0, MAGIC);
+        buffer.putInt(8, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putLong(STARTED_AT_OFFSET, System.currentTimeMillis());
+        buffer.putLong(HEAD_OFFSET, 0);
+        buffer.putLong(TAIL_OFFSET, 0);
+        buffer.putLong(WRITTEN_OFFSET, 0);
+        buffer.putLong(OVERWRITTEN_OFFSET, 0);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public void inbound(UUID player, byte[] message) {
+        write(player, CaptureRecord.Direction.INBOUND, message);
+    }
+
+    public void outbound(UUID player, byte[] message) {
+        write(player, CaptureRecord.Direction.OUTBOUND, message);
+    }
+
+    private synchronized void write(UUID player, CaptureRecord.Direction direction, byte[] message) {
+        if (closed) return;
+
+        int size = RECORD_HEADER_BYTES + message.length;
+        if (size > capacity / 4) {
+            // 한 메시지가 링 버퍼 대부분을 지우지 않도록 제한한다.
+            skipped++;
+            return;
+        }
+
+        int offset = (int) (head % capacity);
+        int pad = offset + size > capacity ? capacity - offset : 0;
+
+        // 덮어쓸 영역에 있는 오래된 record를 먼저 버린다.
+        reclaim(head + pad + size - capacity);
+
+        if (pad > 0) {
+            if (pad >= 4) {
+                buffer.putInt(FILE_HEADER_BYTES + offset, PAD);
+            }
+            head += pad;
+            offset = 0;
+        }
+
+        int index = FILE_HEADER_BYTES + offset;
+        buffer.putInt(index, size);
+        buffer.putLong(index + 4, System.nanoTime() - startedAtNanos);
+        buffer.putLong(index + 12, player.getMostSignificantBits());
+        buffer.putLong(index + 20, player.getLeastSignificantBits());
+        buffer.put(index + 28, (byte) direction.ordinal());
+        buffer.put(index + RECORD_HEADER_BYTES, message);
+
+        head += size;
+        written++;
+        buffer.putLong(WRITTEN_OFFSET, written);
+        buffer.putLong(HEAD_OFFSET, head);
+    }
+
+    /**
+     * tail을 record 단위로 upTo 이상이 될 때까지 옮긴다.
+     */
+    private void reclaim(long upTo) {
+        if (tail >= upTo) return;
+
+        while (tail < upTo) {
+            int offset = (int) (tail % capacity);
+            int remaining = capacity - offset;
+            int length = remaining < 4 ? PAD : buffer.getInt(FILE_HEADER_BYTES + offset);
+            if (length == PAD) {
+                tail += remaining;
+            } else {
+                tail += length;
+                overwritten++;
+            }
+        }
+        buffer.putLong(OVERWRITTEN_OFFSET, overwritten);
+        buffer.putLong(TAIL_OFFSET, tail);
+    }
+
+    /**
+     * 남은 내용을 디스크에 내보내고 파일을 닫는다. 이후 기록은 무시된다.
+     */
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            buffer.force();
+            file.close();
+        } catch (Exception ignored) {
+            // 종료 중 실패해도 서버 종료를 막지 않는다.
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(written, overwritten, skipped, Math.min(head - tail, capacity), capacity);
+    }
+
+    /**
+     * @param written     기록한 메시지 수
+     * @param overwritten 링 버퍼가 가득 차 덮어쓴 메시지 수
+     * @param skipped     너무 커서 기록하지 않은 메시지 수
+     * @param usedBytes   현재 파일에 남아 있는 데이터 크기(byte)
+     * @param capacity    데이터 영역 크기(byte)
+     */
+    public record Stats(long written, long overwritten, long skipped, long usedBytes, int capacity) {
+    }
+}
@@ -0,0 +1,287 @@
+package kr.crownrpg.packethandler.channel;
+
+import kr.crownrpg.packethandler.codec.JsonPacketCodec;
+import kr.crownrpg.packethandler.codec.PacketCodec;
+import kr.crownrpg.packethandler.codec.PacketCompression;
+import kr.crownrpg.packethandler.config.PacketHandlerConfig;
+import kr.crownrpg.packethandler.metrics.DropReason;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.session.PlayerSession;
+import kr.crownrpg.packethandler.session.SessionRegistry;
+import kr.crownrpg.packethandler.template.PacketTemplate;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import org.bukkit.entity.Player;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 서버 → 클라이언트 패킷 송신 경로.
+ *
+ * 이 클래스의 책임:
+ * - 플레이어 세션에 맞는 코덱 선택 (JSON / 바이너리)
+ * - 직렬화 및 최대 크기 검증
+ * - 플레이어별 송신 예산 / 우선순위 ({@link OutboundScheduler}, opt-in)
+ * - PluginMessage 전송 (BATCH 모드에서는 틱 끝 묶음 전송)
+ * - 플레이어를 소유하지 않은 스레드(Folia의 다른 region, 비동기 작업)에서 호출되면
+ *   인코딩은 호출한 스레드에서 하고, 전송만 플레이어를 소유한 스레드로 넘긴다.
+ * - 압축 / 조각 전송은 {@link OutboundWire}가 처리한다.
+ * - 송신량 / 인코딩 시간 / 버린 패킷을 {@link PacketMetrics}에 기록
+ *
+ * Feature Plugin은 이 클래스가 아니라 {@link kr.crownrpg.packethandler.CrownPacketSender}를 사용한다.
+ */
+public final class CrownPacketChannel {
+
+    /**
+     * crown:packet 메시지 하나의 최대 크기(byte). 송수신 모두 적용된다.
+     * 압축한 경우 압축 후 크기에 적용되고, 이보다 큰 메시지는 조각으로 나눠 보낸다.
+     */
+    public static final int MAX_PACKET_BYTES = 8192;
+
+    private final SessionRegistry sessions;
+    private final OutboundBatcher batcher;
+    private final OutboundWire wire;
+    private final PacketMetrics metrics;
+    private final CrownScheduler scheduler;
+    private final OutboundScheduler outbound;
+
+    /**
+     * @param batcher    BATCH 모드를 사용하지 않으면 null
+     * @param scheduler  스레드를 옮기지 않으면 null (호출한 스레드에서 바로 전송)
+     * @param scheduling 송신 예산 / 우선순위를 사용하지 않으면 null
+     */
+    public CrownPacketChannel(
+            SessionRegistry sessions,
+            OutboundBatcher batcher,
+            OutboundWire wire,
+            PacketMetrics metrics,
+            CrownScheduler scheduler,
+            PacketHandlerConfig.Scheduling scheduling
+    ) {
+        this.sessions = sessions;
+        this.batcher = batcher;
+        this.wire = wire;
+        this.metrics = metrics;
+        this.scheduler = scheduler;
+        this.outbound = scheduling == null || !scheduling.enabled()
+                ? null
+                : new OutboundScheduler(scheduling, metrics, scheduler,
+                        (player, type, requestId, bytes) -> deliver(player, sessions.find(player), type, requestId, bytes));
+    }
+
+    public SessionRegistry sessions() {
+        return sessions;
+    }
+
+    public PacketMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * 스레드를 옮기지 않으면 null
+     */
+    public CrownScheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 송신 예산 / 우선순위를 사용하지 않으면 null
+     */
+    public OutboundScheduler outboundScheduler() {
+        return outbound;
+    }
+
+    /**
+     * 압축을 사용하지 않으면 null
+     */
+    public PacketCompression compression() {
+        return wire.compression();
+    }
+
+    /**
+     * @return 전송(또는 송신 대기열 / BATCH 대기열 / 소유 스레드에 추가)했으면 true,
+     *         검증/직렬화 실패나 송신 대기열 초과로 보내지 않았으면 false
+     */
+    public boolean send(Player player, PacketType type, String requestId, OutboundPayload payload) {
+        if (player == null || type == null || payload == null) {
+            return false;
+        }
+
+        try {
+            if (type.requiresRequestId() && requestId == null) {
+                return false;
+            }
+
+            PlayerSession session = sessions.find(player);
+            long start = System.nanoTime();
+            // 최대 크기를 넘으면 끝까지 인코딩하지 않고 중단한다.
+            byte[] bytes = codec(session).encode(type, requestId, System.currentTimeMillis(), payload, wire.maxBytes(session));
+            metrics.encoded(System.nanoTime() - start);
+            if (bytes == null) {
+                wire.oversized(type, -1);
+                return false;
+            }
+            return sendBytes(player, session, type, requestId, bytes);
+        } catch (Exception ignored) {
+            // 어떤 이유로든 직렬화/전송 실패 시 서버 크래시를 방지한다.
+            metrics.droppedOutbound(DropReason.ENCODE_ERROR);
+            return false;
+        }
+    }
+
+    /**
+     * 미리 인코딩된 템플릿에 가변 필드만 채워 전송한다.
+     *
+     * @return 전송(또는 BATCH 대기열 추가)했으면 true, 검증/직렬화 실패로 보내지 않았으면 false
+     */
+    public boolean send(Player player, PacketTemplate template, String requestId, String... slots) {
+        if (player == null || template == null) {
+            return false;
+        }
+
+        try {
+            if (template.type().requiresRequestId() && requestId == null) {
+                return false;
+            }
+
+            PlayerSession session = sessions.find(player);
+            long start = System.nanoTime();
+            byte[] bytes = template.render(codec(session), requestId, System.currentTimeMillis(), slots);
+            metrics.encoded(System.nanoTime() - start);
+            return sendBytes(player, session, template.type(), requestId, bytes);
+        } catch (Exception ignored) {
+            // 어떤 이유로든 직렬화/전송 실패 시 서버 크래시를 방지한다.
+            metrics.droppedOutbound(DropReason.ENCODE_ERROR);
+            return false;
+        }
+    }
+
+    /**
+     * 같은 패킷을 여러 플레이어에게 보내기 위한 {@link Broadcast}를 만든다.
+     */
+    public Broadcast broadcast(PacketTemplate template, String... slots) {
+        return new Broadcast(template, slots);
+    }
+
+    /**
+     * 송신 대기열 / BATCH 대기열에 남아 있는 패킷을 즉시 전송한다. (코덱 재협상 전 등)
+     */
+    public void flush(Player player) {
+        if (outbound != null) {
+            outbound.flush(player);
+        }
+        PlayerSession session = sessions.find(player);
+        if (batcher != null && session != null) {
+            batcher.flush(session);
+        }
+    }
+
+    private boolean sendBytes(Player player, PlayerSession session, PacketType type, String requestId, byte[] bytes) {
+        if (bytes.length > wire.maxBytes(session)) {
+            // payload 최대 크기 초과 시 전송하지 않는다.
+            wire.oversized(type, bytes.length);
+            return false;
+        }
+
+        // HANDSHAKE 응답은 코덱 전환 직전이므로 예산과 관계없이 바로 보낸다.
+        if (outbound != null && type != PacketType.HANDSHAKE) {
+            OutboundScheduler.Decision decision = outbound.offer(player, type, requestId, bytes);
+            if (decision != OutboundScheduler.Decision.SEND) {
+                // 대기열에 쌓았으면 true, 대기열이 가득 차 버렸으면 false
+                return decision == OutboundScheduler.Decision.QUEUED;
+            }
+        }
+        return deliver(player, session, type, requestId, bytes);
+    }
+
+    private boolean deliver(Player player, PlayerSession session, PacketType type, String requestId, byte[] bytes) {
+        // PING은 지연 측정용이므로 틱 끝까지 묶지 않고 바로 보낸다.
+        if (batcher != null && session != null && session.supports(ClientFeature.BATCH) && type != PacketType.PING) {
+            // 압축 / 조각 전송은 틱 끝에 적용된다.
+            batcher.enqueue(session, type, requestId, bytes);
+            metrics.sent(type, bytes.length);
+            return true;
+        }
+
+        if (scheduler != null && !scheduler.owns(player)) {
+            // PluginMessage는 플레이어를 소유한 스레드에서 내보낸다. (BATCH 대기열은 어느 스레드에서든 쌓을 수 있음)
+            scheduler.later(player, () -> {
+                if (wire.send(player, session, type, bytes)) {
+                    metrics.sent(type, bytes.length);
+                }
+            });
+            return true;
+        }
+
+        if (!wire.send(player, session, type, bytes)) {
+            return false;
+        }
+        metrics.sent(type, bytes.length);
+        return true;
+    }
+
+    private static PacketCodec codec(PlayerSession session) {
+        return session == null ? JsonPacketCodec.INSTANCE : session.codec();
+    }
+
+    /**
+     * 한 번 인코딩한 패킷을 여러 플레이어에게 보낸다.
+     *
+     * 템플릿은 코덱별로 한 번만 컴파일되고, 수신자마다 requestId만 이어 붙인다.
+     * 직전 수신자와 requestId가 같으면 렌더링 결과(byte[])를 그대로 재사용하므로
+     * 공용 requestId로 N명에게 보내면 코덱당 한 번만 직렬화한다.
+     * serverTime은 Broadcast를 만든 시점으로 고정된다.
+     *
+     * 한 스레드에서만 사용한다.
+     */
+    public final class Broadcast {
+
+        private final PacketTemplate template;
+        private final String[] slots;
+        private final long serverTime = System.currentTimeMillis();
+        private final Map<PacketCodec, Rendered> rendered = new IdentityHashMap<>(2);
+
+        private Broadcast(PacketTemplate template, String[] slots) {
+            this.template = template;
+            this.slots = slots;
+        }
+
+        /**
+         * @return 전송(또는 BATCH 대기열 추가)했으면 true
+         */
+        public boolean send(Player player, String requestId) {
+            if (player == null) {
+                return false;
+            }
+
+            try {
+                if (template.type().requiresRequestId() && requestId == null) {
+                    return false;
+                }
+
+                PlayerSession session = sessions.find(player);
+                PacketCodec codec = codec(session);
+
+                Rendered last = rendered.get(codec);
+                if (last == null || !Objects.equals(last.requestId, requestId)) {
+                    long start = System.nanoTime();
+                    last = new Rendered(requestId, template.render(codec, requestId, serverTime, slots));
+                    metrics.encoded(System.nanoTime() - start);
+                    rendered.put(codec, last);
+                }
+                return sendBytes(player, session, template.type(), requestId, last.bytes);
+            } catch (Exception ignored) {
+                // 어떤 이유로든 직렬화/전송 실패 시 서버 크래시를 방지한다.
+                metrics.droppedOutbound(DropReason.ENCODE_ERROR);
+                return false;
+            }
+        }
+    }
+
+    private record Rendered(String requestId, byte[] bytes) {
+    }
+}
@@ -1,33 +1,116 @@
 package kr.crownrpg.packethandler.channel;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
 import kr.crownrpg.packethandler.CrownPacketHandler;
-import kr.crownrpg.packethandler.event.*;
-import kr.crownrpg.packethandler.packet.Envelope;
+import kr.crownrpg.packethandler.capture.PacketCapture;
+import kr.crownrpg.packethandler.codec.PacketCodecs;
+import kr.crownrpg.packethandler.codec.PacketCompression;
+import kr.crownrpg.packethandler.codec.PacketFragments;
+import kr.crownrpg.packethandler.input.HotkeyState;
+import kr.crownrpg.packethandler.input.InputRouter;
+import kr.crownrpg.packethandler.latency.LatencyTracker;
+import kr.crownrpg.packethandler.metrics.DropReason;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.packet.InboundPacket;
+import kr.crownrpg.packethandler.packet.MissingFieldException;
+import kr.crownrpg.packethandler.packet.PacketSniffer;
 import kr.crownrpg.packethandler.packet.PacketType;
-import kr.crownrpg.packethandler.util.JsonUtils;
-import org.bukkit.Bukkit;
+import kr.crownrpg.packethandler.packet.PayloadSchema;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.session.SessionRegistry;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import kr.crownrpg.packethandler.validate.PreviewValidators;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.messaging.PluginMessageListener;
 
-import java.nio.charset.StandardCharsets;
-
 /**
  * Plugin Message 기반 패킷 수신 리스너.
  *
  * 이 클래스의 책임:
- * - Raw byte[] → UTF-8 JSON 문자열 변환
- * - JSON 파싱 및 기본 검증
- * - PacketType에 따라 Bukkit Event 발행
+ * - 수신한 raw byte[] 캡처 (설정 시)
+ * - 디코딩 전 플레이어별 속도 제한 (설정 시)
+ * - 조각 메시지 조립 (설정 시, 조립된 메시지는 일반 메시지와 같이 처리)
+ * - 틱 예산 기반 수신 큐에 적재 (설정 시, 이후 단계는 큐에서 처리)
+ * - 압축 메시지 해제 (크기 제한 검사)
+ * - Raw byte[] → 첫 바이트로 코덱(JSON / 바이너리)을 판별하여 디코딩 및 기본 검증
+ * - HANDSHAKE 처리 (플레이어별 코덱 협상)
+ * - PONG으로 지연 / 시계 차이 추정, 입력 패킷의 clientTime으로 입력 지연 기록 (설정 시)
+ * - HOTKEY 눌림 상태 반영 및 반복 입력 폐기 (설정 시)
+ * - 검증 규칙이 등록된 context의 TEXT_INPUT_PREVIEW에 즉시 UI_VALIDATE_RESULT 응답
+ * - UI 응답을 requestId로 대응시켜 CompletableFuture 완료 또는 알 수 없는 응답 폐기
+ * - PacketType에 따라 구독 핸들러 호출 및 Bukkit Event 발행 ({@link InputRouter})
+ * - 플레이어를 소유하지 않은 스레드에서 처리 중이면 디코딩 이후 단계를 플레이어를 소유한 스레드로 넘김 (Folia)
+ * - 받을 곳이 없는 입력은 디코딩하지 않고 버림
+ * - 수신량 / 디코딩 시간 / 버린 패킷과 이유를 {@link PacketMetrics}에 기록
  *
  * ❗ 주의:
  * - 이 클래스는 절대 게임 로직을 포함하지 않는다.
- * - 모든 예외는 서버 안정성을 위해 무시된다.
+ * - 모든 예외는 서버 안정성을 위해 무시된다. (버린 이유만 지표에 남긴다)
  */
 public final class CrownPluginMessageListener implements PluginMessageListener {
 
-    public CrownPluginMessageListener() {
+    private final CrownPacketChannel channel;
+    private final SessionRegistry sessions;
+    private final PacketMetrics metrics;
+    private final PreviewCoalescer previews;
+    private final InboundRateLimiter rateLimiter;
+    private final FragmentReassembler fragments;
+    private final IngestQueue ingest;
+    private final PendingRequests requests;
+    private final InputRouter router;
+    private final SymbolTable symbols;
+    private final PacketCapture capture;
+    private final HotkeyState hotkeyState;
+    private final PreviewValidators validators;
+    private final LatencyTracker latency;
+    private final CrownScheduler scheduler;
+
+    /**
+     * @param previews    TEXT_INPUT_PREVIEW 병합을 사용하지 않으면 null
+     * @param rateLimiter 속도 제한을 사용하지 않으면 null
+     * @param fragments   조각 메시지 조립을 사용하지 않으면 null
+     * @param ingest      수신 큐를 사용하지 않으면 null (수신 즉시 처리)
+     * @param requests    서버가 연 UI 요청 대응표
+     * @param router      입력 구독 핸들러 / Bukkit Event 전달
+     * @param symbols     action / ui / context 정규화용 심볼 테이블
+     * @param capture     수신 캡처를 사용하지 않으면 null
+     * @param hotkeyState HOTKEY 상태 추적을 사용하지 않으면 null
+     * @param validators  TEXT_INPUT_PREVIEW 검증 규칙을 사용하지 않으면 null
+     * @param latency     지연 측정을 사용하지 않으면 null
+     */
+    public CrownPluginMessageListener(
+            CrownPacketChannel channel,
+            PreviewCoalescer previews,
+            InboundRateLimiter rateLimiter,
+            FragmentReassembler fragments,
+            IngestQueue ingest,
+            PendingRequests requests,
+            InputRouter router,
+            SymbolTable symbols,
+            PacketCapture capture,
+            HotkeyState hotkeyState,
+            PreviewValidators validators,
+            LatencyTracker latency
+    ) {
+        this.channel = channel;
+        this.sessions = channel.sessions();
+        this.metrics = channel.metrics();
+        this.scheduler = channel.scheduler();
+        this.previews = previews;
+        this.rateLimiter = rateLimiter;
+        this.fragments = fragments;
+        this.ingest = ingest;
+        this.requests = requests;
+        this.router = router;
+        this.symbols = symbols;
+        this.capture = capture;
+        this.hotkeyState = hotkeyState;
+        this.validators = validators;
+        this.latency = latency;
+        if (ingest != null) {
+            ingest.handler(this::process);
+        }
     }
 
     @Override
@@ -37,124 +120,240 @@ public final class CrownPluginMessageListener implements PluginMessageListener {
         if (!channel.equals(CrownPacketHandler.CHANNEL)) return;
         if (player == null || message == null) return;
 
+        // 수신 큐 / 스레드 이동으로 늦게 처리되어도 입력 시각은 도착 시점으로 남긴다.
+        long receivedNanos = System.nanoTime();
+
         try {
+            if (capture != null) {
+                // 버려지는 메시지도 포함해 도착한 그대로 남긴다.
+                capture.inbound(player.getUniqueId(), message);
+            }
+
             // 악성 패킷 방지 (너무 큰 패킷 무시)
-            if (message.length > 8192) return;
+            if (message.length > CrownPacketChannel.MAX_PACKET_BYTES) {
+                metrics.droppedInbound(DropReason.OVERSIZE);
+                return;
+            }
 
-            // byte[] → UTF-8 JSON 문자열
-            String json = new String(message, StandardCharsets.UTF_8);
+            // 속도 제한, 수신 큐, 빠른 폐기는 파싱 전에 raw byte[]에서 읽은 타입만 사용한다.
+            PacketType type = PacketSniffer.sniffType(message);
+            metrics.received(type, message.length);
+            if (rateLimiter != null && !rateLimiter.tryAcquire(player, type)) {
+                metrics.droppedInbound(DropReason.RATE_LIMITED);
+                return;
+            }
 
-            JsonObject root = JsonUtils.parse(json);
-            Envelope envelope = Envelope.from(root);
+            if (PacketFragments.matches(message)) {
+                if (fragments == null) {
+                    metrics.droppedInbound(DropReason.UNKNOWN_TYPE);
+                    return;
+                }
+                message = fragments.accept(player, message);
+                if (message == null) return;
+                // 조각 헤더의 타입으로 속도 제한을 통과했으므로 조립된 메시지의 타입과 같아야 한다.
+                if (PacketSniffer.sniffType(message) != type) {
+                    metrics.droppedInbound(DropReason.PARSE_ERROR);
+                    return;
+                }
+            }
 
-            // 패킷 타입에 따라 입력 이벤트 발행
-            PacketType type = envelope.type();
-            JsonObject payload = envelope.payload();
+            if (ingest != null) {
+                ingest.offer(player, type, message, receivedNanos);
+                return;
+            }
 
-            switch (type) {
+            process(player, type, message, receivedNanos);
+
+        } catch (Exception ignored) {
+            // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+            metrics.droppedInbound(DropReason.PARSE_ERROR);
+        }
+    }
+
+    /**
+     * 패킷을 디코딩하고 이벤트를 발행한다.
+     * 수신 큐를 사용하면 큐를 비우는 틱 작업에서 호출된다.
+     *
+     * @param type          디코딩 전에 판별한 PacketType, 판별할 수 없으면 null
+     * @param receivedNanos {@link #onPluginMessageReceived}에서 메시지를 받은 시각 ({@link System#nanoTime()})
+     */
+    private void process(Player player, PacketType type, byte[] message, long receivedNanos) {
+        try {
+            // 리스너도 구독자도 없는 입력은 디코딩과 이벤트 생성을 모두 건너뛴다.
+            if (type != null && !wanted(type)) return;
+
+            // 압축은 받을 곳이 있는 패킷만 푼다.
+            boolean compressed = PacketCompression.matches(message);
+            if (compressed) {
+                PacketCompression compression = channel.compression();
+                if (compression == null) {
+                    metrics.droppedInbound(DropReason.UNKNOWN_TYPE);
+                    return;
+                }
+                message = compression.decompress(message);
+            }
+
+            // byte[]에서 곧바로 필요한 필드만 디코딩한다. (JsonObject 트리 없음)
+            long start = System.nanoTime();
+            InboundPacket packet = PacketCodecs.forMessage(message).decode(message, symbols);
+            metrics.decoded(System.nanoTime() - start);
+
+            // 속도 제한과 빠른 폐기는 디코딩 전에 판별한 타입으로 통과했으므로 실제 타입과 같아야 한다.
+            // (중복 / 따옴표 없는 / 이스케이프된 "type" 키나 압축 헤더로 다른 타입의 제한을 우회하는 것을 막는다.
+            //  판별하지 못한 메시지가 디코딩되는 경우도 포함한다.)
+            if (packet.type() != type) {
+                metrics.droppedInbound(DropReason.PARSE_ERROR);
+                return;
+            }
+
+            if (scheduler != null && !scheduler.owns(player)) {
+                // 수신 큐 / 재생처럼 플레이어를 소유하지 않은 스레드에서 처리 중이면
+                // 디코딩까지만 하고, 상태 반영과 이벤트 발행은 플레이어를 소유한 스레드에서 한다.
+                scheduler.later(player, () -> dispatch(player, type, packet, receivedNanos));
+                return;
+            }
+            dispatch(player, type, packet, receivedNanos);
+
+        } catch (MissingFieldException e) {
+            // 필수 필드 검사는 디코더가 PayloadSchema 선언대로 한다.
+            metrics.droppedInbound(DropReason.MISSING_FIELD);
+        } catch (Exception ignored) {
+            // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+            // 타입조차 판별할 수 없었던 메시지는 알 수 없는 타입으로 센다.
+            metrics.droppedInbound(type == null ? DropReason.UNKNOWN_TYPE : DropReason.PARSE_ERROR);
+        }
+    }
+
+    /**
+     * 디코딩한 패킷을 상태에 반영하고 이벤트를 발행한다. 플레이어를 소유한 스레드에서 호출된다.
+     * {@link PayloadSchema}에 필수로 선언된 필드는 디코더가 이미 확인했으므로 null이 아니다.
+     */
+    private void dispatch(Player player, PacketType type, InboundPacket packet, long receivedNanos) {
+        try {
+            if (latency != null && packet.clientTime() != null) {
+                observeInput(player, packet.type(), packet.clientTime());
+            }
+
+            // 패킷 타입에 따라 입력 이벤트 발행
+            switch (packet.type()) {
 
                 case HOTKEY -> {
-                    String action = extractString(payload, "action");
-                    Boolean pressed = extractBoolean(payload, "pressed");
-                    if (action == null || pressed == null) return;
-                    Bukkit.getPluginManager().callEvent(
-                            new CrownPlayerHotkeyEvent(
-                                    player,
-                                    action,
-                                    pressed,
-                                    extractNullableString(payload, "context")
-                            )
-                    );
+                    String action = packet.action();
+                    boolean pressed = packet.pressed();
+                    if (hotkeyState != null && !hotkeyState.apply(player, action, pressed)) {
+                        metrics.droppedInbound(DropReason.REPEATED_INPUT);
+                        return;
+                    }
+                    router.hotkey(player, action, pressed, packet.context(), receivedNanos);
                 }
 
                 case TEXT_INPUT_PREVIEW -> {
-                    if (!hasRequestId(envelope.requestId())) return;
-                    String context = extractString(payload, "context");
-                    String text = extractString(payload, "text");
-                    if (context == null || text == null) return;
-                    Bukkit.getPluginManager().callEvent(
-                            new CrownPlayerTextInputPreviewEvent(
-                                    player,
-                                    envelope.requestId(),
-                                    context,
-                                    text
-                            )
-                    );
+                    String context = packet.context();
+                    String text = packet.text();
+                    if (!requests.accepts(player, packet.requestId(), PendingRequests.Kind.TEXT_INPUT)) {
+                        metrics.droppedInbound(DropReason.UNKNOWN_REQUEST);
+                        return;
+                    }
+                    // 규칙이 등록된 context는 이벤트 없이 바로 응답한다.
+                    if (validators != null && validators.answer(player, packet.requestId(), context, text)) {
+                        return;
+                    }
+                    if (previews != null) {
+                        previews.offer(player, packet.requestId(), context, text);
+                        return;
+                    }
+                    router.textInputPreview(player, packet.requestId(), context, text);
                 }
 
                 case TEXT_INPUT -> {
-                    if (!hasRequestId(envelope.requestId())) return;
-                    String context = extractString(payload, "context");
-                    String text = extractString(payload, "text");
-                    Boolean confirmed = extractBoolean(payload, "confirmed");
-                    if (context == null || text == null || confirmed == null) return;
-                    Bukkit.getPluginManager().callEvent(
-                            new CrownPlayerTextInputEvent(
-                                    player,
-                                    envelope.requestId(),
-                                    context,
-                                    text,
-                                    confirmed
-                            )
-                    );
+                    String context = packet.context();
+                    String text = packet.text();
+                    boolean confirmed = packet.confirmed();
+                    if (previews != null) {
+                        previews.onFinal(player, packet.requestId());
+                    }
+                    // future 방식 요청이면 이벤트 대신 future를 완료하고, 알 수 없는 응답은 버린다.
+                    PendingRequests.Resolution resolution = requests.completeTextInput(
+                            player, packet.requestId(), context, text, confirmed);
+                    if (resolution == PendingRequests.Resolution.UNKNOWN) {
+                        metrics.droppedInbound(DropReason.UNKNOWN_REQUEST);
+                    }
+                    if (resolution != PendingRequests.Resolution.EVENT) return;
+                    router.textInput(player, packet.requestId(), context, text, confirmed);
                 }
 
                 case UI_ACTION -> {
-                    if (!hasRequestId(envelope.requestId())) return;
-                    String ui = extractString(payload, "ui");
-                    String action = extractString(payload, "action");
-                    if (ui == null || action == null) return;
-                    Bukkit.getPluginManager().callEvent(
-                            new CrownPlayerUiActionEvent(
-                                    player,
-                                    envelope.requestId(),
-                                    ui,
-                                    action
-                            )
-                    );
+                    String ui = packet.ui();
+                    String action = packet.action();
+                    PendingRequests.Resolution resolution = requests.completeUiAction(
+                            player, packet.requestId(), ui, action);
+                    if (resolution == PendingRequests.Resolution.UNKNOWN) {
+                        metrics.droppedInbound(DropReason.UNKNOWN_REQUEST);
+                    }
+                    if (resolution != PendingRequests.Resolution.EVENT) return;
+                    router.uiAction(player, packet.requestId(), ui, action, receivedNanos);
                 }
 
-                // 서버→클라이언트 전송 전용 패킷 타입은 수신 시 무시한다.
-                default -> {
+                case HANDSHAKE -> handshake(player, packet.features());
+
+                case PONG -> {
+                    if (latency == null) {
+                        metrics.droppedInbound(DropReason.UNKNOWN_TYPE);
+                        return;
+                    }
+                    latency.pong(player, packet.seq(), packet.clientTime(), receivedNanos);
                 }
+
+                // 서버→클라이언트 전송 전용 패킷 타입은 수신 시 무시한다.
+                default -> metrics.droppedInbound(DropReason.UNKNOWN_TYPE);
             }
 
         } catch (Exception ignored) {
             // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+            metrics.droppedInbound(type == null ? DropReason.UNKNOWN_TYPE : DropReason.PARSE_ERROR);
         }
     }
 
-    private static boolean hasString(JsonObject payload, String key) {
-        if (payload == null || !payload.has(key)) return false;
-        JsonPrimitive primitive = payload.getAsJsonPrimitive(key);
-        return primitive != null && primitive.isString();
-    }
-
-    private static boolean hasBoolean(JsonObject payload, String key) {
-        if (payload == null || !payload.has(key)) return false;
-        JsonPrimitive primitive = payload.getAsJsonPrimitive(key);
-        return primitive != null && primitive.isBoolean();
-    }
+    /**
+     * 클라이언트가 알린 기능 중 지원하는 것만 수락하고 응답한다.
+     *
+     * 응답은 항상 JSON으로 보내고, 응답 이후부터 협상된 코덱을 사용한다.
+     */
+    private void handshake(Player player, int requestedFeatures) {
+        int accepted = sessions.negotiate(requestedFeatures);
+        String[] names = ClientFeature.wireNames(accepted);
 
-    private static String extractString(JsonObject payload, String key) {
-        if (!hasString(payload, key)) {
-            return null;
-        }
-        return payload.get(key).getAsString();
+        // 이전 코덱으로 쌓인 패킷을 먼저 내보낸다.
+        channel.flush(player);
+        sessions.reset(player);
+        channel.send(player, PacketType.HANDSHAKE, null, PayloadSchema.payload(PacketType.HANDSHAKE, (Object) names));
+        sessions.apply(player, accepted);
     }
 
-    private static Boolean extractBoolean(JsonObject payload, String key) {
-        if (!hasBoolean(payload, key)) {
-            return null;
+    /**
+     * 게임 입력의 clientTime으로 입력 지연을 기록한다. (PONG / HANDSHAKE 제외)
+     */
+    private void observeInput(Player player, PacketType type, long clientTime) {
+        switch (type) {
+            case HOTKEY, TEXT_INPUT_PREVIEW, TEXT_INPUT, UI_ACTION -> latency.input(player, clientTime);
+            default -> {
+            }
         }
-        return payload.get(key).getAsBoolean();
-    }
-
-    private static String extractNullableString(JsonObject payload, String key) {
-        return hasString(payload, key) ? payload.get(key).getAsString() : null;
     }
 
-    private static boolean hasRequestId(String requestId) {
-        return requestId != null && !requestId.isEmpty();
+    /**
+     * 이 타입의 패킷을 디코딩해야 하는지 확인한다.
+     *
+     * TEXT_INPUT / UI_ACTION은 future로 기다리는 요청이 있을 수 있으므로
+     * 진행 중인 요청이 없을 때만 건너뛴다.
+     * HOTKEY는 상태를 추적 중이면, TEXT_INPUT_PREVIEW는 검증 규칙이 있으면 받을 곳이 없어도 디코딩한다.
+     */
+    private boolean wanted(PacketType type) {
+        return switch (type) {
+            case HOTKEY -> hotkeyState != null || router.wants(type);
+            case TEXT_INPUT_PREVIEW -> router.wants(type) || (validators != null && !validators.isEmpty());
+            case TEXT_INPUT, UI_ACTION -> router.wants(type) || !requests.isEmpty();
+            default -> true;
+        };
     }
 }
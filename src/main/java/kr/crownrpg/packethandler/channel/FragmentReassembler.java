@@ -0,0 +1,212 @@
+package kr.crownrpg.packethandler.channel;
+
+import kr.crownrpg.packethandler.codec.PacketFragments;
+import kr.crownrpg.packethandler.packet.PacketType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 클라이언트 → 서버 조각 메시지 조립기. (opt-in)
+ *
+ * 조각을 (플레이어, messageId)별로 모았다가 모두 도착하면 원본 메시지를 돌려준다.
+ * 조립된 메시지는 일반 수신 메시지와 같은 경로로 처리된다.
+ *
+ * 메모리 사용량은 다음으로 제한된다.
+ * - 메시지 하나의 최대 크기
+ * - 플레이어별 / 전체 조립 버퍼 크기 (넘으면 해당 메시지를 버린다)
+ * - 플레이어별 동시 조립 메시지 수
+ * - timeoutMillis 안에 완성되지 않은 메시지는 {@link #run()}에서 버린다.
+ */
+public final class FragmentReassembler implements Runnable, Listener {
+
+    /** 플레이어별 동시에 조립할 수 있는 메시지 수 */
+    private static final int MAX_PARTIALS_PER_PLAYER = 8;
+
+    private final int maxMessageBytes;
+    private final int playerBufferBytes;
+    private final long globalBufferBytes;
+    private final long timeoutMillis;
+
+    private final Map<UUID, PlayerBuffer> players = new HashMap<>();
+    private long bufferedBytes;
+
+    private final LongAdder reassembled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * @param maxMessageBytes   조립된 메시지 하나의 최대 크기(byte)
+     * @param playerBufferBytes 플레이어별 조립 중 버퍼 최대 크기(byte)
+     * @param globalBufferBytes 전체 조립 중 버퍼 최대 크기(byte)
+     * @param timeoutMillis     첫 조각 이후 완성까지 기다리는 시간(ms)
+     */
+    public FragmentReassembler(int maxMessageBytes, int playerBufferBytes, long globalBufferBytes, long timeoutMillis) {
+        this.maxMessageBytes = maxMessageBytes;
+        this.playerBufferBytes = playerBufferBytes;
+        this.globalBufferBytes = globalBufferBytes;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 조각을 받는다.
+     *
+     * @return 마지막 조각이면 조립된 메시지, 아직 남은 조각이 있거나 버려졌으면 null
+     * @throws IOException 조각 헤더가 잘못된 경우
+     */
+    public synchronized byte[] accept(Player player, byte[] message) throws IOException {
+        PacketFragments.Fragment fragment = PacketFragments.read(message);
+        int length = message.length - fragment.offset();
+
+        PlayerBuffer buffer = players.computeIfAbsent(player.getUniqueId(), id -> new PlayerBuffer());
+        Partial partial = buffer.partials.get(fragment.messageId());
+
+        if (partial == null) {
+            if (buffer.partials.size() >= MAX_PARTIALS_PER_PLAYER) {
+                dropped.increment();
+                release(player.getUniqueId(), buffer);
+                return null;
+            }
+            partial = new Partial(fragment.type(), fragment.count(), System.currentTimeMillis());
+            buffer.partials.put(fragment.messageId(), partial);
+        }
+
+        if (partial.type != fragment.type()
+                || partial.chunks.length != fragment.count()
+                || partial.chunks[fragment.index()] != null
+                || partial.bytes + length > maxMessageBytes
+                || buffer.bytes + length > playerBufferBytes
+                || bufferedBytes + length > globalBufferBytes) {
+            // 헤더가 어긋나거나 예산을 넘으면 메시지 전체를 버린다.
+            drop(buffer, fragment.messageId(), partial);
+            dropped.increment();
+            release(player.getUniqueId(), buffer);
+            return null;
+        }
+
+        byte[] chunk = new byte[length];
+        System.arraycopy(message, fragment.offset(), chunk, 0, length);
+        partial.chunks[fragment.index()] = chunk;
+        partial.received++;
+        partial.bytes += length;
+        buffer.bytes += length;
+        bufferedBytes += length;
+
+        if (partial.received < partial.chunks.length) {
+            return null;
+        }
+
+        drop(buffer, fragment.messageId(), partial);
+        release(player.getUniqueId(), buffer);
+
+        byte[] assembled = new byte[partial.bytes];
+        int position = 0;
+        for (byte[] part : partial.chunks) {
+            System.arraycopy(part, 0, assembled, position, part.length);
+            position += part.length;
+        }
+
+        // 중첩 조각은 허용하지 않는다.
+        if (PacketFragments.matches(assembled)) {
+            dropped.increment();
+            return null;
+        }
+
+        reassembled.increment();
+        return assembled;
+    }
+
+    /**
+     * 기한이 지난 미완성 메시지를 버린다. 주기적으로 호출된다.
+     */
+    @Override
+    public synchronized void run() {
+        long deadline = System.currentTimeMillis() - timeoutMillis;
+
+        Iterator<Map.Entry<UUID, PlayerBuffer>> players = this.players.entrySet().iterator();
+        while (players.hasNext()) {
+            PlayerBuffer buffer = players.next().getValue();
+
+            Iterator<Partial> partials = buffer.partials.values().iterator();
+            while (partials.hasNext()) {
+                Partial partial = partials.next();
+                if (partial.startedAt <= deadline) {
+                    partials.remove();
+                    buffer.bytes -= partial.bytes;
+                    bufferedBytes -= partial.bytes;
+                    expired.increment();
+                }
+            }
+
+            if (buffer.partials.isEmpty()) {
+                players.remove();
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public synchronized void onQuit(PlayerQuitEvent event) {
+        PlayerBuffer buffer = players.remove(event.getPlayer().getUniqueId());
+        if (buffer != null) {
+            bufferedBytes -= buffer.bytes;
+        }
+    }
+
+    public synchronized Stats stats() {
+        int partials = 0;
+        for (PlayerBuffer buffer : players.values()) {
+            partials += buffer.partials.size();
+        }
+        return new Stats(reassembled.sum(), dropped.sum(), expired.sum(), partials, bufferedBytes);
+    }
+
+    private void drop(PlayerBuffer buffer, int messageId, Partial partial) {
+        buffer.partials.remove(messageId);
+        buffer.bytes -= partial.bytes;
+        bufferedBytes -= partial.bytes;
+    }
+
+    private void release(UUID playerId, PlayerBuffer buffer) {
+        if (buffer.partials.isEmpty()) {
+            players.remove(playerId);
+        }
+    }
+
+    /**
+     * @param reassembled   조립을 마친 메시지 수
+     * @param dropped       헤더 불일치 / 예산 초과로 버린 메시지 수
+     * @param expired       기한 안에 완성되지 않아 버린 메시지 수
+     * @param partials      조립 중인 메시지 수
+     * @param bufferedBytes 조립 중 버퍼 크기(byte)
+     */
+    public record Stats(long reassembled, long dropped, long expired, int partials, long bufferedBytes) {
+    }
+
+    private static final class PlayerBuffer {
+        private final Map<Integer, Partial> partials = new HashMap<>();
+        private int bytes;
+    }
+
+    private static final class Partial {
+        private final PacketType type;
+        private final byte[][] chunks;
+        private final long startedAt;
+        private int received;
+        private int bytes;
+
+        private Partial(PacketType type, int count, long startedAt) {
+            this.type = type;
+            this.chunks = new byte[count][];
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package kr.crownrpg.packethandler.channel;
+
+import kr.crownrpg.packethandler.config.PacketHandlerConfig;
+import kr.crownrpg.packethandler.event.CrownPlayerPacketFloodEvent;
+import kr.crownrpg.packethandler.packet.PacketSniffer;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 디코딩 전 단계의 플레이어별 속도 제한기. (opt-in)
+ *
+ * raw byte[]에서 PacketType만 읽어({@link PacketSniffer}) 토큰 버킷을 검사하므로,
+ * 제한을 넘긴 패킷은 JSON 파싱 비용 없이 버려진다.
+ * - PacketType별 버킷과 모든 패킷 합산 버킷을 모두 통과해야 한다.
+ * - 판별할 수 없는 패킷은 기본 버킷으로 계산한다.
+ *
+ * 버킷 상태는 (토큰, 마지막 충전 시각)을 long 하나에 담아 CAS로 갱신하므로 잠금이 없다.
+ * 제한 초과가 설정된 시간 이상 이어지면 {@link CrownPlayerPacketFloodEvent}를 발행하고,
+ * 설정에 따라 플레이어를 퇴장시킨다. (플레이어를 소유한 스레드)
+ */
+public final class InboundRateLimiter implements Listener {
+
+    /** 버킷 토큰의 고정소수점 배율. (1 토큰 = 1000) */
+    private static final long SCALE = 1000;
+
+    private static final int TOTAL = PacketType.values().length;
+    private static final int UNKNOWN = TOTAL + 1;
+    private static final int SLOT_COUNT = TOTAL + 2;
+
+    /** 이 시간(ms) 동안 거부가 없으면 연속 초과가 끝난 것으로 본다. */
+    private static final long STREAK_GAP_MILLIS = 1000;
+
+    private final PacketHandlerConfig.Escalation escalation;
+    private final CrownScheduler scheduler;
+
+    /** 슬롯별 초당 충전량 (SCALE 단위) */
+    private final long[] refillPerSecond = new long[SLOT_COUNT];
+
+    /** 슬롯별 최대 용량 (SCALE 단위) */
+    private final long[] capacity = new long[SLOT_COUNT];
+
+    /** 슬롯별로 빈 버킷이 가득 차는 데 걸리는 시간(ms) */
+    private final long[] fullAfterMillis = new long[SLOT_COUNT];
+
+    private final Map<UUID, Buckets> players = new ConcurrentHashMap<>();
+    private final long origin = System.nanoTime();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder escalated = new LongAdder();
+
+    public InboundRateLimiter(PacketHandlerConfig.RateLimit config) {
+        this(config, null);
+    }
+
+    /**
+     * @param scheduler 조치를 플레이어 스레드에서 실행할 스케줄러, 사용하지 않으면 null
+     */
+    public InboundRateLimiter(PacketHandlerConfig.RateLimit config, CrownScheduler scheduler) {
+        this.escalation = config.escalation();
+        this.scheduler = scheduler;
+        for (PacketType type : PacketType.values()) {
+            configure(type.ordinal(), config.bucket(type));
+        }
+        configure(TOTAL, config.total());
+        configure(UNKNOWN, config.fallback());
+    }
+
+    private void configure(int slot, PacketHandlerConfig.Bucket bucket) {
+        refillPerSecond[slot] = Math.max(1, Math.round(bucket.rate() * SCALE));
+        capacity[slot] = bucket.burst() * SCALE;
+        fullAfterMillis[slot] = capacity[slot] * 1000 / refillPerSecond[slot] + 1;
+    }
+
+    /**
+     * 패킷을 처리해도 되는지 검사하고 토큰을 소비한다.
+     *
+     * @param type {@link PacketSniffer}로 판별한 PacketType, 판별할 수 없으면 null
+     * @return false면 패킷을 버려야 한다
+     */
+    public boolean tryAcquire(Player player, PacketType type) {
+        int slot = type == null ? UNKNOWN : type.ordinal();
+        int now = now();
+
+        Buckets buckets = players.computeIfAbsent(player.getUniqueId(), id -> new Buckets(now));
+        if (tryTake(buckets.state, slot, now)) {
+            if (tryTake(buckets.state, TOTAL, now)) {
+                return true;
+            }
+            // 합산 버킷에서 거부되면 PacketType 버킷의 토큰을 돌려준다.
+            // 돌려주지 않으면 다른 타입의 폭주로 이 타입의 정상 패킷까지 거부된다.
+            refund(buckets.state, slot);
+        }
+
+        rejected.increment();
+        onReject(player, buckets, type, now);
+        return false;
+    }
+
+    /**
+     * 버킷 하나에서 토큰 하나를 꺼낸다.
+     *
+     * 상위 32비트는 남은 토큰(SCALE 단위), 하위 32비트는 마지막 충전 시각(ms)이다.
+     */
+    private boolean tryTake(AtomicLongArray state, int slot, int now) {
+        while (true) {
+            long packed = state.get(slot);
+            long tokens = packed >>> 32;
+            int last = (int) packed;
+
+            // int 뺄셈으로 시각 wrap-around를 처리한다.
+            long elapsed = Math.max(0, now - last);
+            long available = elapsed >= fullAfterMillis[slot]
+                    ? capacity[slot]
+                    : Math.min(capacity[slot], tokens + elapsed * refillPerSecond[slot] / 1000);
+            if (available < SCALE) {
+                return false;
+            }
+
+            long next = ((available - SCALE) << 32) | (now & 0xFFFFFFFFL);
+            if (state.compareAndSet(slot, packed, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * {@link #tryTake}로 꺼낸 토큰 하나를 되돌린다. 마지막 충전 시각은 그대로 둔다.
+     */
+    private void refund(AtomicLongArray state, int slot) {
+        while (true) {
+            long packed = state.get(slot);
+            long tokens = Math.min(capacity[slot], (packed >>> 32) + SCALE);
+            long next = (tokens << 32) | (packed & 0xFFFFFFFFL);
+            if (state.compareAndSet(slot, packed, next)) {
+                return;
+            }
+        }
+    }
+
+    private void onReject(Player player, Buckets buckets, PacketType type, int now) {
+        if (escalation.action() == PacketHandlerConfig.EscalationAction.NONE) return;
+
+        long duration;
+        long count;
+        synchronized (buckets) {
+            if (!buckets.streaking || now - buckets.lastReject > STREAK_GAP_MILLIS) {
+                buckets.streaking = true;
+                buckets.streakStart = now;
+                buckets.streakRejected = 0;
+                buckets.escalated = false;
+            }
+            buckets.lastReject = now;
+            buckets.streakRejected++;
+
+            duration = now - buckets.streakStart;
+            if (buckets.escalated || duration < escalation.afterSeconds() * 1000L) return;
+            buckets.escalated = true;
+            count = buckets.streakRejected;
+        }
+
+        escalated.increment();
+        if (scheduler == null) {
+            escalate(player, type, duration, count);
+        } else {
+            scheduler.execute(player, () -> escalate(player, type, duration, count));
+        }
+    }
+
+    private void escalate(Player player, PacketType type, long duration, long count) {
+        CrownPlayerPacketFloodEvent event = new CrownPlayerPacketFloodEvent(player, type, duration, count);
+        Bukkit.getPluginManager().callEvent(event);
+
+        if (escalation.action() == PacketHandlerConfig.EscalationAction.KICK && !event.isCancelled()) {
+            player.kick(Component.text(escalation.kickMessage()));
+        }
+    }
+
+    private int now() {
+        return (int) ((System.nanoTime() - origin) / 1_000_000L);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        players.remove(event.getPlayer().getUniqueId());
+    }
+
+    public Stats stats() {
+        return new Stats(rejected.sum(), escalated.sum(), players.size());
+    }
+
+    /**
+     * @param rejected  버려진 패킷 수
+     * @param escalated 조치(이벤트 발행)가 이루어진 횟수
+     * @param tracked   버킷을 가진 플레이어 수
+     */
+    public record Stats(long rejected, long escalated, int tracked) {
+    }
+
+    /**
+     * 플레이어 한 명의 버킷 상태. 처음에는 모든 버킷이 가득 차 있다.
+     */
+    private final class Buckets {
+        final AtomicLongArray state = new AtomicLongArray(SLOT_COUNT);
+
+        // 연속 초과 추적 (거부 시에만 접근, this로 동기화)
+        boolean streaking;
+        int streakStart;
+        int lastReject;
+        long streakRejected;
+        boolean escalated;
+
+        Buckets(int now) {
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                state.set(slot, (capacity[slot] << 32) | (now & 0xFFFFFFFFL));
+            }
+        }
+    }
+}
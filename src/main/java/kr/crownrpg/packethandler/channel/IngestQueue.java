@@ -0,0 +1,235 @@
+package kr.crownrpg.packethandler.channel;
+
+import kr.crownrpg.packethandler.packet.PacketType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 틱 예산 기반 수신 큐. (opt-in)
+ *
+ * 수신한 raw byte[]를 곧바로 디코딩하지 않고 플레이어별 큐에 쌓아 두었다가,
+ * 매 틱 {@link #run()}에서 정해진 시간 예산(ns) 안에서만 디코딩 및 이벤트 발행을 한다.
+ * - 플레이어 사이에서는 한 번에 한 패킷씩 돌아가며(round-robin) 처리하므로
+ *   한 클라이언트가 몰아서 보내도 다른 플레이어의 처리가 밀리지 않는다.
+ * - 같은 플레이어의 패킷 순서는 유지된다.
+ * - 큐가 가득 차면 PacketType 우선순위가 가장 낮은 패킷부터 버린다. (미리보기 먼저)
+ *
+ * 예산을 넘어도 매 틱 최소 한 패킷은 처리한다.
+ */
+public final class IngestQueue implements Runnable, Listener {
+
+    private final long budgetNanos;
+    private final int capacity;
+
+    private final Map<UUID, PlayerQueue> queues = new ConcurrentHashMap<>();
+
+    /** 처리할 패킷이 남아 있는 플레이어 (round-robin 순서) */
+    private final ConcurrentLinkedQueue<PlayerQueue> ready = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder drained = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile int drainedLastTick;
+    private volatile long drainNanosLastTick;
+
+    private Handler handler;
+
+    /**
+     * @param budgetNanos 틱당 디코딩 및 이벤트 발행에 쓸 시간 예산(ns)
+     * @param capacity    플레이어별 큐 최대 길이
+     */
+    public IngestQueue(long budgetNanos, int capacity) {
+        this.budgetNanos = Math.max(1, budgetNanos);
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * 큐에서 꺼낸 패킷을 처리할 핸들러를 지정한다.
+     */
+    void handler(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * 수신한 패킷을 큐에 넣는다.
+     *
+     * @param type          디코딩 전에 판별한 PacketType, 판별할 수 없으면 null
+     * @param receivedNanos 수신 시각 ({@link System#nanoTime()}), 큐에서 꺼낼 때 그대로 넘긴다.
+     */
+    public void offer(Player player, PacketType type, byte[] message, long receivedNanos) {
+        PlayerQueue queue = queues.computeIfAbsent(player.getUniqueId(), id -> new PlayerQueue(player));
+        Entry entry = new Entry(type, priority(type), message, receivedNanos);
+
+        boolean schedule;
+        synchronized (queue) {
+            if (queue.entries.size() >= capacity && !evict(queue.entries, entry.priority)) {
+                // 새 패킷의 우선순위가 가장 낮다.
+                dropped.increment();
+                return;
+            }
+            queue.entries.addLast(entry);
+            depth.incrementAndGet();
+
+            schedule = !queue.scheduled;
+            queue.scheduled = true;
+        }
+
+        if (schedule) {
+            ready.offer(queue);
+        }
+    }
+
+    /**
+     * 우선순위가 가장 낮은 패킷 중 가장 오래된 것을 버린다.
+     *
+     * @return 새 패킷보다 우선순위가 높은 패킷만 남아 있으면 false
+     */
+    private boolean evict(ArrayDeque<Entry> entries, int incoming) {
+        Entry victim = null;
+        for (Entry entry : entries) {
+            if (victim == null || entry.priority < victim.priority) {
+                victim = entry;
+            }
+        }
+        if (victim == null || victim.priority > incoming) {
+            return false;
+        }
+
+        entries.removeFirstOccurrence(victim);
+        depth.decrementAndGet();
+        dropped.increment();
+        return true;
+    }
+
+    /**
+     * 매 틱 실행된다. 시간 예산 안에서 큐를 비운다.
+     */
+    @Override
+    public void run() {
+        Handler handler = this.handler;
+        if (handler == null) return;
+
+        long start = System.nanoTime();
+        int count = 0;
+
+        PlayerQueue queue;
+        while ((queue = ready.poll()) != null) {
+            Entry entry;
+            boolean more;
+            synchronized (queue) {
+                entry = queue.entries.pollFirst();
+                more = !queue.entries.isEmpty();
+                queue.scheduled = more;
+            }
+
+            if (entry != null) {
+                depth.decrementAndGet();
+                count++;
+                if (!queue.closed) {
+                    handler.handle(queue.player, entry.type, entry.message, entry.receivedNanos);
+                }
+            }
+
+            // 한 패킷 처리 후 맨 뒤로 보낸다.
+            if (more) {
+                ready.offer(queue);
+            }
+
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+
+        drained.add(count);
+        drainedLastTick = count;
+        drainNanosLastTick = System.nanoTime() - start;
+    }
+
+    /**
+     * 플레이어 큐에 남아 있는 패킷 수를 반환한다.
+     */
+    public int depth(Player player) {
+        PlayerQueue queue = queues.get(player.getUniqueId());
+        if (queue == null) return 0;
+        synchronized (queue) {
+            return queue.entries.size();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        PlayerQueue queue = queues.remove(event.getPlayer().getUniqueId());
+        if (queue == null) return;
+
+        synchronized (queue) {
+            queue.closed = true;
+            depth.addAndGet(-queue.entries.size());
+            queue.entries.clear();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(depth.get(), drainedLastTick, drainNanosLastTick, drained.sum(), dropped.sum(), queues.size());
+    }
+
+    /**
+     * 큐가 가득 찼을 때의 우선순위. 값이 낮을수록 먼저 버려진다.
+     */
+    static int priority(PacketType type) {
+        if (type == null) return -1;
+        return switch (type) {
+            case TEXT_INPUT_PREVIEW, PONG -> 0;
+            case HOTKEY -> 1;
+            case UI_ACTION, TEXT_INPUT -> 2;
+            case HANDSHAKE -> 3;
+            // 서버→클라이언트 전용 타입은 어차피 무시된다.
+            default -> -1;
+        };
+    }
+
+    /**
+     * @param queued             전체 큐에 남아 있는 패킷 수
+     * @param drainedLastTick    직전 틱에 처리한 패킷 수
+     * @param drainNanosLastTick 직전 틱에 처리에 쓴 시간(ns)
+     * @param drained            누적 처리 패킷 수
+     * @param dropped            큐가 가득 차 버려진 패킷 수
+     * @param players            큐를 가진 플레이어 수
+     */
+    public record Stats(int queued, int drainedLastTick, long drainNanosLastTick, long drained, long dropped, int players) {
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        void handle(Player player, PacketType type, byte[] message, long receivedNanos);
+    }
+
+    private record Entry(PacketType type, int priority, byte[] message, long receivedNanos) {
+    }
+
+    private static final class PlayerQueue {
+        final Player player;
+        final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+        /** ready에 들어 있는지 여부 */
+        boolean scheduled;
+
+        /** 퇴장하여 더 이상 처리하지 않음 */
+        boolean closed;
+
+        PlayerQueue(Player player) {
+            this.player = player;
+        }
+    }
+}
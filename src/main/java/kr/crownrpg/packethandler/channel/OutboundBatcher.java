@@ -0,0 +1,142 @@
+package kr.crownrpg.packethandler.channel;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import kr.crownrpg.packethandler.codec.PacketCodec;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.session.OutboundQueue;
+import kr.crownrpg.packethandler.session.PlayerSession;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 틱 단위 송신 묶음 처리기. (opt-in)
+ *
+ * BATCH 기능을 협상한 플레이어에게 보내는 패킷을 틱 동안 모았다가,
+ * 틱 끝에 플레이어당 PluginMessage 하나(BATCH)로 전송한다.
+ * 묶음이 최대 크기를 넘으면 여러 BATCH로 나눈다.
+ * DEFLATE를 협상한 플레이어에게는 묶음 전체를 압축해 보낸다.
+ * 혼자서도 최대 크기를 넘는 패킷은 묶지 않고 {@link OutboundWire}로 조각 전송한다.
+ *
+ * Folia에는 서버 틱 끝이 없으므로, 첫 패킷이 쌓일 때 플레이어 region의 다음 틱에 내보내도록 예약한다.
+ */
+public final class OutboundBatcher implements Listener {
+
+    /** BATCH Envelope 자체에 필요한 여유 공간(byte) */
+    private static final int BATCH_OVERHEAD = 96;
+
+    private final OutboundWire wire;
+    private final Queue<PlayerSession> dirty = new ConcurrentLinkedQueue<>();
+    private final CrownScheduler scheduler;
+
+    /**
+     * @param scheduler 스레드를 옮기지 않으면 null (Folia에서는 필수)
+     */
+    public OutboundBatcher(OutboundWire wire, CrownScheduler scheduler) {
+        this.wire = wire;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 인코딩된 패킷을 플레이어 대기열에 쌓는다. 어느 스레드에서든 호출할 수 있다.
+     */
+    public void enqueue(PlayerSession session, PacketType type, String requestId, byte[] bytes) {
+        OutboundQueue queue = session.outbound();
+        queue.offer(type, requestId, bytes);
+        if (!queue.markScheduled()) {
+            return;
+        }
+        if (scheduler != null && CrownScheduler.isFolia()) {
+            Player player = Bukkit.getPlayer(session.playerId());
+            if (player != null) {
+                scheduler.later(player, () -> flush(session));
+                return;
+            }
+        }
+        dirty.add(session);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        flushAll();
+    }
+
+    public void flushAll() {
+        PlayerSession session;
+        while ((session = dirty.poll()) != null) {
+            flush(session);
+        }
+    }
+
+    /**
+     * 플레이어 대기열을 즉시 비운다.
+     */
+    public void flush(PlayerSession session) {
+        OutboundQueue queue = session.outbound();
+        queue.clearScheduled();
+
+        Player player = Bukkit.getPlayer(session.playerId());
+        if (player == null) {
+            while (queue.poll() != null) {
+                // 퇴장한 플레이어의 대기 패킷은 버린다.
+            }
+            return;
+        }
+
+        PacketCodec codec = session.codec();
+        // 압축하면 압축 전 크기 기준으로 더 많이 묶을 수 있다.
+        int limit = wire.maxBatchBytes(session);
+        List<OutboundQueue.Entry> frames = new ArrayList<>();
+        int size = BATCH_OVERHEAD;
+
+        OutboundQueue.Entry entry;
+        while ((entry = queue.poll()) != null) {
+            int frameSize = entry.bytes().length + 6;
+            if (!frames.isEmpty() && size + frameSize > limit) {
+                send(player, session, codec, frames);
+                frames.clear();
+                size = BATCH_OVERHEAD;
+            }
+            frames.add(entry);
+            size += frameSize;
+        }
+
+        if (!frames.isEmpty()) {
+            send(player, session, codec, frames);
+        }
+    }
+
+    private void send(Player player, PlayerSession session, PacketCodec codec, List<OutboundQueue.Entry> frames) {
+        try {
+            if (frames.size() == 1) {
+                wire.send(player, session, frames.get(0).type(), frames.get(0).bytes());
+                return;
+            }
+
+            List<byte[]> bytes = new ArrayList<>(frames.size());
+            for (OutboundQueue.Entry frame : frames) {
+                bytes.add(frame.bytes());
+            }
+
+            byte[] batch = codec.encodeBatch(System.currentTimeMillis(), bytes);
+            if (batch.length <= wire.maxBatchBytes(session) && wire.trySend(player, session, PacketType.BATCH, batch)) {
+                return;
+            }
+
+            // 추정이 빗나간 경우 개별 전송으로 되돌린다.
+            for (OutboundQueue.Entry frame : frames) {
+                wire.send(player, session, frame.type(), frame.bytes());
+            }
+        } catch (Exception ignored) {
+            // 어떤 이유로든 전송 실패 시 서버 크래시를 방지한다.
+        }
+    }
+}
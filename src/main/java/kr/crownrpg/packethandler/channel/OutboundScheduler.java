@@ -0,0 +1,421 @@
+package kr.crownrpg.packethandler.channel;
+
+import kr.crownrpg.packethandler.config.PacketHandlerConfig;
+import kr.crownrpg.packethandler.metrics.DropReason;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.packet.OutboundPriority;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 플레이어별 송신 예산과 우선순위 대기열. (opt-in)
+ *
+ * 플레이어마다 틱당 bytes-per-tick 바이트(인코딩 후, 압축 전 크기)를 보낼 수 있다.
+ * - 예산이 남아 있고 대기 중인 패킷이 없으면 바로 보낸다. (추가 지연 없음)
+ * - 예산을 넘긴 패킷은 대기열에 쌓였다가 다음 틱부터 NORMAL → LOW 순서로 예산만큼 나간다.
+ *   마지막 패킷은 남은 예산보다 커도 보내고, 넘친 만큼 다음 틱 예산에서 뺀다.
+ * - HIGH(UI 열기 / 닫기 등)는 대기하지 않고 항상 바로 보낸다. 예산은 똑같이 소비한다.
+ * - 같은 (PacketType, requestId)의 패킷이 대기 중이면 자리는 그대로 두고 새 패킷으로 바꾼다. (SUPERSEDED)
+ *   CLOSE_UI는 같은 requestId로 대기 중인 패킷을 모두 취소한다.
+ * - 대기열이 max-queued-bytes를 넘으면 NORMAL은 가장 오래된 LOW를 밀어내고,
+ *   그래도 자리가 없으면 새 패킷을 버린다. (BACKPRESSURE)
+ *
+ * Feature Plugin은 {@link #backlog(Player)} / {@link #isCongested(Player)}로 대기 상태를 보고 송신량을 조절할 수 있다.
+ * 기록과 조회는 어느 스레드에서든 할 수 있으며, {@link #run()}은 매 틱 실행되어야 한다.
+ * 대기했던 패킷은 플레이어를 소유한 스레드에서 나간다.
+ */
+public final class OutboundScheduler implements Runnable, Listener {
+
+    public enum Decision {
+        /** 지금 보낸다. */
+        SEND,
+        /** 대기열에 쌓았거나 대기 중인 패킷을 바꿨다. */
+        QUEUED,
+        /** 대기열이 가득 차 버렸다. */
+        REJECTED
+    }
+
+    /**
+     * 대기했던 패킷을 실제로 보내는 곳. ({@link CrownPacketChannel})
+     */
+    @FunctionalInterface
+    interface Sink {
+        void deliver(Player player, PacketType type, String requestId, byte[] bytes);
+    }
+
+    /** requestId가 필요한 PacketType (CLOSE_UI 취소 대상) */
+    private static final PacketType[] REQUEST_TYPES = Arrays.stream(PacketType.values())
+            .filter(PacketType::requiresRequestId)
+            .toArray(PacketType[]::new);
+
+    private final int bytesPerTick;
+    private final int maxQueuedBytes;
+    private final OutboundPriority[] priorities = new OutboundPriority[PacketType.values().length];
+    private final PacketMetrics metrics;
+    private final CrownScheduler scheduler;
+    private final Sink sink;
+
+    private final Map<UUID, State> players = new ConcurrentHashMap<>();
+    /** 대기 패킷이 있는 플레이어 (중복 없음, State.listed로 관리) */
+    private final Queue<State> backlogged = new ConcurrentLinkedQueue<>();
+    private volatile long tick;
+
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder superseded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param scheduler 대기 패킷을 플레이어 스레드에서 보낼 스케줄러, 사용하지 않으면 null
+     */
+    OutboundScheduler(PacketHandlerConfig.Scheduling config, PacketMetrics metrics, CrownScheduler scheduler, Sink sink) {
+        this.bytesPerTick = config.bytesPerTick();
+        this.maxQueuedBytes = config.maxQueuedBytes();
+        for (PacketType type : PacketType.values()) {
+            priorities[type.ordinal()] = config.priority(type);
+        }
+        this.metrics = metrics;
+        this.scheduler = scheduler;
+        this.sink = sink;
+    }
+
+    /**
+     * 인코딩된 패킷을 지금 보낼지, 대기시킬지, 버릴지 정한다.
+     * {@link Decision#SEND}면 호출한 쪽이 바로 보내야 한다.
+     */
+    Decision offer(Player player, PacketType type, String requestId, byte[] bytes) {
+        OutboundPriority priority = priorities[type.ordinal()];
+        UUID playerId = player.getUniqueId();
+        State state = players.get(playerId);
+        if (state == null) {
+            state = players.computeIfAbsent(playerId, id -> new State(player, tick));
+        }
+
+        boolean list;
+        synchronized (state) {
+            state.refill(tick, bytesPerTick);
+            if (type == PacketType.CLOSE_UI && requestId != null) {
+                state.cancel(requestId);
+            }
+
+            if (priority == OutboundPriority.HIGH || (state.packets == 0 && state.credit > 0)) {
+                state.credit -= bytes.length;
+                return Decision.SEND;
+            }
+
+            Key key = requestId == null ? null : new Key(type, requestId);
+            Entry queued = key == null ? null : state.index.get(key);
+            if (queued != null) {
+                state.bytes += bytes.length - queued.bytes.length;
+                queued.bytes = bytes;
+                superseded(1);
+                return Decision.QUEUED;
+            }
+
+            int overflow = state.bytes + bytes.length - maxQueuedBytes;
+            if (overflow > 0 && priority == OutboundPriority.NORMAL) {
+                overflow -= state.evictLow(overflow);
+            }
+            if (overflow > 0) {
+                rejected.increment();
+                metrics.droppedOutbound(DropReason.BACKPRESSURE);
+                return Decision.REJECTED;
+            }
+
+            Entry entry = new Entry(type, requestId, bytes);
+            state.queue(priority).add(entry);
+            if (key != null) {
+                state.index.put(key, entry);
+            }
+            state.bytes += bytes.length;
+            state.packets++;
+            delayed.increment();
+
+            list = !state.listed;
+            state.listed = true;
+        }
+
+        if (list) {
+            backlogged.add(state);
+        }
+        return Decision.QUEUED;
+    }
+
+    /**
+     * 매 틱 실행된다. 대기 패킷이 있는 플레이어마다 예산만큼 보낸다.
+     */
+    @Override
+    public void run() {
+        long now = ++tick;
+
+        // 이번 틱에 다시 등록되는 플레이어는 다음 틱에 처리한다.
+        for (int remaining = backlogged.size(); remaining > 0; remaining--) {
+            State state = backlogged.poll();
+            if (state == null) {
+                break;
+            }
+            synchronized (state) {
+                state.listed = false;
+            }
+            if (players.get(state.player.getUniqueId()) != state) {
+                // 퇴장한 플레이어
+                continue;
+            }
+
+            try {
+                if (scheduler == null) {
+                    drain(state, now, false);
+                } else {
+                    scheduler.execute(state.player, () -> drain(state, now, false));
+                }
+            } catch (Exception ignored) {
+                // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+            }
+        }
+    }
+
+    /**
+     * 예산과 관계없이 대기 패킷을 모두 보낸다. (코덱 재협상 전 등)
+     */
+    void flush(Player player) {
+        State state = players.get(player.getUniqueId());
+        if (state != null) {
+            drain(state, tick, true);
+        }
+    }
+
+    private void drain(State state, long now, boolean all) {
+        List<Entry> out = new ArrayList<>();
+        boolean list = false;
+        synchronized (state) {
+            state.refill(now, bytesPerTick);
+            state.take(out, all);
+            if (state.packets > 0 && !state.listed) {
+                state.listed = true;
+                list = true;
+            }
+        }
+        if (list) {
+            backlogged.add(state);
+        }
+
+        for (Entry entry : out) {
+            try {
+                sink.deliver(state.player, entry.type, entry.requestId, entry.bytes);
+            } catch (Exception ignored) {
+                // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+            }
+        }
+    }
+
+    /**
+     * 플레이어의 송신 대기 상태를 반환한다.
+     */
+    public Backlog backlog(Player player) {
+        State state = players.get(player.getUniqueId());
+        if (state == null) {
+            return Backlog.EMPTY;
+        }
+        synchronized (state) {
+            if (state.packets == 0) {
+                return Backlog.EMPTY;
+            }
+            // 예산을 빚진 만큼 더 걸린다.
+            long owed = state.bytes + Math.max(0, -state.credit);
+            return new Backlog(state.packets, state.bytes, (int) ((owed + bytesPerTick - 1) / bytesPerTick));
+        }
+    }
+
+    /**
+     * 지금 보내는 NORMAL / LOW 패킷이 대기하게 되는지 확인한다.
+     * 대기 중인 패킷이 있거나 이번 틱 예산을 다 썼으면 true.
+     */
+    public boolean isCongested(Player player) {
+        State state = players.get(player.getUniqueId());
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            state.refill(tick, bytesPerTick);
+            return state.packets > 0 || state.credit <= 0;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        players.remove(event.getPlayer().getUniqueId());
+    }
+
+    public Stats stats() {
+        return new Stats(delayed.sum(), superseded.sum(), rejected.sum(), backlogged.size());
+    }
+
+    private void superseded(int count) {
+        superseded.add(count);
+        for (int i = 0; i < count; i++) {
+            metrics.droppedOutbound(DropReason.SUPERSEDED);
+        }
+    }
+
+    /**
+     * 플레이어 송신 대기 상태.
+     *
+     * @param packets 대기 중인 패킷 수
+     * @param bytes   대기 중인 바이트 수
+     * @param ticks   지금 대기열이 모두 나가기까지 걸릴 것으로 예상되는 틱 수
+     */
+    public record Backlog(int packets, int bytes, int ticks) {
+
+        public static final Backlog EMPTY = new Backlog(0, 0, 0);
+    }
+
+    /**
+     * 송신 예산 통계.
+     *
+     * @param delayed    예산을 넘겨 대기했던 패킷 수
+     * @param superseded 새 패킷이나 CLOSE_UI로 대체되어 보내지 않은 대기 패킷 수
+     * @param rejected   대기열이 가득 차 버리거나 밀려난 패킷 수
+     * @param backlogged 대기 패킷이 있는 플레이어 수
+     */
+    public record Stats(long delayed, long superseded, long rejected, int backlogged) {
+    }
+
+    private record Key(PacketType type, String requestId) {
+    }
+
+    private static final class Entry {
+        final PacketType type;
+        final String requestId;
+        byte[] bytes;
+        /** CLOSE_UI로 취소됨. 대기열에서 꺼낼 때 건너뛴다. */
+        boolean cancelled;
+
+        Entry(PacketType type, String requestId, byte[] bytes) {
+            this.type = type;
+            this.requestId = requestId;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * 플레이어 한 명의 예산과 대기열. this로 동기화한다.
+     */
+    private final class State {
+        final Player player;
+        final ArrayDeque<Entry> normal = new ArrayDeque<>();
+        final ArrayDeque<Entry> low = new ArrayDeque<>();
+        /** 대기 중인 (PacketType, requestId) → 패킷 */
+        final Map<Key, Entry> index = new HashMap<>();
+
+        /** 이번 틱에 남은 예산(byte). 큰 패킷을 보내면 음수가 된다. */
+        long credit;
+        long lastTick;
+        int bytes;
+        int packets;
+        /** backlogged에 들어 있음 */
+        boolean listed;
+
+        State(Player player, long now) {
+            this.player = player;
+            this.credit = bytesPerTick;
+            this.lastTick = now;
+        }
+
+        void refill(long now, int budget) {
+            long elapsed = now - lastTick;
+            if (elapsed > 0) {
+                credit = Math.min(budget, credit + elapsed * budget);
+                lastTick = now;
+            }
+        }
+
+        ArrayDeque<Entry> queue(OutboundPriority priority) {
+            return priority == OutboundPriority.LOW ? low : normal;
+        }
+
+        /**
+         * 예산만큼(all이면 모두) NORMAL → LOW 순서로 꺼낸다.
+         */
+        void take(List<Entry> out, boolean all) {
+            take(normal, out, all);
+            take(low, out, all);
+        }
+
+        private void take(ArrayDeque<Entry> queue, List<Entry> out, boolean all) {
+            while ((all || credit > 0) && !queue.isEmpty()) {
+                Entry entry = queue.poll();
+                if (entry.cancelled) {
+                    continue;
+                }
+                remove(entry);
+                credit -= entry.bytes.length;
+                out.add(entry);
+            }
+        }
+
+        /**
+         * 가장 오래된 LOW부터 need 바이트 이상 밀어낸다.
+         *
+         * @return 밀어낸 바이트 수
+         */
+        int evictLow(int need) {
+            int freed = 0;
+            while (freed < need && !low.isEmpty()) {
+                Entry entry = low.poll();
+                if (entry.cancelled) {
+                    continue;
+                }
+                remove(entry);
+                freed += entry.bytes.length;
+                rejected.increment();
+                metrics.droppedOutbound(DropReason.BACKPRESSURE);
+            }
+            return freed;
+        }
+
+        /**
+         * 같은 requestId로 대기 중인 패킷을 모두 취소한다.
+         */
+        void cancel(String requestId) {
+            if (packets == 0) {
+                return;
+            }
+            int count = 0;
+            for (PacketType type : REQUEST_TYPES) {
+                Entry entry = index.get(new Key(type, requestId));
+                if (entry != null) {
+                    remove(entry);
+                    entry.cancelled = true;
+                    count++;
+                }
+            }
+            if (count > 0) {
+                superseded(count);
+            }
+        }
+
+        private void remove(Entry entry) {
+            if (entry.requestId != null) {
+                index.remove(new Key(entry.type, entry.requestId));
+            }
+            bytes -= entry.bytes.length;
+            packets--;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package kr.crownrpg.packethandler.channel;
+
+import kr.crownrpg.packethandler.CrownPacketHandler;
+import kr.crownrpg.packethandler.capture.PacketCapture;
+import kr.crownrpg.packethandler.codec.PacketCompression;
+import kr.crownrpg.packethandler.codec.PacketFragments;
+import kr.crownrpg.packethandler.metrics.DropReason;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.session.PlayerSession;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 인코딩된 패킷을 PluginMessage로 내보내는 마지막 단계.
+ *
+ * 플레이어가 협상한 기능에 따라 다음 순서로 처리한다.
+ * - DEFLATE: threshold 이상이면 압축
+ * - FRAGMENT: 그래도 최대 크기를 넘으면 조각으로 나눠 전송
+ * - 둘 다 없으면 최대 크기를 넘는 패킷은 버린다
+ *
+ * 캡처를 사용하면 실제로 내보낸 byte[]를 그대로 기록한다.
+ *
+ * {@link CrownPacketChannel}과 {@link OutboundBatcher}가 함께 사용한다.
+ */
+public final class OutboundWire {
+
+    private final Plugin plugin;
+    private final PacketMetrics metrics;
+    private final PacketCompression compression;
+    private final int maxFragmentedBytes;
+    private final PacketCapture capture;
+    private final AtomicInteger nextMessageId = new AtomicInteger();
+    private final Set<PacketType> warned = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param compression        압축을 사용하지 않으면 null
+     * @param maxFragmentedBytes 조각으로 나눠 보낼 수 있는 최대 크기(byte), 조각 전송을 사용하지 않으면 0
+     * @param capture            송신 캡처를 사용하지 않으면 null
+     */
+    public OutboundWire(
+            Plugin plugin,
+            PacketMetrics metrics,
+            PacketCompression compression,
+            int maxFragmentedBytes,
+            PacketCapture capture
+    ) {
+        this.plugin = plugin;
+        this.metrics = metrics;
+        this.compression = compression;
+        this.maxFragmentedBytes = maxFragmentedBytes;
+        this.capture = capture;
+    }
+
+    public PacketCompression compression() {
+        return compression;
+    }
+
+    /**
+     * 이 세션에 보낼 수 있는 압축 전 최대 크기(byte).
+     */
+    public int maxBytes(PlayerSession session) {
+        int max = CrownPacketChannel.MAX_PACKET_BYTES;
+        if (fragments(session)) {
+            max = Math.max(max, maxFragmentedBytes);
+        }
+        if (compresses(session)) {
+            max = Math.max(max, compression.maxInflatedBytes());
+        }
+        return max;
+    }
+
+    /**
+     * BATCH 하나에 묶을 수 있는 압축 전 최대 크기(byte).
+     * 묶음은 조각으로 나누지 않으므로 압축 여부만 고려한다.
+     */
+    public int maxBatchBytes(PlayerSession session) {
+        return compresses(session) ? compression.maxInflatedBytes() : CrownPacketChannel.MAX_PACKET_BYTES;
+    }
+
+    /**
+     * @param session HANDSHAKE 전이면 null
+     * @return 최대 크기를 넘어 보내지 못했으면 false
+     */
+    public boolean send(Player player, PlayerSession session, PacketType type, byte[] bytes) {
+        if (trySend(player, session, type, bytes)) {
+            return true;
+        }
+        oversized(type, bytes.length);
+        return false;
+    }
+
+    /**
+     * {@link #send}와 같지만 최대 크기를 넘어도 기록하지 않는다. (다른 방법으로 다시 보낼 경우)
+     */
+    boolean trySend(Player player, PlayerSession session, PacketType type, byte[] bytes) {
+        if (compresses(session)) {
+            bytes = compression.compress(type, bytes);
+        }
+
+        if (bytes.length <= CrownPacketChannel.MAX_PACKET_BYTES) {
+            write(player, bytes);
+            return true;
+        }
+
+        if (!fragments(session) || bytes.length > maxFragmentedBytes) {
+            return false;
+        }
+
+        int messageId = nextMessageId.getAndIncrement() & Integer.MAX_VALUE;
+        for (byte[] fragment : PacketFragments.split(type, messageId, bytes, CrownPacketChannel.MAX_PACKET_BYTES)) {
+            write(player, fragment);
+        }
+        return true;
+    }
+
+    private void write(Player player, byte[] message) {
+        player.sendPluginMessage(plugin, CrownPacketHandler.CHANNEL, message);
+        if (capture != null) {
+            capture.outbound(player.getUniqueId(), message);
+        }
+    }
+
+    /**
+     * 최대 크기를 넘어 버린 패킷을 지표에 기록하고, 로그는 PacketType마다 처음 한 번만 남긴다.
+     *
+     * @param length 패킷 크기(byte), 인코딩 도중 중단해 알 수 없으면 -1
+     */
+    void oversized(PacketType type, int length) {
+        metrics.droppedOutbound(DropReason.OVERSIZE);
+        if (warned.add(type)) {
+            plugin.getLogger().warning("Dropped oversized " + type + " packet ("
+                    + (length < 0 ? "encoding aborted at size limit" : length + " bytes") + "). "
+                    + "Further drops of this type are not logged.");
+        }
+    }
+
+    private boolean compresses(PlayerSession session) {
+        return compression != null && session != null && session.supports(ClientFeature.DEFLATE);
+    }
+
+    private boolean fragments(PlayerSession session) {
+        return maxFragmentedBytes > 0 && session != null && session.supports(ClientFeature.FRAGMENT);
+    }
+}
@@ -0,0 +1,231 @@
+package kr.crownrpg.packethandler.channel;
+
+import kr.crownrpg.packethandler.input.InputRouter;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TEXT_INPUT_PREVIEW 병합기. (opt-in)
+ *
+ * (플레이어, requestId)마다 미리보기 이벤트를 interval 틱에 최대 한 번만 발행한다.
+ * - 간격이 지났으면 즉시 발행한다.
+ * - 간격 안에 도착한 미리보기는 가장 최신 것 하나만 남겨 두었다가 간격이 지나면 발행한다.
+ * - 같은 requestId의 TEXT_INPUT이 도착하면 남은 미리보기를 먼저 발행(flush)하거나 버린다(discard).
+ *
+ * {@link #run()}은 매 틱 실행되어야 한다.
+ * 미리보기는 플레이어를 소유한 스레드에서, {@link #run()}은 global region에서 호출될 수 있으므로(Folia)
+ * 칸 상태는 칸마다 잠그고, 이벤트 발행은 잠금 밖에서 한다.
+ * {@link CrownScheduler}를 넘기면 {@link #run()}에서 발행할 미리보기는 플레이어를 소유한 스레드에서 꺼낸다.
+ * TEXT_INPUT({@link #onFinal})도 그 스레드에서 처리되므로, 최종 입력 이후에 미리보기가 발행되지 않는다.
+ */
+public final class PreviewCoalescer implements Runnable, Listener {
+
+    /** 이 시간(틱) 동안 미리보기가 없으면 상태를 정리한다. */
+    private static final long IDLE_TICKS = 20L * 60;
+
+    private final InputRouter router;
+    private final int intervalTicks;
+    private final boolean flushOnFinal;
+    private final CrownScheduler scheduler;
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long tick;
+
+    public PreviewCoalescer(InputRouter router, int intervalTicks, boolean flushOnFinal) {
+        this(router, intervalTicks, flushOnFinal, null);
+    }
+
+    /**
+     * @param scheduler 스레드를 옮기지 않으면 null ({@link #run()}을 호출한 스레드에서 바로 발행)
+     */
+    public PreviewCoalescer(InputRouter router, int intervalTicks, boolean flushOnFinal, CrownScheduler scheduler) {
+        this.router = router;
+        this.intervalTicks = Math.max(1, intervalTicks);
+        this.flushOnFinal = flushOnFinal;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 미리보기를 받는다. 간격이 지났으면 즉시 이벤트를 발행한다.
+     */
+    public void offer(Player player, String requestId, String context, String text) {
+        Key key = new Key(player.getUniqueId(), requestId);
+        Preview preview = new Preview(player, requestId, context, text);
+        while (true) {
+            Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+            long now = tick;
+            synchronized (slot) {
+                if (slot.removed) {
+                    // run()이 방금 정리한 칸이다. 새 칸으로 다시 시도한다.
+                    continue;
+                }
+                slot.lastSeenTick = now;
+
+                if (slot.pending != null || now - slot.lastFiredTick < intervalTicks) {
+                    if (slot.pending != null) {
+                        coalesced.increment();
+                    }
+                    slot.pending = preview;
+                    return;
+                }
+                slot.lastFiredTick = now;
+            }
+            fire(preview);
+            return;
+        }
+    }
+
+    /**
+     * 같은 requestId의 TEXT_INPUT이 도착했을 때 호출한다.
+     * 대기 중인 미리보기를 설정에 따라 먼저 발행하거나 버린다.
+     */
+    public void onFinal(Player player, String requestId) {
+        Slot slot = slots.remove(new Key(player.getUniqueId(), requestId));
+        if (slot == null) {
+            return;
+        }
+
+        Preview pending;
+        synchronized (slot) {
+            slot.removed = true;
+            pending = slot.pending;
+            slot.pending = null;
+        }
+        if (pending == null) {
+            return;
+        }
+
+        if (flushOnFinal) {
+            fire(pending);
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void run() {
+        long now = ++tick;
+
+        Iterator<Slot> iterator = slots.values().iterator();
+        while (iterator.hasNext()) {
+            Slot slot = iterator.next();
+            Preview preview = null;
+            Player owner = null;
+            synchronized (slot) {
+                if (slot.pending != null) {
+                    if (!slot.draining && now - slot.lastFiredTick >= intervalTicks) {
+                        if (scheduler == null) {
+                            preview = slot.pending;
+                            slot.pending = null;
+                            slot.lastFiredTick = now;
+                        } else {
+                            slot.draining = true;
+                            owner = slot.pending.player();
+                        }
+                    }
+                } else if (now - slot.lastSeenTick >= IDLE_TICKS) {
+                    slot.removed = true;
+                    iterator.remove();
+                }
+            }
+            if (preview != null) {
+                fire(preview);
+            } else if (owner != null) {
+                try {
+                    scheduler.execute(owner, () -> drain(slot));
+                } catch (Exception ignored) {
+                    // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+                    synchronized (slot) {
+                        slot.draining = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 플레이어를 소유한 스레드에서 대기 중인 미리보기를 꺼내 발행한다.
+     * 그 사이 TEXT_INPUT이 처리되어 칸이 정리되었으면 발행하지 않는다.
+     */
+    private void drain(Slot slot) {
+        Preview preview;
+        synchronized (slot) {
+            slot.draining = false;
+            if (slot.removed || slot.pending == null) {
+                return;
+            }
+            preview = slot.pending;
+            slot.pending = null;
+            slot.lastFiredTick = tick;
+        }
+        fire(preview);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        slots.entrySet().removeIf(entry -> {
+            if (!entry.getKey().playerId().equals(playerId)) return false;
+            Slot slot = entry.getValue();
+            synchronized (slot) {
+                slot.removed = true;
+                if (slot.pending != null) dropped.increment();
+            }
+            return true;
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(fired.sum(), coalesced.sum(), dropped.sum(), slots.size());
+    }
+
+    private void fire(Preview preview) {
+        fired.increment();
+        try {
+            router.textInputPreview(preview.player(), preview.requestId(), preview.context(), preview.text());
+        } catch (Exception ignored) {
+            // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+        }
+    }
+
+    /**
+     * 미리보기 병합 통계.
+     *
+     * @param fired     발행된 미리보기 이벤트 수
+     * @param coalesced 더 최신 미리보기로 대체되어 발행되지 않은 수
+     * @param dropped   TEXT_INPUT 도착(discard) 또는 퇴장으로 버려진 수
+     * @param tracked   현재 추적 중인 (플레이어, requestId) 수
+     */
+    public record Stats(long fired, long coalesced, long dropped, int tracked) {
+    }
+
+    private record Key(UUID playerId, String requestId) {
+    }
+
+    private record Preview(Player player, String requestId, String context, String text) {
+    }
+
+    private static final class Slot {
+        long lastFiredTick = Long.MIN_VALUE / 2;
+        long lastSeenTick;
+        Preview pending;
+        /** 플레이어를 소유한 스레드로 꺼내기를 넘겨 둔 상태 */
+        boolean draining;
+        /** 맵에서 빠진 칸. 이 칸에 쓰지 않는다. */
+        boolean removed;
+    }
+}
@@ -0,0 +1,227 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.packet.InboundPacket;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.packet.PayloadSchema;
+import kr.crownrpg.packethandler.packet.PayloadWriter;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 버전 1 바이너리 와이어 포맷. ({@link ClientFeature#BINARY_V1})
+ *
+ * <pre>
+ * [0xC1]            매직 (UTF-8에서 절대 등장하지 않는 바이트이므로 JSON과 구분된다)
+ * [type]            PacketType 1바이트 태그 ({@link PacketType#id()})
+ * [flags]           bit0 requestId 있음, bit1 requestId가 UUID, bit2 clientTime 있음
+ * [requestId]       UUID면 16바이트, 아니면 VarInt 길이 + UTF-8
+ * [clientTime]      VarLong
+ * [payload]         PacketType별 고정 순서 필드 ({@link PayloadSchema}의 선언 순서)
+ * </pre>
+ *
+ * payload 필드 인코딩:
+ * - 문자열: VarInt 길이 + UTF-8
+ * - nullable 문자열: VarInt (길이 + 1), 0이면 null
+ * - boolean: 1바이트 (0/1)
+ * - 정수: ZigZag VarInt, 양수 전용 필드는 VarInt (0 = 생략)
+ * - 문자열 배열: VarInt 개수 + 문자열
+ *
+ * BATCH payload는 VarInt 개수 + (VarInt 길이 + 바이너리 패킷) 반복이다.
+ */
+public final class BinaryPacketCodec implements PacketCodec {
+
+    public static final BinaryPacketCodec INSTANCE = new BinaryPacketCodec();
+
+    public static final int MAGIC = 0xC1;
+
+    private static final int FLAG_REQUEST_ID = 1;
+    private static final int FLAG_UUID = 1 << 1;
+    private static final int FLAG_CLIENT_TIME = 1 << 2;
+    private static final int KNOWN_FLAGS = FLAG_REQUEST_ID | FLAG_UUID | FLAG_CLIENT_TIME;
+
+    private BinaryPacketCodec() {
+    }
+
+    /**
+     * raw 메시지가 이 포맷인지 첫 바이트로 판별한다.
+     */
+    public static boolean matches(byte[] message) {
+        return message.length > 0 && (message[0] & 0xFF) == MAGIC;
+    }
+
+    @Override
+    public InboundPacket decode(byte[] message, SymbolTable symbols) throws IOException {
+        BinaryReader reader = new BinaryReader(message, 0);
+        if (reader.readByte() != MAGIC) {
+            throw new IOException("Not a binary packet");
+        }
+
+        PacketType type = PacketType.fromId(reader.readByte());
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown packet type");
+        }
+
+        int flags = reader.readByte();
+        if ((flags & ~KNOWN_FLAGS) != 0) {
+            throw new IOException("Unknown binary packet flags");
+        }
+
+        String requestId = null;
+        if ((flags & FLAG_REQUEST_ID) != 0) {
+            requestId = (flags & FLAG_UUID) != 0
+                    ? new UUID(reader.readLong(), reader.readLong()).toString()
+                    : reader.readString();
+        }
+        Long clientTime = (flags & FLAG_CLIENT_TIME) != 0 ? reader.readVarLong() : null;
+
+        PayloadSchema.Entry[] entries = PayloadSchema.of(type);
+        if (entries == null) {
+            // 서버→클라이언트 전용 타입은 payload를 해석하지 않는다.
+            throw new IllegalArgumentException("Outbound-only packet type");
+        }
+
+        Object[] values = new Object[PayloadSchema.FIELD_COUNT];
+        for (PayloadSchema.Entry entry : entries) {
+            PayloadSchema.Field field = entry.field();
+            switch (field.kind()) {
+                case SYMBOL -> values[field.ordinal()] = entry.optional()
+                        ? reader.readNullableSymbol(symbols)
+                        : reader.readSymbol(symbols);
+                case STRING -> values[field.ordinal()] = entry.optional()
+                        ? reader.readNullableString()
+                        : reader.readString();
+                case BOOL -> values[field.ordinal()] = reader.readBool();
+                case INT -> values[field.ordinal()] = reader.readZigZagInt();
+                case FEATURES -> values[field.ordinal()] = readFeatures(reader);
+            }
+        }
+        InboundPacket packet = PayloadSchema.toPacket(type, requestId, clientTime, values);
+
+        reader.expectEnd();
+        return packet;
+    }
+
+    private static int readFeatures(BinaryReader reader) throws IOException {
+        int count = reader.readVarInt();
+        if (count < 0 || count > ClientFeature.values().length * 4) {
+            throw new IOException("Too many handshake features");
+        }
+        int features = 0;
+        for (int i = 0; i < count; i++) {
+            features |= ClientFeature.maskOf(reader.readString());
+        }
+        return features;
+    }
+
+    @Override
+    public byte[] encode(PacketType type, String requestId, long serverTime, OutboundPayload payload) {
+        BinaryWriter writer = new BinaryWriter(64);
+        writeHeader(writer, type, requestId, serverTime);
+        payload.writeTo(new BinaryPayloadWriter(writer));
+        return writer.toByteArray();
+    }
+
+    @Override
+    public CompiledTemplate compile(PacketType type, OutboundPayload payload) {
+        return BinaryTemplate.compile(type, payload);
+    }
+
+    @Override
+    public byte[] encodeBatch(long serverTime, List<byte[]> frames) {
+        int size = 16;
+        for (byte[] frame : frames) {
+            size += frame.length + 2;
+        }
+
+        BinaryWriter writer = new BinaryWriter(size);
+        writeHeader(writer, PacketType.BATCH, null, serverTime);
+        writer.writeVarInt(frames.size());
+        for (byte[] frame : frames) {
+            writer.writeVarInt(frame.length);
+            writer.writeBytes(frame);
+        }
+        return writer.toByteArray();
+    }
+
+    static void writeHeader(BinaryWriter writer, PacketType type, String requestId, long serverTime) {
+        writer.writeByte(MAGIC);
+        writer.writeByte(type.id());
+
+        boolean uuid = requestId != null && isCanonicalUuid(requestId);
+        int flags = FLAG_CLIENT_TIME;
+        if (requestId != null) flags |= FLAG_REQUEST_ID;
+        if (uuid) flags |= FLAG_UUID;
+        writer.writeByte(flags);
+
+        if (uuid) {
+            UUID parsed = UUID.fromString(requestId);
+            writer.writeLong(parsed.getMostSignificantBits());
+            writer.writeLong(parsed.getLeastSignificantBits());
+        } else if (requestId != null) {
+            writer.writeString(requestId);
+        }
+        writer.writeVarLong(serverTime);
+    }
+
+    static PayloadWriter payloadWriter(BinaryWriter writer) {
+        return new BinaryPayloadWriter(writer);
+    }
+
+    /**
+     * UUID.toString()과 정확히 같은 형태(소문자 36자)일 때만 16바이트로 압축한다.
+     * 그래야 클라이언트가 복원한 문자열이 원본과 일치한다.
+     */
+    static boolean isCanonicalUuid(String value) {
+        if (value.length() != 36) return false;
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record BinaryPayloadWriter(BinaryWriter writer) implements PayloadWriter {
+
+        @Override
+        public void string(String key, String value) {
+            writer.writeString(value);
+        }
+
+        @Override
+        public void nullableString(String key, String value) {
+            writer.writeNullableString(value);
+        }
+
+        @Override
+        public void integer(String key, int value) {
+            writer.writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        @Override
+        public void bool(String key, boolean value) {
+            writer.writeBool(value);
+        }
+
+        @Override
+        public void positiveInteger(String key, int value) {
+            writer.writeVarInt(Math.max(value, 0));
+        }
+
+        @Override
+        public void stringArray(String key, String[] values) {
+            writer.writeVarInt(values.length);
+            for (String value : values) {
+                writer.writeString(value);
+            }
+        }
+    }
+}
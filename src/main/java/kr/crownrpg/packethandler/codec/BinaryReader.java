@@ -0,0 +1,138 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 바이너리 와이어 포맷용 읽기 커서.
+ *
+ * 길이 필드는 항상 남은 바이트 수로 검증하므로 잘못된 길이로 큰 배열을 만들지 않는다.
+ */
+final class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    BinaryReader(byte[] buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    int position() {
+        return position;
+    }
+
+    int readByte() throws IOException {
+        if (position >= buffer.length) {
+            throw new EOFException("Unexpected end of binary packet");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    boolean readBool() throws IOException {
+        int value = readByte();
+        if (value > 1) {
+            throw new IOException("Invalid boolean in binary packet");
+        }
+        return value == 1;
+    }
+
+    int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too long");
+    }
+
+    /**
+     * {@code PayloadWriter.integer}가 기록한 부호 있는 정수를 읽는다.
+     */
+    int readZigZagInt() throws IOException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarLong too long");
+    }
+
+    long readLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    String readString() throws IOException {
+        return readUtf8(readVarInt());
+    }
+
+    String readNullableString() throws IOException {
+        int length = readVarInt();
+        return length == 0 ? null : readUtf8(length - 1);
+    }
+
+    /**
+     * action / ui / context처럼 고정 어휘에서 나오는 문자열을 읽는다.
+     * 심볼 테이블에 등록된 값이면 버퍼에서 곧바로 canonical 인스턴스를 찾아 String을 새로 만들지 않는다.
+     *
+     * @param symbols null이면 {@link #readString()}과 같다
+     */
+    String readSymbol(SymbolTable symbols) throws IOException {
+        return readSymbol(symbols, readVarInt());
+    }
+
+    String readNullableSymbol(SymbolTable symbols) throws IOException {
+        int length = readVarInt();
+        return length == 0 ? null : readSymbol(symbols, length - 1);
+    }
+
+    private String readSymbol(SymbolTable symbols, int length) throws IOException {
+        if (symbols == null) {
+            return readUtf8(length);
+        }
+        checkLength(length);
+        String value = symbols.intern(buffer, position, length);
+        position += length;
+        return value;
+    }
+
+    /**
+     * 모든 바이트를 소비했는지 확인한다. 남은 바이트가 있으면 잘못된 패킷이다.
+     */
+    void expectEnd() throws IOException {
+        if (position != buffer.length) {
+            throw new IOException("Trailing data after binary packet");
+        }
+    }
+
+    private String readUtf8(int length) throws IOException {
+        checkLength(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private void checkLength(int length) throws IOException {
+        if (length < 0 || length > buffer.length - position) {
+            throw new IOException("Invalid string length in binary packet");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.packet.PayloadWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BinaryPacketCodec}용 템플릿.
+ *
+ * 헤더(플래그, requestId, clientTime)는 송신 시 기록하고,
+ * payload의 고정 필드는 미리 인코딩한 바이트 묶음을 그대로 복사한다.
+ */
+final class BinaryTemplate implements CompiledTemplate {
+
+    private final PacketType type;
+
+    /** 미리 인코딩된 payload 묶음(byte[]) 또는 slot 인덱스(Integer) */
+    private final Object[] parts;
+
+    private final int staticLength;
+
+    private BinaryTemplate(PacketType type, Object[] parts) {
+        this.type = type;
+        this.parts = parts;
+
+        int length = 0;
+        for (Object part : parts) {
+            if (part instanceof byte[] bytes) {
+                length += bytes.length;
+            }
+        }
+        this.staticLength = length;
+    }
+
+    static BinaryTemplate compile(PacketType type, OutboundPayload payload) {
+        Recorder recorder = new Recorder();
+        payload.writeTo(recorder);
+        recorder.flush();
+        return new BinaryTemplate(type, recorder.parts.toArray());
+    }
+
+    @Override
+    public byte[] render(String requestId, long serverTime, String[] slots) {
+        BinaryWriter out = new BinaryWriter(staticLength + 64);
+        BinaryPacketCodec.writeHeader(out, type, requestId, serverTime);
+
+        for (Object part : parts) {
+            if (part instanceof byte[] bytes) {
+                out.writeBytes(bytes);
+            } else {
+                out.writeString(JsonTemplate.slotValue(slots, (Integer) part));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Recorder implements PayloadWriter {
+
+        private final List<Object> parts = new ArrayList<>();
+        private BinaryWriter pending = new BinaryWriter(64);
+        private PayloadWriter delegate = BinaryPacketCodec.payloadWriter(pending);
+        private boolean dirty;
+
+        @Override
+        public void string(String key, String value) {
+            delegate.string(key, value);
+            dirty = true;
+        }
+
+        @Override
+        public void nullableString(String key, String value) {
+            delegate.nullableString(key, value);
+            dirty = true;
+        }
+
+        @Override
+        public void integer(String key, int value) {
+            delegate.integer(key, value);
+            dirty = true;
+        }
+
+        @Override
+        public void bool(String key, boolean value) {
+            delegate.bool(key, value);
+            dirty = true;
+        }
+
+        @Override
+        public void positiveInteger(String key, int value) {
+            delegate.positiveInteger(key, value);
+            dirty = true;
+        }
+
+        @Override
+        public void stringArray(String key, String[] values) {
+            delegate.stringArray(key, values);
+            dirty = true;
+        }
+
+        @Override
+        public void stringSlot(String key, int index) {
+            flush();
+            parts.add(index);
+        }
+
+        void flush() {
+            if (dirty) {
+                parts.add(pending.toByteArray());
+                pending = new BinaryWriter(64);
+                delegate = BinaryPacketCodec.payloadWriter(pending);
+                dirty = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package kr.crownrpg.packethandler.codec;
+
+/**
+ * 특정 코덱으로 미리 인코딩된 패킷 템플릿.
+ *
+ * 불변이며 여러 스레드에서 동시에 사용할 수 있다.
+ */
+public interface CompiledTemplate {
+
+    /**
+     * 가변 필드를 채워 최종 바이트 배열을 만든다.
+     *
+     * @param slots 템플릿 slot 인덱스 순서의 값 (null 불가)
+     * @throws IllegalArgumentException slot 값이 부족하거나 null일 때
+     */
+    byte[] render(String requestId, long serverTime, String[] slots);
+}
@@ -0,0 +1,278 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.packet.PayloadWriter;
+
+import java.util.Arrays;
+
+/**
+ * JSON Envelope을 JsonObject / String 없이 UTF-8 byte[]로 바로 쓰는 writer.
+ *
+ * 결과는 Gson 기본 설정({@code new Gson()})으로 직렬화한 뒤 {@code getBytes(UTF_8)}한 것과 바이트 단위로 같다.
+ * - null 필드는 생략한다.
+ * - 문자열 escape는 Gson과 같다. (HTML 문자 {@code < > & = '}, U+2028 / U+2029, 제어 문자)
+ * - 짝이 없는 surrogate는 {@code getBytes(UTF_8)}처럼 '?'로 바꾼다.
+ *
+ * 스레드마다 버퍼 하나를 재사용하고, 한도를 넘는 순간 쓰기를 멈춘다.
+ * 최종 byte[]는 버퍼에서 한 번만 복사한다.
+ */
+final class JsonEnvelopeWriter implements PayloadWriter {
+
+    private static final byte[] TYPE_FIELD = bytes("{\"type\":\"");
+    private static final byte[] REQUEST_ID_FIELD = bytes(",\"requestId\":");
+    private static final byte[] CLIENT_TIME_FIELD = bytes(",\"clientTime\":");
+    private static final byte[] PAYLOAD_FIELD = bytes(",\"payload\":{");
+
+    private static final byte[] HEX = bytes("0123456789abcdef");
+
+    /** 이보다 커진 버퍼는 스레드에 남기지 않는다. */
+    private static final int RETAINED_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<JsonEnvelopeWriter> WRITERS = ThreadLocal.withInitial(JsonEnvelopeWriter::new);
+
+    /** 스택 트레이스 없이 미리 만들어 둔 한도 초과 신호 */
+    private static final RuntimeException TOO_LARGE = new RuntimeException("too large", null, false, false) {
+    };
+
+    private byte[] buffer = new byte[1024];
+    private int size;
+    private int limit;
+    private boolean first;
+    private boolean busy;
+
+    private JsonEnvelopeWriter() {
+    }
+
+    /**
+     * @return 인코딩 결과, maxBytes를 넘으면 null
+     */
+    static byte[] encode(PacketType type, String requestId, long serverTime, OutboundPayload payload, int maxBytes) {
+        JsonEnvelopeWriter out = acquire(maxBytes);
+        try {
+            out.raw(TYPE_FIELD);
+            out.ascii(type.name());
+            out.raw('"');
+            if (requestId != null) {
+                out.raw(REQUEST_ID_FIELD);
+                out.quoted(requestId);
+            }
+            out.raw(CLIENT_TIME_FIELD);
+            out.number(serverTime);
+            out.raw(PAYLOAD_FIELD);
+            out.first = true;
+            payload.writeTo(out);
+            out.raw('}');
+            out.raw('}');
+            return out.toByteArray();
+        } catch (RuntimeException e) {
+            if (e == TOO_LARGE) {
+                return null;
+            }
+            throw e;
+        } finally {
+            out.release();
+        }
+    }
+
+    /**
+     * 스레드의 writer를 비운 상태로 빌린다. (같은 스레드에서 중첩 사용 시 새 writer)
+     */
+    static JsonEnvelopeWriter acquire(int maxBytes) {
+        JsonEnvelopeWriter out = WRITERS.get();
+        if (out.busy) {
+            out = new JsonEnvelopeWriter();
+        }
+        out.busy = true;
+        out.size = 0;
+        out.limit = maxBytes;
+        return out;
+    }
+
+    void release() {
+        busy = false;
+        if (buffer.length > RETAINED_BYTES) {
+            buffer = new byte[1024];
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    @Override
+    public void string(String key, String value) {
+        if (value == null) return;
+        name(key);
+        quoted(value);
+    }
+
+    @Override
+    public void nullableString(String key, String value) {
+        string(key, value);
+    }
+
+    @Override
+    public void integer(String key, int value) {
+        name(key);
+        number(value);
+    }
+
+    @Override
+    public void bool(String key, boolean value) {
+        name(key);
+        ascii(value ? "true" : "false");
+    }
+
+    @Override
+    public void positiveInteger(String key, int value) {
+        if (value > 0) {
+            integer(key, value);
+        }
+    }
+
+    @Override
+    public void stringArray(String key, String[] values) {
+        name(key);
+        raw('[');
+        boolean firstValue = true;
+        for (String value : values) {
+            if (!firstValue) {
+                raw(',');
+            }
+            if (value == null) {
+                // 배열 안의 null은 Gson도 생략하지 않는다.
+                ascii("null");
+            } else {
+                quoted(value);
+            }
+            firstValue = false;
+        }
+        raw(']');
+    }
+
+    private void name(String key) {
+        if (!first) {
+            raw(',');
+        }
+        first = false;
+        quoted(key);
+        raw(':');
+    }
+
+    void raw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    void raw(char c) {
+        ensure(1);
+        buffer[size++] = (byte) c;
+    }
+
+    void number(long value) {
+        ascii(Long.toString(value));
+    }
+
+    private void ascii(String value) {
+        int length = value.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * 문자열을 따옴표로 감싸 Gson과 같은 규칙으로 escape하면서 UTF-8로 쓴다.
+     */
+    void quoted(String value) {
+        int length = value.length();
+        // 대부분의 문자열은 한 번에 확보한다. (escape / 멀티바이트 문자는 쓰면서 다시 확보)
+        ensure(length + 2);
+        buffer[size++] = '"';
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\' && c != '<' && c != '>'
+                        && c != '&' && c != '=' && c != '\'') {
+                    ensure(1);
+                    buffer[size++] = (byte) c;
+                    continue;
+                }
+                escape(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[size++] = (byte) (0xC0 | (c >> 6));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (c == '\u2028' || c == '\u2029') {
+                escape(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // String.getBytes(UTF_8)와 같이 짝이 없는 surrogate는 '?'
+                ensure(1);
+                buffer[size++] = '?';
+            } else {
+                ensure(3);
+                buffer[size++] = (byte) (0xE0 | (c >> 12));
+                buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        ensure(1);
+        buffer[size++] = '"';
+    }
+
+    private void escape(char c) {
+        switch (c) {
+            case '"' -> shortEscape('"');
+            case '\\' -> shortEscape('\\');
+            case '\t' -> shortEscape('t');
+            case '\b' -> shortEscape('b');
+            case '\n' -> shortEscape('n');
+            case '\r' -> shortEscape('r');
+            case '\f' -> shortEscape('f');
+            default -> {
+                ensure(6);
+                buffer[size++] = '\\';
+                buffer[size++] = 'u';
+                buffer[size++] = HEX[(c >> 12) & 0xF];
+                buffer[size++] = HEX[(c >> 8) & 0xF];
+                buffer[size++] = HEX[(c >> 4) & 0xF];
+                buffer[size++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void shortEscape(char c) {
+        ensure(2);
+        buffer[size++] = '\\';
+        buffer[size++] = (byte) c;
+    }
+
+    private void ensure(int bytes) {
+        int required = size + bytes;
+        if (required > limit) {
+            throw TOO_LARGE;
+        }
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(Math.max(required, buffer.length * 2), Math.max(required, limit)));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) value.charAt(i);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,78 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.packet.InboundPacket;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketDecoder;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 기존 UTF-8 JSON Envelope 포맷.
+ *
+ * 모든 클라이언트가 지원하는 기본 코덱이며, HANDSHAKE는 항상 이 포맷으로 주고받는다.
+ */
+public final class JsonPacketCodec implements PacketCodec {
+
+    private static final byte[] BATCH_PREFIX = "{\"type\":\"BATCH\",\"clientTime\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_PACKETS = ",\"payload\":{\"packets\":[".getBytes(StandardCharsets.UTF_8);
+
+    public static final JsonPacketCodec INSTANCE = new JsonPacketCodec();
+
+    private JsonPacketCodec() {
+    }
+
+    @Override
+    public InboundPacket decode(byte[] message, SymbolTable symbols) throws IOException {
+        return PacketDecoder.decode(message, symbols);
+    }
+
+    @Override
+    public byte[] encode(PacketType type, String requestId, long serverTime, OutboundPayload payload) {
+        return JsonEnvelopeWriter.encode(type, requestId, serverTime, payload, Integer.MAX_VALUE);
+    }
+
+    /**
+     * JsonObject / String을 거치지 않고 UTF-8로 바로 쓰며, maxBytes를 넘는 순간 멈춘다.
+     */
+    @Override
+    public byte[] encode(PacketType type, String requestId, long serverTime, OutboundPayload payload, int maxBytes) {
+        return JsonEnvelopeWriter.encode(type, requestId, serverTime, payload, maxBytes);
+    }
+
+    @Override
+    public CompiledTemplate compile(PacketType type, OutboundPayload payload) {
+        return JsonTemplate.compile(type, payload);
+    }
+
+    /**
+     * {@code {"type":"BATCH","clientTime":..,"payload":{"packets":[Envelope, ...]}}}
+     *
+     * 각 Envelope은 이미 직렬화된 바이트를 그대로 이어 붙인다.
+     */
+    @Override
+    public byte[] encodeBatch(long serverTime, List<byte[]> frames) {
+        int size = BATCH_PREFIX.length + BATCH_PACKETS.length + 24 + frames.size();
+        for (byte[] frame : frames) {
+            size += frame.length;
+        }
+
+        BinaryWriter out = new BinaryWriter(size);
+        out.writeBytes(BATCH_PREFIX);
+        out.writeBytes(Long.toString(serverTime).getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(BATCH_PACKETS);
+        for (int i = 0; i < frames.size(); i++) {
+            if (i > 0) {
+                out.writeByte(',');
+            }
+            out.writeBytes(frames.get(i));
+        }
+        out.writeByte(']');
+        out.writeByte('}');
+        out.writeByte('}');
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,168 @@
+package kr.crownrpg.packethandler.codec;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.packet.PayloadWriter;
+import kr.crownrpg.packethandler.util.JsonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link JsonPacketCodec}용 템플릿.
+ *
+ * 고정 필드는 {@code "key":value} 형태로 미리 직렬화해 두고,
+ * 송신 시에는 requestId, clientTime, slot 값만 {@link JsonEnvelopeWriter}로 이어 붙인다.
+ * 결과는 {@link JsonPacketCodec#encode}와 바이트 단위로 동일하다.
+ * (Gson 기본 설정과 같이 null 필드는 생략된다.)
+ */
+final class JsonTemplate implements CompiledTemplate {
+
+    private static final byte[] REQUEST_ID_FIELD = ",\"requestId\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLIENT_TIME_FIELD = ",\"clientTime\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAYLOAD_FIELD = ",\"payload\":{".getBytes(StandardCharsets.UTF_8);
+
+    /** {"type":"..." */
+    private final byte[] prefix;
+
+    /** 미리 직렬화된 필드 묶음(byte[]) 또는 {@link Slot} */
+    private final Object[] parts;
+
+    private JsonTemplate(byte[] prefix, Object[] parts) {
+        this.prefix = prefix;
+        this.parts = parts;
+    }
+
+    static JsonTemplate compile(PacketType type, OutboundPayload payload) {
+        Recorder recorder = new Recorder();
+        payload.writeTo(recorder);
+        recorder.flush();
+
+        byte[] prefix = ("{\"type\":" + JsonUtils.gson().toJson(type.name())).getBytes(StandardCharsets.UTF_8);
+        return new JsonTemplate(prefix, recorder.parts.toArray());
+    }
+
+    @Override
+    public byte[] render(String requestId, long serverTime, String[] slots) {
+        JsonEnvelopeWriter out = JsonEnvelopeWriter.acquire(Integer.MAX_VALUE);
+        try {
+            out.raw(prefix);
+            if (requestId != null) {
+                out.raw(REQUEST_ID_FIELD);
+                out.quoted(requestId);
+            }
+            out.raw(CLIENT_TIME_FIELD);
+            out.number(serverTime);
+            out.raw(PAYLOAD_FIELD);
+
+            boolean first = true;
+            for (Object part : parts) {
+                if (!first) {
+                    out.raw(',');
+                }
+                if (part instanceof byte[] bytes) {
+                    out.raw(bytes);
+                } else {
+                    Slot slot = (Slot) part;
+                    out.raw(slot.name);
+                    out.quoted(slotValue(slots, slot.index));
+                }
+                first = false;
+            }
+
+            out.raw('}');
+            out.raw('}');
+            return out.toByteArray();
+        } finally {
+            out.release();
+        }
+    }
+
+    static String slotValue(String[] slots, int index) {
+        if (slots == null || index >= slots.length || slots[index] == null) {
+            throw new IllegalArgumentException("Missing template slot " + index);
+        }
+        return slots[index];
+    }
+
+    /**
+     * @param name {@code "key":} 형태로 미리 직렬화된 필드명
+     */
+    private record Slot(byte[] name, int index) {
+    }
+
+    /**
+     * 고정 필드를 모아 byte[] 묶음으로 만들고, slot을 만나면 묶음을 끊는다.
+     */
+    private static final class Recorder implements PayloadWriter {
+
+        private final List<Object> parts = new ArrayList<>();
+        private final StringBuilder pending = new StringBuilder();
+
+        @Override
+        public void string(String key, String value) {
+            field(key, new JsonPrimitive(value));
+        }
+
+        @Override
+        public void nullableString(String key, String value) {
+            if (value != null) {
+                field(key, new JsonPrimitive(value));
+            }
+        }
+
+        @Override
+        public void integer(String key, int value) {
+            field(key, new JsonPrimitive(value));
+        }
+
+        @Override
+        public void bool(String key, boolean value) {
+            field(key, new JsonPrimitive(value));
+        }
+
+        @Override
+        public void positiveInteger(String key, int value) {
+            if (value > 0) {
+                field(key, new JsonPrimitive(value));
+            }
+        }
+
+        @Override
+        public void stringArray(String key, String[] values) {
+            JsonArray array = new JsonArray(values.length);
+            for (String value : values) {
+                array.add(value);
+            }
+            field(key, array);
+        }
+
+        @Override
+        public void stringSlot(String key, int index) {
+            flush();
+            parts.add(new Slot(name(key).getBytes(StandardCharsets.UTF_8), index));
+        }
+
+        void flush() {
+            if (!pending.isEmpty()) {
+                parts.add(pending.toString().getBytes(StandardCharsets.UTF_8));
+                pending.setLength(0);
+            }
+        }
+
+        private void field(String key, JsonElement value) {
+            if (!pending.isEmpty()) {
+                pending.append(',');
+            }
+            pending.append(name(key)).append(JsonUtils.gson().toJson(value));
+        }
+
+        private static String name(String key) {
+            return JsonUtils.gson().toJson(key) + ':';
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.packet.InboundPacket;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * crown:packet 채널의 와이어 포맷.
+ *
+ * 플레이어별로 HANDSHAKE 결과에 따라 선택되며,
+ * 협상하지 않은 클라이언트는 항상 {@link JsonPacketCodec}을 사용한다.
+ */
+public interface PacketCodec {
+
+    /**
+     * 클라이언트 → 서버 패킷을 디코딩한다.
+     *
+     * @throws IOException 포맷 오류 시
+     * @throws IllegalArgumentException 필수 필드 누락, 타입 불일치 시
+     */
+    default InboundPacket decode(byte[] message) throws IOException {
+        return decode(message, null);
+    }
+
+    /**
+     * 클라이언트 → 서버 패킷을 디코딩하면서 action / ui / context를 심볼 테이블의 canonical 값으로 바꾼다.
+     *
+     * @param symbols null이면 심볼 처리를 하지 않는다
+     * @throws IOException 포맷 오류 시
+     * @throws IllegalArgumentException 필수 필드 누락, 타입 불일치 시
+     */
+    InboundPacket decode(byte[] message, SymbolTable symbols) throws IOException;
+
+    /**
+     * 서버 → 클라이언트 패킷을 인코딩한다.
+     *
+     * @param serverTime Envelope의 clientTime 자리에 기록할 서버 시각
+     */
+    byte[] encode(PacketType type, String requestId, long serverTime, OutboundPayload payload);
+
+    /**
+     * 서버 → 클라이언트 패킷을 인코딩하되 maxBytes를 넘으면 버린다.
+     * 기본 구현은 다 인코딩한 뒤 크기를 검사하고, 코덱에 따라 쓰는 도중 멈출 수 있다.
+     *
+     * @return 인코딩 결과, maxBytes를 넘으면 null
+     */
+    default byte[] encode(PacketType type, String requestId, long serverTime, OutboundPayload payload, int maxBytes) {
+        byte[] bytes = encode(type, requestId, serverTime, payload);
+        return bytes.length > maxBytes ? null : bytes;
+    }
+
+    /**
+     * payload의 고정 필드를 미리 인코딩한 템플릿을 만든다.
+     * {@link kr.crownrpg.packethandler.packet.PayloadWriter#stringSlot(String, int)}로
+     * 기록한 자리와 requestId, 시각만 송신 시점에 채운다.
+     */
+    CompiledTemplate compile(PacketType type, OutboundPayload payload);
+
+    /**
+     * 이 코덱으로 인코딩된 패킷 여러 개를 BATCH 패킷 하나로 묶는다.
+     */
+    byte[] encodeBatch(long serverTime, List<byte[]> frames);
+}
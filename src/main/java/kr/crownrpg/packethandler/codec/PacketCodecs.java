@@ -0,0 +1,26 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.packet.ClientFeature;
+
+/**
+ * 메시지/협상 결과에 맞는 {@link PacketCodec}을 고른다.
+ */
+public final class PacketCodecs {
+
+    private PacketCodecs() {}
+
+    /**
+     * 수신 메시지의 첫 바이트로 코덱을 판별한다.
+     * 협상 여부와 관계없이 두 포맷 모두 수신할 수 있다.
+     */
+    public static PacketCodec forMessage(byte[] message) {
+        return BinaryPacketCodec.matches(message) ? BinaryPacketCodec.INSTANCE : JsonPacketCodec.INSTANCE;
+    }
+
+    /**
+     * 협상된 기능에 따라 송신 코덱을 고른다.
+     */
+    public static PacketCodec forFeatures(int features) {
+        return ClientFeature.BINARY_V1.isIn(features) ? BinaryPacketCodec.INSTANCE : JsonPacketCodec.INSTANCE;
+    }
+}
@@ -0,0 +1,161 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.packet.PacketType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * crown:packet 메시지 압축. ({@link ClientFeature#DEFLATE})
+ *
+ * <pre>
+ * [0xC2]            매직 (JSON '{', 바이너리 0xC1과 구분된다)
+ * [type]            PacketType 1바이트 태그 (압축을 풀지 않고 속도 제한 등에 사용)
+ * [length]          VarInt, 압축 해제 후 크기
+ * [data]            raw DEFLATE (zlib 헤더 없음)
+ * </pre>
+ *
+ * 압축 해제 결과는 JSON 또는 바이너리 패킷이다. (중첩 압축은 허용하지 않는다)
+ * threshold보다 작은 패킷은 압축하지 않으므로 매직 바이트도 붙지 않는다.
+ *
+ * Deflater / Inflater는 스레드마다 하나씩 재사용한다.
+ */
+public final class PacketCompression {
+
+    public static final int MAGIC = 0xC2;
+
+    /** 매직 + 타입 + VarInt(최대 5바이트) */
+    private static final int MAX_HEADER = 7;
+
+    private final int threshold;
+    private final int maxInflatedBytes;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    /**
+     * @param threshold        이 크기(byte) 이상인 패킷만 압축한다
+     * @param level            DEFLATE 압축 레벨 (0~9)
+     * @param maxInflatedBytes 압축 해제 후 허용하는 최대 크기(byte)
+     */
+    public PacketCompression(int threshold, int level, int maxInflatedBytes) {
+        this.threshold = threshold;
+        this.maxInflatedBytes = maxInflatedBytes;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    }
+
+    public static boolean matches(byte[] message) {
+        return message.length > 0 && (message[0] & 0xFF) == MAGIC;
+    }
+
+    /**
+     * 압축을 고려할 최대 원본 크기. 이보다 큰 패킷은 압축해도 보내지 않는다.
+     */
+    public int maxInflatedBytes() {
+        return maxInflatedBytes;
+    }
+
+    /**
+     * threshold 이상이고 압축 결과가 더 작으면 압축한 메시지를, 아니면 원본을 그대로 반환한다.
+     */
+    public byte[] compress(PacketType type, byte[] bytes) {
+        if (bytes.length < threshold || bytes.length < MAX_HEADER || bytes.length > maxInflatedBytes) {
+            return bytes;
+        }
+
+        // 원본보다 커지는 결과는 필요 없으므로 원본 크기만큼만 버퍼를 잡는다.
+        byte[] out = new byte[bytes.length];
+        out[0] = (byte) MAGIC;
+        out[1] = (byte) type.id();
+        int position = writeVarInt(out, 2, bytes.length);
+
+        Deflater deflater = deflaters.get();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            while (!deflater.finished() && position < out.length) {
+                position += deflater.deflate(out, position, out.length - position);
+            }
+            if (!deflater.finished()) {
+                return bytes;
+            }
+        } finally {
+            deflater.reset();
+        }
+        return Arrays.copyOf(out, position);
+    }
+
+    /**
+     * 압축된 메시지를 푼다.
+     *
+     * 헤더의 크기만큼만 버퍼를 만들고 그 이상 풀리는 데이터는 거부하므로
+     * 압축 폭탄으로 메모리를 소모시킬 수 없다.
+     *
+     * @throws IOException 크기 제한 초과, 손상된 데이터, 헤더와 실제 크기 불일치
+     */
+    public byte[] decompress(byte[] message) throws IOException {
+        BinaryReader reader = new BinaryReader(message, 0);
+        if (reader.readByte() != MAGIC) {
+            throw new IOException("Not a compressed packet");
+        }
+        reader.readByte();
+
+        int length = reader.readVarInt();
+        if (length <= 0 || length > maxInflatedBytes) {
+            throw new IOException("Inflated size out of range: " + length);
+        }
+
+        int offset = reader.position();
+        byte[] out = new byte[length];
+        Inflater inflater = inflaters.get();
+        try {
+            inflater.setInput(message, offset, message.length - offset);
+            int written = 0;
+            while (written < length && !inflater.finished()) {
+                int n = inflater.inflate(out, written, length - written);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                written += n;
+            }
+            // 버퍼를 다 채운 뒤에도 풀리는 데이터가 있으면 헤더보다 큰 것이다.
+            if (written == length && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                throw new IOException("Inflated size exceeds header");
+            }
+            if (written != length || !inflater.finished() || inflater.getRemaining() != 0) {
+                throw new IOException("Inflated size mismatch");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed packet", e);
+        } finally {
+            inflater.reset();
+        }
+
+        if (matches(out)) {
+            throw new IOException("Nested compressed packet");
+        }
+        return out;
+    }
+
+    /**
+     * 호출한 스레드의 Deflater / Inflater를 해제한다. (플러그인 비활성화 시)
+     */
+    public void close() {
+        deflaters.get().end();
+        deflaters.remove();
+        inflaters.get().end();
+        inflaters.remove();
+    }
+
+    private static int writeVarInt(byte[] out, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+}
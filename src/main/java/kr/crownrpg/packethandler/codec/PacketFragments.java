@@ -0,0 +1,93 @@
+package kr.crownrpg.packethandler.codec;
+
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.packet.PacketType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 최대 크기를 넘는 메시지의 조각(fragment) 포맷. ({@link ClientFeature#FRAGMENT})
+ *
+ * <pre>
+ * [0xC3]            매직 (JSON '{', 바이너리 0xC1, 압축 0xC2와 구분된다)
+ * [type]            원본 PacketType 1바이트 태그 (조립 전 속도 제한 등에 사용)
+ * [messageId]       VarInt, 보낸 쪽이 메시지마다 정하는 ID
+ * [index]           VarInt, 0부터 시작
+ * [count]           VarInt, 전체 조각 수 (2 이상)
+ * [chunk]           원본 메시지의 일부
+ * </pre>
+ *
+ * 조각을 순서대로 이어 붙인 결과는 JSON, 바이너리 또는 압축 메시지이다. (중첩 조각은 허용하지 않는다)
+ */
+public final class PacketFragments {
+
+    public static final int MAGIC = 0xC3;
+
+    /** 한 메시지의 최대 조각 수 */
+    public static final int MAX_COUNT = 256;
+
+    /** 매직 + 타입 + VarInt 3개(각 최대 5바이트) */
+    private static final int MAX_HEADER = 17;
+
+    private PacketFragments() {}
+
+    public static boolean matches(byte[] message) {
+        return message.length > 0 && (message[0] & 0xFF) == MAGIC;
+    }
+
+    /**
+     * 메시지를 maxBytes 이하의 조각으로 나눈다.
+     */
+    public static List<byte[]> split(PacketType type, int messageId, byte[] message, int maxBytes) {
+        int chunkSize = maxBytes - MAX_HEADER;
+        int count = (message.length + chunkSize - 1) / chunkSize;
+        if (count < 2 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("Invalid fragment count: " + count);
+        }
+
+        List<byte[]> fragments = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            int offset = index * chunkSize;
+            int length = Math.min(chunkSize, message.length - offset);
+
+            BinaryWriter writer = new BinaryWriter(MAX_HEADER + length);
+            writer.writeByte(MAGIC);
+            writer.writeByte(type.id());
+            writer.writeVarInt(messageId);
+            writer.writeVarInt(index);
+            writer.writeVarInt(count);
+            writer.writeBytes(message, offset, length);
+            fragments.add(writer.toByteArray());
+        }
+        return fragments;
+    }
+
+    /**
+     * 조각 헤더를 읽는다.
+     *
+     * @throws IOException 헤더가 잘못되었거나 index / count가 범위를 벗어난 경우
+     */
+    public static Fragment read(byte[] message) throws IOException {
+        BinaryReader reader = new BinaryReader(message, 0);
+        if (reader.readByte() != MAGIC) {
+            throw new IOException("Not a fragment");
+        }
+
+        PacketType type = PacketType.fromId(reader.readByte());
+        int messageId = reader.readVarInt();
+        int index = reader.readVarInt();
+        int count = reader.readVarInt();
+        if (type == null || count < 2 || count > MAX_COUNT || index < 0 || index >= count) {
+            throw new IOException("Invalid fragment header");
+        }
+        return new Fragment(type, messageId, index, count, reader.position());
+    }
+
+    /**
+     * @param offset 조각 데이터가 시작하는 위치
+     */
+    public record Fragment(PacketType type, int messageId, int index, int count, int offset) {
+    }
+}
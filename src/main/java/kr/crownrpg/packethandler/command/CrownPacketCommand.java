@@ -0,0 +1,213 @@
+package kr.crownrpg.packethandler.command;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import kr.crownrpg.packethandler.capture.CaptureReader;
+import kr.crownrpg.packethandler.capture.CaptureReplay;
+import kr.crownrpg.packethandler.capture.PacketCapture;
+import kr.crownrpg.packethandler.metrics.MetricsReporter;
+import kr.crownrpg.packethandler.metrics.PacketMetrics;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * /crownpacket 관리자 명령어.
+ *
+ * - stats: 누적 송수신 지표 출력
+ * - reset: 누적 지표 초기화
+ * - capture: 캡처 상태 출력
+ * - replay &lt;file&gt; [speed|max] [player]: 캡처 파일의 수신 메시지를 다시 처리
+ * - replay stop: 재생 중지
+ */
+public final class CrownPacketCommand implements CommandExecutor, TabCompleter {
+
+    private static final List<String> SUBCOMMANDS = List.of("stats", "reset", "capture", "replay");
+
+    private final CrownScheduler scheduler;
+    private final PacketMetrics metrics;
+    private final PacketCapture capture;
+    private final Path captureDirectory;
+    private final PluginMessageListener listener;
+
+    // 명령어는 Folia에서 실행한 쪽의 region 스레드에서, 재생은 global region에서 실행된다.
+    private volatile CaptureReplay replay;
+    private volatile ScheduledTask replayTask;
+
+    /**
+     * @param capture          캡처를 사용하지 않으면 null
+     * @param captureDirectory 캡처 파일 디렉터리 (replay 대상)
+     * @param listener         replay 메시지를 넣을 수신 리스너
+     */
+    public CrownPacketCommand(
+            CrownScheduler scheduler,
+            PacketMetrics metrics,
+            PacketCapture capture,
+            Path captureDirectory,
+            PluginMessageListener listener
+    ) {
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.capture = capture;
+        this.captureDirectory = captureDirectory.toAbsolutePath().normalize();
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        String sub = args.length == 0 ? "stats" : args[0].toLowerCase();
+
+        switch (sub) {
+            case "stats" -> {
+                sender.sendMessage("[Crown-PacketHandler] crown:packet stats");
+                for (String line : MetricsReporter.lines(metrics.snapshot())) {
+                    sender.sendMessage(line);
+                }
+            }
+            case "reset" -> {
+                metrics.reset();
+                sender.sendMessage("[Crown-PacketHandler] crown:packet stats reset");
+            }
+            case "capture" -> {
+                if (capture == null) {
+                    sender.sendMessage("[Crown-PacketHandler] capture is disabled (capture.enabled)");
+                    return true;
+                }
+                PacketCapture.Stats stats = capture.stats();
+                sender.sendMessage("[Crown-PacketHandler] capture " + capture.path().getFileName()
+                        + " written=" + stats.written()
+                        + " overwritten=" + stats.overwritten()
+                        + " skipped=" + stats.skipped()
+                        + " used=" + stats.usedBytes() / 1024 + "KB/" + stats.capacity() / 1024 + "KB");
+            }
+            case "replay" -> {
+                return replay(sender, args);
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean replay(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            return false;
+        }
+
+        if (args[1].equalsIgnoreCase("stop")) {
+            if (stopReplay()) {
+                sender.sendMessage("[Crown-PacketHandler] replay stopped");
+            }
+            return true;
+        }
+
+        Path file = captureDirectory.resolve(args[1]).normalize();
+        if (!file.startsWith(captureDirectory) || !Files.isRegularFile(file)) {
+            sender.sendMessage("[Crown-PacketHandler] no capture file: " + args[1]);
+            return true;
+        }
+
+        double speed = 1.0;
+        if (args.length >= 3) {
+            if (args[2].equalsIgnoreCase("max")) {
+                speed = Double.POSITIVE_INFINITY;
+            } else {
+                try {
+                    speed = Double.parseDouble(args[2]);
+                } catch (NumberFormatException e) {
+                    speed = 0;
+                }
+                if (!(speed > 0) || Double.isInfinite(speed)) {
+                    sender.sendMessage("[Crown-PacketHandler] invalid speed: " + args[2]);
+                    return true;
+                }
+            }
+        }
+
+        Player target = null;
+        if (args.length >= 4) {
+            target = Bukkit.getPlayerExact(args[3]);
+            if (target == null) {
+                sender.sendMessage("[Crown-PacketHandler] player not online: " + args[3]);
+                return true;
+            }
+        }
+
+        // 파일은 틱 스레드 밖에서 읽고, 재생은 global region(Paper에서는 메인 스레드)에서 한다.
+        double replaySpeed = speed;
+        Player replayTarget = target;
+        scheduler.async(() -> {
+            CaptureReader.Capture loaded;
+            try {
+                loaded = CaptureReader.read(file);
+            } catch (IOException e) {
+                scheduler.global(() -> sender.sendMessage("[Crown-PacketHandler] " + e.getMessage()));
+                return;
+            }
+            scheduler.global(() -> startReplay(sender, loaded, replaySpeed, replayTarget));
+        });
+        return true;
+    }
+
+    private void startReplay(CommandSender sender, CaptureReader.Capture loaded, double speed, Player target) {
+        stopReplay();
+
+        CaptureReplay started = new CaptureReplay(loaded.records(), speed, target, listener);
+        replay = started;
+        replayTask = scheduler.repeat(() -> {
+            started.run();
+            if (started.finished() && replay == started) {
+                CaptureReplay.Stats stats = started.stats();
+                stopReplay();
+                sender.sendMessage("[Crown-PacketHandler] replay finished delivered=" + stats.delivered()
+                        + " skipped=" + stats.skipped());
+            }
+        }, 1L, 1L);
+        sender.sendMessage("[Crown-PacketHandler] replaying " + started.stats().total() + " inbound messages"
+                + (Double.isInfinite(speed) ? " at max speed" : " at x" + speed));
+    }
+
+    /**
+     * @return 재생 중이었으면 true
+     */
+    public boolean stopReplay() {
+        ScheduledTask task = replayTask;
+        if (task == null) {
+            return false;
+        }
+        task.cancel();
+        replayTask = null;
+        replay = null;
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 1) {
+            return SUBCOMMANDS.stream()
+                    .filter(sub -> sub.startsWith(args[0].toLowerCase()))
+                    .toList();
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("replay")) {
+            try (Stream<Path> files = Files.list(captureDirectory)) {
+                return Stream.concat(Stream.of("stop"), files.map(file -> file.getFileName().toString()))
+                        .filter(name -> name.startsWith(args[1]))
+                        .toList();
+            } catch (IOException e) {
+                return List.of("stop");
+            }
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,351 @@
+package kr.crownrpg.packethandler.config;
+
+import kr.crownrpg.packethandler.packet.OutboundPriority;
+import kr.crownrpg.packethandler.packet.PacketType;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * config.yml 설정값.
+ *
+ * 값이 없거나 잘못된 경우 기본값을 사용한다.
+ */
+public record PacketHandlerConfig(
+        Outbound outbound,
+        Inbound inbound,
+        Compression compression,
+        Fragmentation fragmentation,
+        Metrics metrics,
+        Capture capture,
+        Latency latency
+) {
+
+    public static PacketHandlerConfig from(ConfigurationSection root) {
+        return new PacketHandlerConfig(
+                new Outbound(
+                        root.getBoolean("outbound.batching", false),
+                        scheduling(root)
+                ),
+                new Inbound(
+                        new PreviewCoalescing(
+                                root.getBoolean("inbound.preview-coalescing.enabled", false),
+                                Math.max(1, root.getInt("inbound.preview-coalescing.interval-ticks", 1)),
+                                "flush".equalsIgnoreCase(root.getString("inbound.preview-coalescing.on-final", "discard"))
+                        ),
+                        rateLimit(root),
+                        new Ingest(
+                                root.getBoolean("inbound.ingest.enabled", false),
+                                Math.max(1, root.getLong("inbound.ingest.budget-nanos", 2_000_000L)),
+                                Math.max(1, root.getInt("inbound.ingest.queue-capacity", 64))
+                        ),
+                        new Requests(
+                                root.getBoolean("inbound.requests.drop-unknown", false),
+                                Math.max(0, root.getLong("inbound.requests.grace-millis", 2_000L)),
+                                Math.max(1_000L, root.getLong("inbound.requests.default-timeout-millis", 300_000L))
+                        ),
+                        new Symbols(
+                                Math.max(1, Math.min(Symbols.MAX_SIZE, root.getInt("inbound.symbols.max-size", 4096))),
+                                Math.max(0, root.getInt("inbound.symbols.max-dynamic", 512))
+                        ),
+                        new HotkeyState(
+                                root.getBoolean("inbound.hotkey-state.enabled", false)
+                        ),
+                        new InputBatch(
+                                root.getBoolean("inbound.input-batch.enabled", false)
+                        )
+                ),
+                new Compression(
+                        root.getBoolean("compression.enabled", false),
+                        Math.max(64, root.getInt("compression.threshold", 512)),
+                        Math.max(1, Math.min(9, root.getInt("compression.level", 6))),
+                        Math.max(8192, Math.min(Compression.MAX_INFLATED_BYTES,
+                                root.getInt("compression.max-inflated-bytes", 65_536)))
+                ),
+                new Fragmentation(
+                        root.getBoolean("fragmentation.enabled", false),
+                        Math.max(8192, Math.min(Fragmentation.MAX_MESSAGE_BYTES,
+                                root.getInt("fragmentation.max-message-bytes", 65_536))),
+                        Math.max(8192, root.getInt("fragmentation.player-buffer-bytes", 131_072)),
+                        Math.max(8192, root.getLong("fragmentation.global-buffer-bytes", 8_388_608L)),
+                        Math.max(50, root.getLong("fragmentation.timeout-millis", 5_000L))
+                ),
+                new Metrics(
+                        Math.max(0, root.getInt("metrics.log-interval-seconds", 0))
+                ),
+                new Capture(
+                        root.getBoolean("capture.enabled", false),
+                        Math.max(1, Math.min(Capture.MAX_SIZE_MB, root.getInt("capture.size-mb", 16))) * 1024 * 1024
+                ),
+                new Latency(
+                        root.getBoolean("latency.enabled", false),
+                        Math.max(10, root.getInt("latency.ping-interval-ticks", 40))
+                )
+        );
+    }
+
+    private static Scheduling scheduling(ConfigurationSection root) {
+        String path = "outbound.scheduling";
+
+        Map<PacketType, OutboundPriority> priorities = new EnumMap<>(PacketType.class);
+        for (PacketType type : PacketType.values()) {
+            priorities.put(type, OutboundPriority.defaultFor(type));
+        }
+        ConfigurationSection section = root.getConfigurationSection(path + ".priorities");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                try {
+                    PacketType type = PacketType.valueOf(key.toUpperCase(Locale.ROOT));
+                    priorities.put(type, OutboundPriority.valueOf(
+                            section.getString(key, "normal").toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException ignored) {
+                    // 알 수 없는 PacketType / 우선순위는 무시
+                }
+            }
+        }
+
+        int bytesPerTick = Math.max(Scheduling.MIN_BYTES_PER_TICK, root.getInt(path + ".bytes-per-tick", 8192));
+        return new Scheduling(
+                root.getBoolean(path + ".enabled", false),
+                bytesPerTick,
+                Math.max(bytesPerTick, root.getInt(path + ".max-queued-bytes", 65_536)),
+                priorities
+        );
+    }
+
+    private static RateLimit rateLimit(ConfigurationSection root) {
+        String path = "inbound.rate-limit";
+        Bucket fallback = bucket(root, path + ".default", new Bucket(20, 40));
+
+        Map<PacketType, Bucket> types = new EnumMap<>(PacketType.class);
+        ConfigurationSection section = root.getConfigurationSection(path + ".types");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                try {
+                    PacketType type = PacketType.valueOf(key.toUpperCase(Locale.ROOT));
+                    types.put(type, bucket(section, key, fallback));
+                } catch (IllegalArgumentException ignored) {
+                    // 알 수 없는 PacketType은 무시
+                }
+            }
+        }
+
+        EscalationAction action;
+        try {
+            action = EscalationAction.valueOf(root.getString(path + ".escalation.action", "none").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            action = EscalationAction.NONE;
+        }
+
+        return new RateLimit(
+                root.getBoolean(path + ".enabled", false),
+                bucket(root, path + ".total", new Bucket(60, 120)),
+                fallback,
+                types,
+                new Escalation(
+                        action,
+                        Math.max(1, root.getInt(path + ".escalation.after-seconds", 5)),
+                        root.getString(path + ".escalation.kick-message", "Too many packets")
+                )
+        );
+    }
+
+    private static Bucket bucket(ConfigurationSection root, String path, Bucket def) {
+        double rate = root.getDouble(path + ".rate", def.rate());
+        int burst = root.getInt(path + ".burst", def.burst());
+        if (rate <= 0 || burst < 1) {
+            return def;
+        }
+        return new Bucket(Math.min(rate, Bucket.MAX_RATE), Math.min(burst, Bucket.MAX_BURST));
+    }
+
+    /**
+     * @param batching   BATCH 기능을 협상한 클라이언트에게 틱 끝 묶음 전송을 사용할지 여부
+     * @param scheduling 플레이어별 송신 예산 / 우선순위
+     */
+    public record Outbound(boolean batching, Scheduling scheduling) {
+    }
+
+    /**
+     * @param enabled        플레이어별 틱당 송신 예산과 우선순위 대기열 사용 여부
+     * @param bytesPerTick   플레이어별 틱당 송신 예산(byte, 압축 전 크기)
+     * @param maxQueuedBytes 플레이어별 송신 대기열 최대 크기(byte)
+     * @param priorities     PacketType별 우선순위
+     */
+    public record Scheduling(
+            boolean enabled,
+            int bytesPerTick,
+            int maxQueuedBytes,
+            Map<PacketType, OutboundPriority> priorities
+    ) {
+
+        /** 예산이 너무 작으면 작은 패킷도 계속 대기하므로 하한을 둔다. */
+        public static final int MIN_BYTES_PER_TICK = 1024;
+
+        public OutboundPriority priority(PacketType type) {
+            return priorities.getOrDefault(type, OutboundPriority.NORMAL);
+        }
+    }
+
+    /**
+     * @param enabled          DEFLATE 기능을 협상한 클라이언트와 압축을 사용할지 여부
+     * @param threshold        이 크기(byte) 이상인 패킷만 압축
+     * @param level            DEFLATE 압축 레벨 (1~9)
+     * @param maxInflatedBytes 압축 해제 후 허용하는 최대 크기(byte), 송수신 모두 적용
+     */
+    public record Compression(boolean enabled, int threshold, int level, int maxInflatedBytes) {
+
+        /** 압축 해제 버퍼를 헤더 크기만큼 미리 잡으므로 상한을 둔다. */
+        public static final int MAX_INFLATED_BYTES = 1 << 20;
+    }
+
+    /**
+     * @param logIntervalSeconds 송수신 지표를 로그로 남기는 간격(초), 0이면 남기지 않음
+     */
+    public record Metrics(int logIntervalSeconds) {
+    }
+
+    /**
+     * @param enabled   송수신 메시지를 캡처 파일에 기록할지 여부
+     * @param sizeBytes 캡처 파일(링 버퍼) 데이터 영역 크기(byte)
+     */
+    public record Capture(boolean enabled, int sizeBytes) {
+
+        /** 한 번에 매핑할 수 있는 크기 안에서 제한한다. */
+        public static final int MAX_SIZE_MB = 1024;
+    }
+
+    /**
+     * @param enabled           "ping"을 협상한 클라이언트와 PING / PONG으로 지연과 시계 차이를 측정할지 여부
+     * @param pingIntervalTicks PING 간격(틱)
+     */
+    public record Latency(boolean enabled, int pingIntervalTicks) {
+    }
+
+    /**
+     * @param enabled           FRAGMENT 기능을 협상한 클라이언트와 8KB를 넘는 메시지를 조각으로 주고받을지 여부
+     * @param maxMessageBytes   조각으로 주고받는 메시지 하나의 최대 크기(byte)
+     * @param playerBufferBytes 플레이어별 조립 중 버퍼 최대 크기(byte)
+     * @param globalBufferBytes 전체 조립 중 버퍼 최대 크기(byte)
+     * @param timeoutMillis     첫 조각 이후 완성까지 기다리는 시간(ms)
+     */
+    public record Fragmentation(
+            boolean enabled,
+            int maxMessageBytes,
+            int playerBufferBytes,
+            long globalBufferBytes,
+            long timeoutMillis
+    ) {
+
+        /** 조각 수 상한(256)과 조각 크기(8KB)로 나눌 수 있는 범위 안에서 제한한다. */
+        public static final int MAX_MESSAGE_BYTES = 1 << 20;
+    }
+
+    public record Inbound(
+            PreviewCoalescing previewCoalescing,
+            RateLimit rateLimit,
+            Ingest ingest,
+            Requests requests,
+            Symbols symbols,
+            HotkeyState hotkeyState,
+            InputBatch inputBatch
+    ) {
+    }
+
+    /**
+     * @param enabled 플레이어별 HOTKEY 눌림 상태 추적 및 반복 입력 억제 사용 여부
+     */
+    public record HotkeyState(boolean enabled) {
+    }
+
+    /**
+     * @param enabled HOTKEY / UI_ACTION 입력을 틱마다 묶음 이벤트 하나로도 발행할지 여부
+     */
+    public record InputBatch(boolean enabled) {
+    }
+
+    /**
+     * @param maxSize    심볼 테이블 최대 크기 (ID 범위 1 ~ maxSize)
+     * @param maxDynamic 등록되지 않은 입력값을 자동 등록할 최대 개수 (ID 범위 밖, ID는 UNKNOWN)
+     */
+    public record Symbols(int maxSize, int maxDynamic) {
+
+        /** ID를 배열 인덱스로 쓰므로 크기를 제한한다. */
+        public static final int MAX_SIZE = 65_535;
+    }
+
+    /**
+     * @param enabled       TEXT_INPUT_PREVIEW 병합 사용 여부
+     * @param intervalTicks 같은 requestId의 미리보기 이벤트 최소 간격(틱)
+     * @param flushOnFinal  TEXT_INPUT 도착 시 대기 중인 미리보기를 먼저 발행할지(true), 버릴지(false)
+     */
+    public record PreviewCoalescing(boolean enabled, int intervalTicks, boolean flushOnFinal) {
+    }
+
+    /**
+     * @param dropUnknown          서버가 열지 않았거나 이미 끝난 requestId의 응답을 버릴지 여부
+     * @param graceMillis          클라이언트 타임아웃 이후 서버가 응답을 더 기다리는 시간(ms)
+     * @param defaultTimeoutMillis 타임아웃 없는 future 방식 요청을 서버가 기다리는 시간(ms)
+     */
+    public record Requests(boolean dropUnknown, long graceMillis, long defaultTimeoutMillis) {
+    }
+
+    /**
+     * @param enabled       수신 큐 사용 여부 (false면 수신 즉시 처리)
+     * @param budgetNanos   틱당 디코딩 및 이벤트 발행에 쓸 시간 예산(ns)
+     * @param queueCapacity 플레이어별 큐 최대 길이
+     */
+    public record Ingest(boolean enabled, long budgetNanos, int queueCapacity) {
+    }
+
+    /**
+     * @param enabled    디코딩 전 속도 제한 사용 여부
+     * @param total      모든 패킷 합산 버킷
+     * @param fallback   types에 없거나 판별할 수 없는 PacketType의 버킷
+     * @param types      PacketType별 버킷
+     * @param escalation 제한 초과가 계속될 때의 조치
+     */
+    public record RateLimit(
+            boolean enabled,
+            Bucket total,
+            Bucket fallback,
+            Map<PacketType, Bucket> types,
+            Escalation escalation
+    ) {
+        public Bucket bucket(PacketType type) {
+            return types.getOrDefault(type, fallback);
+        }
+    }
+
+    /**
+     * @param rate  초당 충전되는 토큰 수
+     * @param burst 버킷 최대 용량 (연속으로 허용하는 패킷 수)
+     */
+    public record Bucket(double rate, int burst) {
+
+        /** 버킷 상태를 long 하나에 담기 위한 상한. */
+        public static final int MAX_BURST = 1_000_000;
+
+        /** 초당 충전량 상한. */
+        public static final double MAX_RATE = 1_000_000;
+    }
+
+    /**
+     * @param action       조치
+     * @param afterSeconds 제한 초과가 이 시간(초) 이상 이어지면 조치한다
+     * @param kickMessage  kick 시 메시지
+     */
+    public record Escalation(EscalationAction action, int afterSeconds, String kickMessage) {
+    }
+
+    public enum EscalationAction {
+        /** 초과 패킷을 버리기만 한다. */
+        NONE,
+        /** CrownPlayerPacketFloodEvent를 발행한다. */
+        FLAG,
+        /** CrownPlayerPacketFloodEvent를 발행하고, 취소되지 않으면 퇴장시킨다. */
+        KICK
+    }
+}
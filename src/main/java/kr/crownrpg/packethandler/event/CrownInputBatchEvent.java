@@ -0,0 +1,126 @@
+package kr.crownrpg.packethandler.event;
+
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * 한 틱 동안 수신한 HOTKEY / UI_ACTION 입력을 모아 틱마다 한 번 발생하는 이벤트. (opt-in)
+ *
+ * 입력마다 이벤트를 발행하는 대신, 모든 플레이어의 입력을 원시 배열로 담아
+ * 리스너가 반복문 하나로 처리할 수 있게 한다.
+ * 입력별 이벤트({@link CrownPlayerHotkeyEvent}, {@link CrownPlayerUiActionEvent})는 그대로 발행된다.
+ *
+ * 배열의 i번째 원소가 i번째 입력이며(수신 순서), 유효한 범위는 {@code 0 ~ size() - 1}이다.
+ * 배열은 다음 틱에 재사용되므로 이벤트 처리 중에만 읽고, 보관하려면 복사해야 한다.
+ *
+ * <pre>{@code
+ * int[] players = event.getPlayerIndexes();
+ * int[] actions = event.getActionIds();
+ * boolean[] pressed = event.getPressed();
+ * for (int i = 0; i < event.size(); i++) {
+ *     if (actions[i] == SKILL_1 && pressed[i]) cast(event.getPlayer(players[i]));
+ * }
+ * }</pre>
+ */
+public final class CrownInputBatchEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final int size;
+    private final Player[] players;
+    private final int playerCount;
+    private final int[] playerIndexes;
+    private final byte[] types;
+    private final int[] actionIds;
+    private final int[] uiIds;
+    private final boolean[] pressed;
+    private final long[] timestamps;
+
+    public CrownInputBatchEvent(
+            int size,
+            Player[] players,
+            int playerCount,
+            int[] playerIndexes,
+            byte[] types,
+            int[] actionIds,
+            int[] uiIds,
+            boolean[] pressed,
+            long[] timestamps
+    ) {
+        this.size = size;
+        this.players = players;
+        this.playerCount = playerCount;
+        this.playerIndexes = playerIndexes;
+        this.types = types;
+        this.actionIds = actionIds;
+        this.uiIds = uiIds;
+        this.pressed = pressed;
+        this.timestamps = timestamps;
+    }
+
+    /** 입력 수 */
+    public int size() {
+        return size;
+    }
+
+    /** 이번 틱에 입력을 보낸 플레이어 수 */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * {@link #getPlayerIndexes()}의 값으로 플레이어를 찾는다.
+     */
+    public Player getPlayer(int playerIndex) {
+        return players[playerIndex];
+    }
+
+    /** 입력별 플레이어 인덱스 ({@link #getPlayer(int)}) */
+    public int[] getPlayerIndexes() {
+        return playerIndexes;
+    }
+
+    /** 입력별 {@link PacketType#id()} (HOTKEY / UI_ACTION) */
+    public byte[] getTypes() {
+        return types;
+    }
+
+    /** 입력별 action 심볼 ID. 등록되지 않은 값이면 {@link SymbolTable#UNKNOWN}. */
+    public int[] getActionIds() {
+        return actionIds;
+    }
+
+    /** 입력별 ui 심볼 ID. HOTKEY이거나 등록되지 않은 값이면 {@link SymbolTable#UNKNOWN}. */
+    public int[] getUiIds() {
+        return uiIds;
+    }
+
+    /** 입력별 눌림 여부. UI_ACTION은 항상 true. */
+    public boolean[] getPressed() {
+        return pressed;
+    }
+
+    /** 입력별 수신 시각 ({@link System#nanoTime()}). 수신 큐에서 기다린 시간은 포함하지 않는다. (조각 메시지는 마지막 조각) */
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * i번째 입력의 PacketType.
+     */
+    public PacketType getType(int index) {
+        return PacketType.fromId(types[index] & 0xFF);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
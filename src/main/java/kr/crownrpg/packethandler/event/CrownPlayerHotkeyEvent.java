@@ -1,6 +1,7 @@
 package kr.crownrpg.packethandler.event;
 
 import kr.crownrpg.lib.event.input.CrownPlayerInputEvent;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
 
@@ -18,16 +19,35 @@ public final class CrownPlayerHotkeyEvent extends CrownPlayerInputEvent {
     private final boolean pressed;
     private final String context;
 
+    /**
+     * action / context의 심볼 ID. 등록되지 않은 값이면 {@link SymbolTable#UNKNOWN}.
+     */
+    private final int actionId;
+    private final int contextId;
+
     public CrownPlayerHotkeyEvent(
             Player player,
             String action,
             boolean pressed,
             String context
+    ) {
+        this(player, action, SymbolTable.UNKNOWN, pressed, context, SymbolTable.UNKNOWN);
+    }
+
+    public CrownPlayerHotkeyEvent(
+            Player player,
+            String action,
+            int actionId,
+            boolean pressed,
+            String context,
+            int contextId
     ) {
         super(player);
         this.action = action;
+        this.actionId = actionId;
         this.pressed = pressed;
         this.context = context;
+        this.contextId = contextId;
     }
 
     public String getAction() {
@@ -42,6 +62,14 @@ public final class CrownPlayerHotkeyEvent extends CrownPlayerInputEvent {
         return context;
     }
 
+    public int getActionId() {
+        return actionId;
+    }
+
+    public int getContextId() {
+        return contextId;
+    }
+
     @Override
     public HandlerList getHandlers() {
         return HANDLERS;
@@ -0,0 +1,78 @@
+package kr.crownrpg.packethandler.event;
+
+import kr.crownrpg.packethandler.packet.PacketType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * 플레이어가 패킷 속도 제한을 일정 시간 이상 계속 초과했을 때 발생하는 이벤트.
+ *
+ * 입력 이벤트가 아니라 관리용 이벤트이다.
+ * 설정된 조치가 kick인 경우, 이 이벤트를 취소하면 퇴장시키지 않는다.
+ */
+public final class CrownPlayerPacketFloodEvent extends PlayerEvent implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    /**
+     * 마지막으로 제한에 걸린 PacketType. 판별할 수 없었으면 null.
+     */
+    private final PacketType type;
+
+    /**
+     * 제한 초과가 이어진 시간(ms).
+     */
+    private final long durationMillis;
+
+    /**
+     * 초과가 이어지는 동안 거부된 패킷 수.
+     */
+    private final long rejected;
+
+    private boolean cancelled;
+
+    public CrownPlayerPacketFloodEvent(
+            Player player,
+            PacketType type,
+            long durationMillis,
+            long rejected
+    ) {
+        super(player);
+        this.type = type;
+        this.durationMillis = durationMillis;
+        this.rejected = rejected;
+    }
+
+    public PacketType getType() {
+        return type;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -1,6 +1,7 @@
 package kr.crownrpg.packethandler.event;
 
 import kr.crownrpg.lib.event.input.CrownPlayerInputEvent;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
 
@@ -54,16 +55,33 @@ public final class CrownPlayerTextInputEvent extends CrownPlayerInputEvent {
      */
     private final boolean confirmed;
 
+    /**
+     * context의 심볼 ID. 등록되지 않은 값이면 {@link SymbolTable#UNKNOWN}.
+     */
+    private final int contextId;
+
+    public CrownPlayerTextInputEvent(
+            Player player,
+            String requestId,
+            String context,
+            String text,
+            boolean confirmed
+    ) {
+        this(player, requestId, context, SymbolTable.UNKNOWN, text, confirmed);
+    }
+
     public CrownPlayerTextInputEvent(
             Player player,
             String requestId,
             String context,
+            int contextId,
             String text,
             boolean confirmed
     ) {
         super(player);
         this.requestId = requestId;
         this.context = context;
+        this.contextId = contextId;
         this.text = text;
         this.confirmed = confirmed;
     }
@@ -84,6 +102,10 @@ public final class CrownPlayerTextInputEvent extends CrownPlayerInputEvent {
         return confirmed;
     }
 
+    public int getContextId() {
+        return contextId;
+    }
+
     @Override
     public HandlerList getHandlers() {
         return HANDLERS;
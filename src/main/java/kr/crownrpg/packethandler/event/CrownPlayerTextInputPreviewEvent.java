@@ -1,6 +1,7 @@
 package kr.crownrpg.packethandler.event;
 
 import kr.crownrpg.lib.event.input.CrownPlayerInputEvent;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
 
@@ -19,15 +20,31 @@ public final class CrownPlayerTextInputPreviewEvent extends CrownPlayerInputEven
     private final String context;
     private final String text;
 
+    /**
+     * context의 심볼 ID. 등록되지 않은 값이면 {@link SymbolTable#UNKNOWN}.
+     */
+    private final int contextId;
+
     public CrownPlayerTextInputPreviewEvent(
             Player player,
             String requestId,
             String context,
             String text
+    ) {
+        this(player, requestId, context, SymbolTable.UNKNOWN, text);
+    }
+
+    public CrownPlayerTextInputPreviewEvent(
+            Player player,
+            String requestId,
+            String context,
+            int contextId,
+            String text
     ) {
         super(player);
         this.requestId = requestId;
         this.context = context;
+        this.contextId = contextId;
         this.text = text;
     }
 
@@ -43,6 +60,10 @@ public final class CrownPlayerTextInputPreviewEvent extends CrownPlayerInputEven
         return text;
     }
 
+    public int getContextId() {
+        return contextId;
+    }
+
     @Override
     public HandlerList getHandlers() {
         return HANDLERS;
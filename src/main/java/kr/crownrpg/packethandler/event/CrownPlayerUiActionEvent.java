@@ -1,6 +1,7 @@
 package kr.crownrpg.packethandler.event;
 
 import kr.crownrpg.lib.event.input.CrownPlayerInputEvent;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
 
@@ -47,16 +48,35 @@ public final class CrownPlayerUiActionEvent extends CrownPlayerInputEvent {
      */
     private final String action;
 
+    /**
+     * ui / action의 심볼 ID. 등록되지 않은 값이면 {@link SymbolTable#UNKNOWN}.
+     */
+    private final int uiId;
+    private final int actionId;
+
     public CrownPlayerUiActionEvent(
             Player player,
             String requestId,
             String ui,
             String action
+    ) {
+        this(player, requestId, ui, SymbolTable.UNKNOWN, action, SymbolTable.UNKNOWN);
+    }
+
+    public CrownPlayerUiActionEvent(
+            Player player,
+            String requestId,
+            String ui,
+            int uiId,
+            String action,
+            int actionId
     ) {
         super(player);
         this.requestId = requestId;
         this.ui = ui;
+        this.uiId = uiId;
         this.action = action;
+        this.actionId = actionId;
     }
 
     public String getRequestId() {
@@ -71,6 +91,14 @@ public final class CrownPlayerUiActionEvent extends CrownPlayerInputEvent {
         return action;
     }
 
+    public int getUiId() {
+        return uiId;
+    }
+
+    public int getActionId() {
+        return actionId;
+    }
+
     @Override
     public HandlerList getHandlers() {
         return HANDLERS;
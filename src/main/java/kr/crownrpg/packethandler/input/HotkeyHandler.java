@@ -0,0 +1,12 @@
+package kr.crownrpg.packethandler.input;
+
+import org.bukkit.entity.Player;
+
+/**
+ * action별 HOTKEY 구독 핸들러. {@link InputRouter#subscribeHotkey}로 등록한다.
+ */
+@FunctionalInterface
+public interface HotkeyHandler {
+
+    void onHotkey(Player player, String action, boolean pressed, String context);
+}
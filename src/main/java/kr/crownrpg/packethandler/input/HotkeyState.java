@@ -0,0 +1,205 @@
+package kr.crownrpg.packethandler.input;
+
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 플레이어별로 눌려 있는 HOTKEY action을 추적한다. (opt-in)
+ *
+ * action의 심볼 ID({@link SymbolTable})를 비트 인덱스로 쓰는 bitset과 눌린 시각 배열을 플레이어마다 둔다.
+ * - 이미 눌린 action의 press, 눌려 있지 않은 action의 release는 전달 전에 버린다. (OS 키 반복 억제)
+ * - {@link #isHeld} / {@link #heldSince}는 할당 없이 조회한다.
+ * - 퇴장 / 월드 이동 시 눌려 있던 action을 모두 떼고, 각각 release 입력을 전달한다.
+ *
+ * 심볼 ID가 없는 action({@link SymbolTable#UNKNOWN})은 추적하지 않고 그대로 전달한다.
+ *
+ * 스레드:
+ * - {@link #apply} / {@link #releaseAll}은 플레이어를 소유한 스레드(Paper에서는 메인 스레드)에서 호출된다.
+ * - {@link #isHeld} / {@link #heldSince}는 어느 스레드에서든 호출할 수 있다. (Folia의 다른 region 등)
+ *   플레이어별 상태는 그 상태 객체로 동기화하므로, 조회는 항상 bitset과 시각이 맞는 상태를 본다.
+ */
+public final class HotkeyState implements Listener {
+
+    private final InputRouter router;
+    private final SymbolTable symbols;
+    private final Map<UUID, Held> players = new ConcurrentHashMap<>();
+
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder released = new LongAdder();
+
+    public HotkeyState(InputRouter router, SymbolTable symbols) {
+        this.router = router;
+        this.symbols = symbols;
+    }
+
+    /**
+     * HOTKEY 입력을 상태에 반영한다.
+     *
+     * @return 전달해야 하면 true, 상태가 바뀌지 않는 반복 입력이면 false
+     */
+    public boolean apply(Player player, String action, boolean pressed) {
+        int id = symbols.id(action);
+        if (id == SymbolTable.UNKNOWN) {
+            return true;
+        }
+
+        Held held = pressed
+                ? players.computeIfAbsent(player.getUniqueId(), key -> new Held())
+                : players.get(player.getUniqueId());
+        if (held != null && held.set(id, pressed, System.currentTimeMillis())) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * action이 눌려 있는지 확인한다.
+     */
+    public boolean isHeld(Player player, String action) {
+        return isHeld(player, symbols.id(action));
+    }
+
+    /**
+     * 심볼 ID의 action이 눌려 있는지 확인한다.
+     */
+    public boolean isHeld(Player player, int actionId) {
+        Held held = players.get(player.getUniqueId());
+        return held != null && held.isSet(actionId);
+    }
+
+    /**
+     * action이 눌린 시각(epoch ms)을 반환한다.
+     *
+     * @return 눌려 있지 않으면 -1
+     */
+    public long heldSince(Player player, String action) {
+        return heldSince(player, symbols.id(action));
+    }
+
+    /**
+     * 심볼 ID의 action이 눌린 시각(epoch ms)을 반환한다.
+     *
+     * @return 눌려 있지 않으면 -1
+     */
+    public long heldSince(Player player, int actionId) {
+        Held held = players.get(player.getUniqueId());
+        return held == null ? -1 : held.since(actionId);
+    }
+
+    /**
+     * 눌려 있는 action을 모두 떼고, 각각 release 입력을 전달한다.
+     */
+    public void releaseAll(Player player) {
+        // 상태를 먼저 지워서 전달 중 재진입해도 같은 키를 두 번 떼지 않는다.
+        Held held = players.remove(player.getUniqueId());
+        if (held == null) {
+            return;
+        }
+
+        long[] bits = held.snapshot();
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+
+                String action = symbols.name(id);
+                if (action == null) continue;
+                released.increment();
+                try {
+                    router.hotkey(player, action, false, null);
+                } catch (Exception ignored) {
+                    // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+                }
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        releaseAll(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        releaseAll(event.getPlayer());
+    }
+
+    public Stats stats() {
+        return new Stats(suppressed.sum(), released.sum(), players.size());
+    }
+
+    /**
+     * HOTKEY 상태 추적 통계.
+     *
+     * @param suppressed 반복 입력으로 버려진 수
+     * @param released   퇴장 / 월드 이동으로 자동 release된 수
+     * @param tracked    현재 상태를 가진 플레이어 수
+     */
+    public record Stats(long suppressed, long released, int tracked) {
+    }
+
+    /**
+     * 심볼 ID → 눌림 여부(bitset)와 눌린 시각. 가장 큰 ID에 맞춰 늘어난다.
+     * 두 배열은 함께 늘어나므로 모든 접근을 this로 동기화한다.
+     */
+    private static final class Held {
+        private long[] bits = new long[1];
+        private long[] since = new long[64];
+
+        synchronized boolean isSet(int id) {
+            return isSetLocked(id);
+        }
+
+        /**
+         * @return 눌려 있지 않으면 -1
+         */
+        synchronized long since(int id) {
+            return isSetLocked(id) ? since[id] : -1;
+        }
+
+        synchronized long[] snapshot() {
+            return bits.clone();
+        }
+
+        private boolean isSetLocked(int id) {
+            int word = id >>> 6;
+            return id > 0 && word < bits.length && (bits[word] & (1L << id)) != 0;
+        }
+
+        /**
+         * @return 상태가 바뀌었으면 true
+         */
+        synchronized boolean set(int id, boolean pressed, long now) {
+            if (isSetLocked(id) == pressed) {
+                return false;
+            }
+
+            int word = id >>> 6;
+            if (pressed) {
+                if (word >= bits.length) {
+                    int words = Math.max(word + 1, bits.length * 2);
+                    bits = Arrays.copyOf(bits, words);
+                    since = Arrays.copyOf(since, words << 6);
+                }
+                bits[word] |= 1L << id;
+                since[id] = now;
+            } else {
+                bits[word] &= ~(1L << id);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package kr.crownrpg.packethandler.input;
+
+import kr.crownrpg.packethandler.event.CrownInputBatchEvent;
+import kr.crownrpg.packethandler.packet.PacketType;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HOTKEY / UI_ACTION 입력을 모아 틱마다 {@link CrownInputBatchEvent} 하나로 발행한다. (opt-in)
+ *
+ * 입력은 {@link InputRouter}가 전달할 때 원시 배열에 추가되며, 배열은 두 벌을 번갈아 재사용한다.
+ * 입력 시각은 전달 시각이 아니라 리스너가 메시지를 받은 시각이다. (수신 큐 / 스레드 이동 대기 제외)
+ * 이벤트에 리스너가 없으면 아무것도 모으지 않는다.
+ * 한 틱에 {@link #MAX_INPUTS}개를 넘는 입력은 묶음에서 빠진다. (입력별 이벤트는 그대로 발행)
+ *
+ * {@link #run()}은 매 틱 실행되어야 한다.
+ * 입력은 여러 스레드(Folia의 region 스레드)에서 동시에 추가될 수 있으므로 배열 추가와 교체는 잠금 안에서 한다.
+ * Folia에서 묶음 이벤트는 global region 스레드에서 발행되며, 담긴 플레이어는 다른 region에 속할 수 있다.
+ */
+public final class InputBatcher implements Runnable, Listener {
+
+    /** 한 틱에 묶는 최대 입력 수 */
+    public static final int MAX_INPUTS = 65_536;
+
+    private static final byte HOTKEY = (byte) PacketType.HOTKEY.id();
+    private static final byte UI_ACTION = (byte) PacketType.UI_ACTION.id();
+
+    /** 플레이어별 이번 틱 인덱스. 틱마다 다시 배정한다. */
+    private final Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder inputs = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    /** 채우는 중인 배열과 발행 중인 배열을 번갈아 쓴다. (리스너 안에서 전달된 입력은 다음 묶음) */
+    private Buffer filling = new Buffer();
+    private Buffer spare = new Buffer();
+    private long tick;
+
+    /**
+     * 묶음 이벤트를 받을 리스너가 있는지 확인한다.
+     */
+    public boolean wants() {
+        return CrownInputBatchEvent.getHandlerList().getRegisteredListeners().length > 0;
+    }
+
+    void hotkey(Player player, int actionId, boolean pressed, long receivedNanos) {
+        add(player, HOTKEY, actionId, 0, pressed, receivedNanos);
+    }
+
+    void uiAction(Player player, int uiId, int actionId, long receivedNanos) {
+        add(player, UI_ACTION, actionId, uiId, true, receivedNanos);
+    }
+
+    private synchronized void add(Player player, byte type, int actionId, int uiId, boolean pressed, long receivedNanos) {
+        if (!wants()) {
+            return;
+        }
+
+        Buffer buffer = filling;
+        if (buffer.size == MAX_INPUTS) {
+            overflowed.increment();
+            return;
+        }
+        if (buffer.size == buffer.types.length) {
+            buffer.grow();
+        }
+
+        int index = buffer.size++;
+        buffer.playerIndexes[index] = playerIndex(buffer, player);
+        buffer.types[index] = type;
+        buffer.actionIds[index] = actionId;
+        buffer.uiIds[index] = uiId;
+        buffer.pressed[index] = pressed;
+        buffer.timestamps[index] = receivedNanos;
+    }
+
+    private int playerIndex(Buffer buffer, Player player) {
+        Slot slot = slots.computeIfAbsent(player.getUniqueId(), key -> new Slot());
+        if (slot.tick != tick) {
+            slot.tick = tick;
+            slot.index = buffer.playerCount;
+            if (buffer.playerCount == buffer.players.length) {
+                buffer.players = Arrays.copyOf(buffer.players, buffer.playerCount * 2);
+            }
+            buffer.players[buffer.playerCount++] = player;
+        }
+        return slot.index;
+    }
+
+    @Override
+    public void run() {
+        Buffer batch;
+        synchronized (this) {
+            batch = filling;
+            filling = spare;
+            spare = batch;
+            tick++;
+        }
+
+        if (batch.size == 0) {
+            return;
+        }
+
+        fired.increment();
+        inputs.add(batch.size);
+        try {
+            Bukkit.getPluginManager().callEvent(new CrownInputBatchEvent(
+                    batch.size, batch.players, batch.playerCount, batch.playerIndexes,
+                    batch.types, batch.actionIds, batch.uiIds, batch.pressed, batch.timestamps));
+        } catch (Exception ignored) {
+            // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+        } finally {
+            // Player 참조를 틱 너머로 붙잡지 않는다.
+            Arrays.fill(batch.players, 0, batch.playerCount, null);
+            batch.size = 0;
+            batch.playerCount = 0;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        slots.remove(event.getPlayer().getUniqueId());
+    }
+
+    public Stats stats() {
+        return new Stats(fired.sum(), inputs.sum(), overflowed.sum());
+    }
+
+    /**
+     * 입력 묶음 통계.
+     *
+     * @param fired      발행된 묶음 이벤트 수
+     * @param inputs     묶음에 담긴 입력 수
+     * @param overflowed 틱당 최대 입력 수를 넘어 묶음에서 빠진 입력 수
+     */
+    public record Stats(long fired, long inputs, long overflowed) {
+    }
+
+    private static final class Buffer {
+        int size;
+        int playerCount;
+        Player[] players = new Player[16];
+        int[] playerIndexes = new int[64];
+        byte[] types = new byte[64];
+        int[] actionIds = new int[64];
+        int[] uiIds = new int[64];
+        boolean[] pressed = new boolean[64];
+        long[] timestamps = new long[64];
+
+        void grow() {
+            int capacity = Math.min(types.length * 2, MAX_INPUTS);
+            playerIndexes = Arrays.copyOf(playerIndexes, capacity);
+            types = Arrays.copyOf(types, capacity);
+            actionIds = Arrays.copyOf(actionIds, capacity);
+            uiIds = Arrays.copyOf(uiIds, capacity);
+            pressed = Arrays.copyOf(pressed, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+    }
+
+    private static final class Slot {
+        long tick = -1;
+        int index;
+    }
+}
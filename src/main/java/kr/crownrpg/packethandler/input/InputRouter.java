@@ -0,0 +1,315 @@
+package kr.crownrpg.packethandler.input;
+
+import kr.crownrpg.packethandler.event.CrownPlayerHotkeyEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerTextInputEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerTextInputPreviewEvent;
+import kr.crownrpg.packethandler.event.CrownPlayerUiActionEvent;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 입력 패킷을 구독 핸들러와 Bukkit Event로 전달한다.
+ *
+ * Bukkit Event는 모든 리스너가 모든 입력을 받지만, 구독은 키로 해시 조회하여
+ * 해당 키를 구독한 핸들러만 호출한다.
+ * - HOTKEY: action
+ * - TEXT_INPUT_PREVIEW / TEXT_INPUT: context
+ * - UI_ACTION: ui
+ *
+ * 구독 핸들러가 먼저 호출되고, 해당 이벤트에 리스너가 있을 때만 이벤트를 만들어 발행한다.
+ * 구독은 소유 플러그인이 비활성화되면 자동으로 해제된다.
+ * 이벤트의 action / ui / context ID는 {@link SymbolTable}에서 조회한다.
+ *
+ * {@link InputBatcher}를 넘기면 HOTKEY / UI_ACTION 입력을 틱 단위 묶음 이벤트에도 추가한다.
+ * {@link CrownScheduler}를 넘기면 플레이어를 소유하지 않은 스레드(Folia의 global region 등)에서 온 입력은
+ * 플레이어를 소유한 스레드로 넘겨 전달한다.
+ */
+public final class InputRouter implements Listener {
+
+    private final Logger logger;
+    private final SymbolTable symbols;
+    private final InputBatcher batcher;
+    private final CrownScheduler scheduler;
+
+    private final Table<HotkeyHandler> hotkeys = new Table<>();
+    private final Table<TextInputPreviewHandler> previews = new Table<>();
+    private final Table<TextInputHandler> textInputs = new Table<>();
+    private final Table<UiActionHandler> uiActions = new Table<>();
+
+    public InputRouter(Logger logger, SymbolTable symbols) {
+        this(logger, symbols, null, null);
+    }
+
+    public InputRouter(Logger logger, SymbolTable symbols, InputBatcher batcher) {
+        this(logger, symbols, batcher, null);
+    }
+
+    /**
+     * @param batcher   틱 단위 입력 묶음을 사용하지 않으면 null
+     * @param scheduler 스레드를 옮기지 않으면 null (호출한 스레드에서 바로 전달)
+     */
+    public InputRouter(Logger logger, SymbolTable symbols, InputBatcher batcher, CrownScheduler scheduler) {
+        this.logger = logger;
+        this.symbols = symbols;
+        this.batcher = batcher;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 특정 action의 HOTKEY 입력을 구독한다.
+     */
+    public Subscription subscribeHotkey(Plugin owner, String action, HotkeyHandler handler) {
+        return hotkeys.add(owner, action, handler);
+    }
+
+    /**
+     * 특정 context의 TEXT_INPUT_PREVIEW 입력을 구독한다.
+     */
+    public Subscription subscribeTextInputPreview(Plugin owner, String context, TextInputPreviewHandler handler) {
+        return previews.add(owner, context, handler);
+    }
+
+    /**
+     * 특정 context의 TEXT_INPUT 입력을 구독한다.
+     */
+    public Subscription subscribeTextInput(Plugin owner, String context, TextInputHandler handler) {
+        return textInputs.add(owner, context, handler);
+    }
+
+    /**
+     * 특정 ui의 UI_ACTION 입력을 구독한다.
+     */
+    public Subscription subscribeUiAction(Plugin owner, String ui, UiActionHandler handler) {
+        return uiActions.add(owner, ui, handler);
+    }
+
+    /**
+     * 이 PacketType의 입력을 받을 곳(이벤트 리스너 또는 구독자)이 있는지 확인한다.
+     *
+     * false면 디코딩과 이벤트 생성을 건너뛰어도 된다.
+     */
+    public boolean wants(PacketType type) {
+        return switch (type) {
+            case HOTKEY -> hotkeys.count() > 0
+                    || hasListeners(CrownPlayerHotkeyEvent.getHandlerList())
+                    || batched();
+            case TEXT_INPUT_PREVIEW -> previews.count() > 0
+                    || hasListeners(CrownPlayerTextInputPreviewEvent.getHandlerList());
+            case TEXT_INPUT -> textInputs.count() > 0
+                    || hasListeners(CrownPlayerTextInputEvent.getHandlerList());
+            case UI_ACTION -> uiActions.count() > 0
+                    || hasListeners(CrownPlayerUiActionEvent.getHandlerList())
+                    || batched();
+            default -> true;
+        };
+    }
+
+    public void hotkey(Player player, String action, boolean pressed, String context) {
+        hotkey(player, action, pressed, context, System.nanoTime());
+    }
+
+    /**
+     * @param receivedNanos 입력을 받은 시각 ({@link System#nanoTime()}), 묶음 이벤트의 시각으로 쓴다.
+     */
+    public void hotkey(Player player, String action, boolean pressed, String context, long receivedNanos) {
+        if (scheduler != null && !scheduler.owns(player)) {
+            scheduler.later(player, () -> hotkey(player, action, pressed, context, receivedNanos));
+            return;
+        }
+
+        for (Entry<HotkeyHandler> entry : hotkeys.get(action)) {
+            try {
+                entry.handler().onHotkey(player, action, pressed, context);
+            } catch (Throwable t) {
+                failed(entry, t);
+            }
+        }
+
+        if (batcher != null) {
+            batcher.hotkey(player, symbols.id(action), pressed, receivedNanos);
+        }
+
+        if (hasListeners(CrownPlayerHotkeyEvent.getHandlerList())) {
+            Bukkit.getPluginManager().callEvent(
+                    new CrownPlayerHotkeyEvent(
+                            player, action, symbols.id(action), pressed, context, symbols.id(context))
+            );
+        }
+    }
+
+    public void textInputPreview(Player player, String requestId, String context, String text) {
+        if (scheduler != null && !scheduler.owns(player)) {
+            scheduler.later(player, () -> textInputPreview(player, requestId, context, text));
+            return;
+        }
+
+        for (Entry<TextInputPreviewHandler> entry : previews.get(context)) {
+            try {
+                entry.handler().onTextInputPreview(player, requestId, context, text);
+            } catch (Throwable t) {
+                failed(entry, t);
+            }
+        }
+
+        if (hasListeners(CrownPlayerTextInputPreviewEvent.getHandlerList())) {
+            Bukkit.getPluginManager().callEvent(
+                    new CrownPlayerTextInputPreviewEvent(player, requestId, context, symbols.id(context), text)
+            );
+        }
+    }
+
+    public void textInput(Player player, String requestId, String context, String text, boolean confirmed) {
+        if (scheduler != null && !scheduler.owns(player)) {
+            scheduler.later(player, () -> textInput(player, requestId, context, text, confirmed));
+            return;
+        }
+
+        for (Entry<TextInputHandler> entry : textInputs.get(context)) {
+            try {
+                entry.handler().onTextInput(player, requestId, context, text, confirmed);
+            } catch (Throwable t) {
+                failed(entry, t);
+            }
+        }
+
+        if (hasListeners(CrownPlayerTextInputEvent.getHandlerList())) {
+            Bukkit.getPluginManager().callEvent(
+                    new CrownPlayerTextInputEvent(player, requestId, context, symbols.id(context), text, confirmed)
+            );
+        }
+    }
+
+    public void uiAction(Player player, String requestId, String ui, String action) {
+        uiAction(player, requestId, ui, action, System.nanoTime());
+    }
+
+    /**
+     * @param receivedNanos 입력을 받은 시각 ({@link System#nanoTime()}), 묶음 이벤트의 시각으로 쓴다.
+     */
+    public void uiAction(Player player, String requestId, String ui, String action, long receivedNanos) {
+        if (scheduler != null && !scheduler.owns(player)) {
+            scheduler.later(player, () -> uiAction(player, requestId, ui, action, receivedNanos));
+            return;
+        }
+
+        for (Entry<UiActionHandler> entry : uiActions.get(ui)) {
+            try {
+                entry.handler().onUiAction(player, requestId, ui, action);
+            } catch (Throwable t) {
+                failed(entry, t);
+            }
+        }
+
+        if (batcher != null) {
+            batcher.uiAction(player, symbols.id(ui), symbols.id(action), receivedNanos);
+        }
+
+        if (hasListeners(CrownPlayerUiActionEvent.getHandlerList())) {
+            Bukkit.getPluginManager().callEvent(
+                    new CrownPlayerUiActionEvent(player, requestId, ui, symbols.id(ui), action, symbols.id(action))
+            );
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        Plugin plugin = event.getPlugin();
+        hotkeys.removeOwner(plugin);
+        previews.removeOwner(plugin);
+        textInputs.removeOwner(plugin);
+        uiActions.removeOwner(plugin);
+    }
+
+    private boolean batched() {
+        return batcher != null && batcher.wants();
+    }
+
+    private static boolean hasListeners(HandlerList handlers) {
+        return handlers.getRegisteredListeners().length > 0;
+    }
+
+    private void failed(Entry<?> entry, Throwable t) {
+        // ❗ 한 구독자의 예외가 다른 구독자나 서버에 영향을 주지 않도록 기록만 한다.
+        logger.log(Level.WARNING, "Input subscriber of " + entry.owner().getName()
+                + " failed for key '" + entry.key() + "'", t);
+    }
+
+    private record Entry<H>(Plugin owner, String key, H handler) {
+    }
+
+    /**
+     * 키 → 핸들러 목록. 목록은 불변이며 변경 시 통째로 교체한다. (읽기 경로에 잠금 없음)
+     */
+    private static final class Table<H> {
+
+        private final Map<String, List<Entry<H>>> byKey = new ConcurrentHashMap<>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        Subscription add(Plugin owner, String key, H handler) {
+            if (owner == null || key == null || handler == null) {
+                throw new IllegalArgumentException("owner, key and handler must not be null");
+            }
+
+            Entry<H> entry = new Entry<>(owner, key, handler);
+            byKey.compute(key, (k, entries) -> {
+                List<Entry<H>> next = entries == null ? new ArrayList<>(1) : new ArrayList<>(entries);
+                next.add(entry);
+                return List.copyOf(next);
+            });
+            count.incrementAndGet();
+            return () -> remove(entry);
+        }
+
+        List<Entry<H>> get(String key) {
+            List<Entry<H>> entries = byKey.get(key);
+            return entries == null ? List.of() : entries;
+        }
+
+        int count() {
+            return count.get();
+        }
+
+        private void remove(Entry<H> entry) {
+            byKey.computeIfPresent(entry.key(), (k, entries) -> {
+                if (!entries.contains(entry)) return entries;
+                count.decrementAndGet();
+                List<Entry<H>> next = new ArrayList<>(entries);
+                next.remove(entry);
+                return next.isEmpty() ? null : List.copyOf(next);
+            });
+        }
+
+        void removeOwner(Plugin owner) {
+            for (String key : List.copyOf(byKey.keySet())) {
+                byKey.computeIfPresent(key, (k, entries) -> {
+                    List<Entry<H>> next = new ArrayList<>(entries.size());
+                    for (Entry<H> entry : entries) {
+                        if (entry.owner() == owner) {
+                            count.decrementAndGet();
+                        } else {
+                            next.add(entry);
+                        }
+                    }
+                    return next.isEmpty() ? null : List.copyOf(next);
+                });
+            }
+        }
+    }
+}
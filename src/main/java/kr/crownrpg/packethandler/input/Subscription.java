@@ -0,0 +1,15 @@
+package kr.crownrpg.packethandler.input;
+
+/**
+ * {@link InputRouter} 구독 핸들.
+ *
+ * 소유 플러그인이 비활성화되면 자동으로 해제되므로, 도중에 해제할 때만 호출하면 된다.
+ */
+@FunctionalInterface
+public interface Subscription {
+
+    /**
+     * 구독을 해제한다. 여러 번 호출해도 안전하다.
+     */
+    void unsubscribe();
+}
@@ -0,0 +1,12 @@
+package kr.crownrpg.packethandler.input;
+
+import org.bukkit.entity.Player;
+
+/**
+ * context별 TEXT_INPUT 구독 핸들러. {@link InputRouter#subscribeTextInput}로 등록한다.
+ */
+@FunctionalInterface
+public interface TextInputHandler {
+
+    void onTextInput(Player player, String requestId, String context, String text, boolean confirmed);
+}
@@ -0,0 +1,12 @@
+package kr.crownrpg.packethandler.input;
+
+import org.bukkit.entity.Player;
+
+/**
+ * context별 TEXT_INPUT_PREVIEW 구독 핸들러. {@link InputRouter#subscribeTextInputPreview}로 등록한다.
+ */
+@FunctionalInterface
+public interface TextInputPreviewHandler {
+
+    void onTextInputPreview(Player player, String requestId, String context, String text);
+}
@@ -0,0 +1,12 @@
+package kr.crownrpg.packethandler.input;
+
+import org.bukkit.entity.Player;
+
+/**
+ * ui별 UI_ACTION 구독 핸들러. {@link InputRouter#subscribeUiAction}로 등록한다.
+ */
+@FunctionalInterface
+public interface UiActionHandler {
+
+    void onUiAction(Player player, String requestId, String ui, String action);
+}
@@ -0,0 +1,298 @@
+package kr.crownrpg.packethandler.latency;
+
+import kr.crownrpg.packethandler.channel.CrownPacketChannel;
+import kr.crownrpg.packethandler.metrics.LatencyHistogram;
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import kr.crownrpg.packethandler.packet.PacketType;
+import kr.crownrpg.packethandler.packet.PayloadSchema;
+import kr.crownrpg.packethandler.session.PlayerSession;
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 플레이어별 왕복 지연(RTT), 시계 차이, 입력 지연 추정기. (opt-in)
+ *
+ * HANDSHAKE에서 "ping"을 협상한 클라이언트에게 주기적으로 PING(seq)을 보내고,
+ * 클라이언트는 같은 seq와 자신의 시각(envelope clientTime, epoch ms)을 담은 PONG으로 답한다.
+ * - RTT: PING 송신부터 리스너가 PONG을 받은 시각까지 ({@link System#nanoTime()}).
+ *   수신 큐 대기와 스레드 이동 시간은 포함하지 않는다.
+ * - 시계 차이(offset): clientTime - (PING 송신 시각 + RTT / 2). 경로가 대칭이라고 가정한다.
+ *   최근 {@link #FILTER_SIZE}개 표본 중 RTT가 가장 짧은 표본을 골라 지수 평활한다. (NTP clock filter 방식)
+ * - 입력 지연: 입력 처리 시각 - (입력의 clientTime - offset).
+ *   클라이언트가 입력을 만든 순간부터 서버가 처리하기까지의 단방향 지연이며, 수신 큐 대기 시간을 포함한다.
+ *
+ * PONG을 한 번도 받지 못한 플레이어의 입력은 입력 지연에 반영하지 않는다.
+ * 기록은 플레이어를 소유한 스레드에서 호출되어야 하며(PING도 그 스레드로 넘겨 보낸다),
+ * 조회는 다른 스레드에서도 할 수 있다. (값이 조금 늦을 수 있음)
+ */
+public final class LatencyTracker implements Runnable, Listener {
+
+    /** 시계 차이 추정에 쓰는 최근 PONG 표본 수 */
+    public static final int FILTER_SIZE = 8;
+
+    /** 시계가 이보다 크게 어긋난 입력 지연 표본은 버린다. (ms) */
+    static final long MAX_INPUT_DELAY_MILLIS = 60_000L;
+
+    /** RTT / 입력 지연 평활 계수 (TCP SRTT와 같은 1/8) */
+    private static final double ALPHA = 0.125;
+
+    /** offset 평활 계수. 이미 RTT로 거른 표본이므로 더 빨리 따라간다. */
+    private static final double OFFSET_ALPHA = 0.25;
+
+    private final CrownPacketChannel channel;
+    private final Map<UUID, State> players = new ConcurrentHashMap<>();
+
+    /** 서버 전체 분포 */
+    private final LatencyHistogram rtt = new LatencyHistogram();
+    private final LatencyHistogram inputDelay = new LatencyHistogram();
+
+    private final LongAdder pings = new LongAdder();
+    private final LongAdder pongs = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+
+    public LatencyTracker(CrownPacketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * "ping"을 협상한 모든 플레이어에게 PING을 보낸다.
+     * 응답을 받지 못한 이전 PING은 유실로 센다.
+     */
+    @Override
+    public void run() {
+        CrownScheduler scheduler = channel.scheduler();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            try {
+                PlayerSession session = channel.sessions().find(player);
+                if (session == null || !session.supports(ClientFeature.PING)) {
+                    continue;
+                }
+                if (scheduler == null) {
+                    ping(player);
+                } else {
+                    scheduler.execute(player, () -> ping(player));
+                }
+            } catch (Exception ignored) {
+                // ❗ 어떤 경우에도 서버 크래시를 유발하지 않는다.
+            }
+        }
+    }
+
+    private void ping(Player player) {
+        State state = players.computeIfAbsent(player.getUniqueId(), key -> new State());
+        if (state.pending) {
+            lost.increment();
+            state.pending = false;
+        }
+
+        int seq = ++state.seq;
+        long sentMillis = System.currentTimeMillis();
+        long sentNanos = System.nanoTime();
+        if (!channel.send(player, PacketType.PING, null, PayloadSchema.payload(PacketType.PING, seq))) {
+            return;
+        }
+        state.sentMillis = sentMillis;
+        state.sentNanos = sentNanos;
+        state.pending = true;
+        pings.increment();
+    }
+
+    /**
+     * PONG을 반영한다.
+     *
+     * @param clientTime PONG을 보낸 시각 (클라이언트 시계, epoch ms)
+     * @return 대기 중인 PING의 응답이면 true, 늦었거나 보내지 않은 seq면 false
+     */
+    public boolean pong(Player player, int seq, long clientTime) {
+        return pong(player, seq, clientTime, System.nanoTime());
+    }
+
+    /**
+     * PONG을 반영한다.
+     *
+     * @param clientTime    PONG을 보낸 시각 (클라이언트 시계, epoch ms)
+     * @param receivedNanos PONG을 받은 시각 ({@link System#nanoTime()}), 처리 시각 대신 RTT 계산에 쓴다.
+     * @return 대기 중인 PING의 응답이면 true, 늦었거나 보내지 않은 seq면 false
+     */
+    public boolean pong(Player player, int seq, long clientTime, long receivedNanos) {
+        State state = players.get(player.getUniqueId());
+        if (state == null || !state.pending || state.seq != seq) {
+            stale.increment();
+            return false;
+        }
+        state.pending = false;
+        pongs.increment();
+
+        long rttNanos = Math.max(0, receivedNanos - state.sentNanos);
+        rtt.record(rttNanos);
+        state.rtt.record(rttNanos);
+        state.sample(rttNanos, clientTime - (state.sentMillis + rttNanos / 2_000_000.0));
+        return true;
+    }
+
+    /**
+     * 입력 패킷의 clientTime으로 입력 지연을 기록한다.
+     * 입력 이벤트를 발행하기 전에 호출하므로, 이벤트 처리 중에는 {@link Estimate#lastInputDelayMillis()}가
+     * 지금 처리 중인 입력의 지연이다.
+     */
+    public void input(Player player, long clientTime) {
+        State state = players.get(player.getUniqueId());
+        if (state == null || !state.synced) {
+            return;
+        }
+
+        double delayMillis = System.currentTimeMillis() - (clientTime - state.offsetMillis);
+        if (Math.abs(delayMillis) > MAX_INPUT_DELAY_MILLIS) {
+            return;
+        }
+        // 추정 오차로 음수가 나오면 0으로 본다.
+        delayMillis = Math.max(0, delayMillis);
+
+        long nanos = (long) (delayMillis * 1_000_000);
+        inputDelay.record(nanos);
+        state.inputDelay.record(nanos);
+        state.lastInputDelayMillis = delayMillis;
+        state.inputDelayMillis = state.inputSamples++ == 0
+                ? delayMillis
+                : state.inputDelayMillis + ALPHA * (delayMillis - state.inputDelayMillis);
+    }
+
+    /**
+     * 클라이언트 시각을 서버 시각(epoch ms)으로 바꾼다.
+     * 시계 차이를 아직 모르면 그대로 반환한다.
+     */
+    public long toServerTime(Player player, long clientTime) {
+        State state = players.get(player.getUniqueId());
+        return state == null || !state.synced ? clientTime : clientTime - Math.round(state.offsetMillis);
+    }
+
+    /**
+     * 플레이어의 현재 추정값을 반환한다.
+     *
+     * @return PONG을 한 번도 받지 못했으면 null
+     */
+    public Estimate estimate(Player player) {
+        State state = players.get(player.getUniqueId());
+        if (state == null || !state.synced) {
+            return null;
+        }
+        return new Estimate(
+                state.rttMillis,
+                state.offsetMillis,
+                state.inputDelayMillis,
+                state.lastInputDelayMillis,
+                state.rtt.snapshot(),
+                state.inputDelay.snapshot()
+        );
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        players.remove(event.getPlayer().getUniqueId());
+    }
+
+    public Stats stats() {
+        return new Stats(pings.sum(), pongs.sum(), lost.sum(), stale.sum(), players.size(),
+                rtt.snapshot(), inputDelay.snapshot());
+    }
+
+    /**
+     * 플레이어별 추정값.
+     *
+     * @param rttMillis            평활한 RTT (ms)
+     * @param offsetMillis         클라이언트 시계 - 서버 시계 (ms)
+     * @param inputDelayMillis     평활한 입력 지연 (ms), 입력이 없었으면 0
+     * @param lastInputDelayMillis 마지막 입력의 지연 (ms)
+     * @param rtt                  RTT 분포 (ns)
+     * @param inputDelay           입력 지연 분포 (ns)
+     */
+    public record Estimate(
+            double rttMillis,
+            double offsetMillis,
+            double inputDelayMillis,
+            double lastInputDelayMillis,
+            LatencyHistogram.Snapshot rtt,
+            LatencyHistogram.Snapshot inputDelay
+    ) {
+    }
+
+    /**
+     * 지연 측정 통계.
+     *
+     * @param pings      보낸 PING 수
+     * @param pongs      대기 중인 PING과 짝이 맞은 PONG 수
+     * @param lost       다음 PING까지 응답이 없었던 PING 수
+     * @param stale      늦었거나 보내지 않은 seq의 PONG 수
+     * @param tracked    추정값을 가진 플레이어 수
+     * @param rtt        서버 전체 RTT 분포 (ns)
+     * @param inputDelay 서버 전체 입력 지연 분포 (ns)
+     */
+    public record Stats(
+            long pings,
+            long pongs,
+            long lost,
+            long stale,
+            int tracked,
+            LatencyHistogram.Snapshot rtt,
+            LatencyHistogram.Snapshot inputDelay
+    ) {
+    }
+
+    private static final class State {
+        final LatencyHistogram rtt = new LatencyHistogram();
+        final LatencyHistogram inputDelay = new LatencyHistogram();
+
+        int seq;
+        boolean pending;
+        long sentMillis;
+        long sentNanos;
+
+        /** 최근 PONG 표본 (RTT ns, offset ms) 링 버퍼 */
+        final long[] sampleRtt = new long[FILTER_SIZE];
+        final double[] sampleOffset = new double[FILTER_SIZE];
+        int samples;
+
+        volatile boolean synced;
+        volatile double rttMillis;
+        volatile double offsetMillis;
+        volatile double inputDelayMillis;
+        volatile double lastInputDelayMillis;
+        long inputSamples;
+
+        void sample(long rttNanos, double offset) {
+            int slot = samples++ % FILTER_SIZE;
+            sampleRtt[slot] = rttNanos;
+            sampleOffset[slot] = offset;
+
+            // 큐잉 지연이 가장 적은(RTT가 가장 짧은) 표본의 offset이 가장 정확하다.
+            int best = 0;
+            int filled = Math.min(samples, FILTER_SIZE);
+            for (int i = 1; i < filled; i++) {
+                if (sampleRtt[i] < sampleRtt[best]) {
+                    best = i;
+                }
+            }
+
+            double rttSample = rttNanos / 1_000_000.0;
+            if (!synced) {
+                rttMillis = rttSample;
+                offsetMillis = sampleOffset[best];
+                synced = true;
+                return;
+            }
+            rttMillis += ALPHA * (rttSample - rttMillis);
+            offsetMillis += OFFSET_ALPHA * (sampleOffset[best] - offsetMillis);
+        }
+    }
+}
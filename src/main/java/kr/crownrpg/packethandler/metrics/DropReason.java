@@ -0,0 +1,37 @@
+package kr.crownrpg.packethandler.metrics;
+
+/**
+ * 패킷을 처리하지 않고 버린 이유.
+ */
+public enum DropReason {
+
+    /** 최대 크기 초과 (송수신) */
+    OVERSIZE,
+
+    /** 플레이어별 속도 제한 초과 (수신) */
+    RATE_LIMITED,
+
+    /** JSON / 바이너리 문법 오류, 압축 해제 / 조각 조립 실패 (수신) */
+    PARSE_ERROR,
+
+    /** 알려진 PacketType으로 판별할 수 없거나 서버가 받지 않는 타입 (수신) */
+    UNKNOWN_TYPE,
+
+    /** 필수 필드 누락 (수신) */
+    MISSING_FIELD,
+
+    /** 서버가 열지 않았거나 이미 끝난 requestId의 응답 (수신) */
+    UNKNOWN_REQUEST,
+
+    /** 이미 눌린 HOTKEY의 press / 눌려 있지 않은 HOTKEY의 release (수신, 키 반복) */
+    REPEATED_INPUT,
+
+    /** 같은 (PacketType, requestId)의 새 패킷이나 CLOSE_UI로 대체된 대기 패킷 (송신) */
+    SUPERSEDED,
+
+    /** 플레이어 송신 대기열이 가득 참 (송신) */
+    BACKPRESSURE,
+
+    /** 직렬화 / 전송 중 예외 (송신) */
+    ENCODE_ERROR
+}
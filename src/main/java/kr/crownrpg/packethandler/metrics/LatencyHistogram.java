@@ -0,0 +1,78 @@
+package kr.crownrpg.packethandler.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 2의 거듭제곱 구간으로 나눈 지연 시간(ns) 히스토그램.
+ *
+ * 구간 i는 [2^(i-1), 2^i) ns를 센다. 기록은 LongAdder 하나를 올리는 것뿐이므로
+ * 여러 스레드에서 동시에 기록해도 경합이 적다.
+ * 백분위수는 해당 구간의 상한으로 근사한다. (최대 2배 오차)
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        buckets[bucket].increment();
+        totalNanos.add(nanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+
+        return new Snapshot(
+                count,
+                count == 0 ? 0 : totalNanos.sum() / count,
+                percentile(counts, count, 0.50),
+                percentile(counts, count, 0.99),
+                percentile(counts, count, 0.999)
+        );
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+    }
+
+    private static long percentile(long[] counts, long count, double quantile) {
+        if (count == 0) return 0;
+
+        long target = (long) Math.ceil(count * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return i == 0 ? 0 : 1L << i;
+            }
+        }
+        return 1L << (counts.length - 1);
+    }
+
+    /**
+     * @param meanNanos 평균 (ns)
+     * @param p50Nanos  중앙값 (구간 상한, ns)
+     * @param p99Nanos  99 백분위수 (구간 상한, ns)
+     * @param p999Nanos 99.9 백분위수 (구간 상한, ns)
+     */
+    public record Snapshot(long count, long meanNanos, long p50Nanos, long p99Nanos, long p999Nanos) {
+    }
+}
@@ -0,0 +1,104 @@
+package kr.crownrpg.packethandler.metrics;
+
+import kr.crownrpg.packethandler.packet.PacketType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * {@link PacketMetrics}를 사람이 읽을 수 있는 문자열로 만든다.
+ *
+ * 주기적으로 실행하면 직전 실행 이후 변화량을 한 줄로 로그에 남긴다. (opt-in)
+ */
+public final class MetricsReporter implements Runnable {
+
+    private final PacketMetrics metrics;
+    private final Logger logger;
+    private PacketMetrics.Snapshot last;
+
+    public MetricsReporter(PacketMetrics metrics, Logger logger) {
+        this.metrics = metrics;
+        this.logger = logger;
+        this.last = metrics.snapshot();
+    }
+
+    @Override
+    public void run() {
+        PacketMetrics.Snapshot now = metrics.snapshot();
+        logger.info(interval(last, now));
+        last = now;
+    }
+
+    /**
+     * 두 스냅샷 사이의 송수신량과 버린 패킷 수, 누적 지연 시간을 한 줄로 만든다.
+     */
+    public static String interval(PacketMetrics.Snapshot from, PacketMetrics.Snapshot to) {
+        return "in " + traffic(to.inboundTotal().minus(from.inboundTotal()))
+                + " out " + traffic(to.outboundTotal().minus(from.outboundTotal()))
+                + " drops in=" + drops(from.inboundDrops(), to.inboundDrops())
+                + " out=" + drops(from.outboundDrops(), to.outboundDrops())
+                + " decode " + latency(to.decode())
+                + " encode " + latency(to.encode());
+    }
+
+    /**
+     * 누적 지표 전체를 여러 줄로 만든다. (관리자 명령어)
+     */
+    public static List<String> lines(PacketMetrics.Snapshot snapshot) {
+        List<String> lines = new ArrayList<>();
+        lines.add("inbound " + traffic(snapshot.inboundTotal()));
+        for (Map.Entry<PacketType, PacketMetrics.Traffic> entry : snapshot.inbound().entrySet()) {
+            lines.add("  " + entry.getKey() + " " + traffic(entry.getValue()));
+        }
+        if (snapshot.inboundUnknown().packets() > 0) {
+            lines.add("  (unknown) " + traffic(snapshot.inboundUnknown()));
+        }
+
+        lines.add("outbound " + traffic(snapshot.outboundTotal()));
+        for (Map.Entry<PacketType, PacketMetrics.Traffic> entry : snapshot.outbound().entrySet()) {
+            lines.add("  " + entry.getKey() + " " + traffic(entry.getValue()));
+        }
+
+        lines.add("drops in=" + snapshot.inboundDrops() + " out=" + snapshot.outboundDrops());
+        lines.add("decode " + latency(snapshot.decode()));
+        lines.add("encode " + latency(snapshot.encode()));
+        return lines;
+    }
+
+    private static String traffic(PacketMetrics.Traffic traffic) {
+        return traffic.packets() + " pkts / " + bytes(traffic.bytes());
+    }
+
+    private static Map<DropReason, Long> drops(Map<DropReason, Long> from, Map<DropReason, Long> to) {
+        Map<DropReason, Long> delta = new EnumMap<>(DropReason.class);
+        for (Map.Entry<DropReason, Long> entry : to.entrySet()) {
+            long count = entry.getValue() - from.getOrDefault(entry.getKey(), 0L);
+            if (count > 0) delta.put(entry.getKey(), count);
+        }
+        return delta;
+    }
+
+    private static String latency(LatencyHistogram.Snapshot latency) {
+        return "n=" + latency.count()
+                + " mean=" + nanos(latency.meanNanos())
+                + " p50<" + nanos(latency.p50Nanos())
+                + " p99<" + nanos(latency.p99Nanos())
+                + " p99.9<" + nanos(latency.p999Nanos());
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes < 1024) return bytes + "B";
+        if (bytes < 1024 * 1024) return String.format(Locale.ROOT, "%.1fKB", bytes / 1024.0);
+        return String.format(Locale.ROOT, "%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static String nanos(long nanos) {
+        if (nanos < 1_000) return nanos + "ns";
+        if (nanos < 1_000_000) return String.format(Locale.ROOT, "%.1fus", nanos / 1_000.0);
+        return String.format(Locale.ROOT, "%.1fms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,174 @@
+package kr.crownrpg.packethandler.metrics;
+
+import kr.crownrpg.packethandler.packet.PacketType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * crown:packet 송수신 지표.
+ *
+ * - PacketType별 송수신 패킷 수 / 바이트 수
+ * - 버린 패킷 수 (방향, {@link DropReason}별)
+ * - 디코딩 / 인코딩 지연 시간 히스토그램
+ *
+ * 모든 카운터는 LongAdder이므로 어느 스레드에서든 lock 없이 기록할 수 있다.
+ * {@link #snapshot()}은 기록과 동시에 호출될 수 있으며, 카운터 사이의 값은 서로 약간 어긋날 수 있다.
+ */
+public final class PacketMetrics {
+
+    private static final PacketType[] TYPES = PacketType.values();
+    private static final DropReason[] REASONS = DropReason.values();
+
+    /** PacketType ordinal, 마지막 칸은 판별할 수 없는 패킷 */
+    private final LongAdder[] inPackets = adders(TYPES.length + 1);
+    private final LongAdder[] inBytes = adders(TYPES.length + 1);
+    private final LongAdder[] outPackets = adders(TYPES.length);
+    private final LongAdder[] outBytes = adders(TYPES.length);
+
+    private final LongAdder[] inDrops = adders(REASONS.length);
+    private final LongAdder[] outDrops = adders(REASONS.length);
+
+    private final LatencyHistogram decode = new LatencyHistogram();
+    private final LatencyHistogram encode = new LatencyHistogram();
+
+    /**
+     * 수신한 메시지를 기록한다. (속도 제한 등으로 버려지기 전, 수신 즉시)
+     *
+     * @param type 디코딩 전에 판별한 PacketType, 판별할 수 없으면 null
+     */
+    public void received(PacketType type, int bytes) {
+        int index = type == null ? TYPES.length : type.ordinal();
+        inPackets[index].increment();
+        inBytes[index].add(bytes);
+    }
+
+    /**
+     * 전송(또는 BATCH 대기열 추가)한 패킷을 기록한다.
+     *
+     * @param bytes 압축 / 조각 전 인코딩된 크기
+     */
+    public void sent(PacketType type, int bytes) {
+        outPackets[type.ordinal()].increment();
+        outBytes[type.ordinal()].add(bytes);
+    }
+
+    public void droppedInbound(DropReason reason) {
+        inDrops[reason.ordinal()].increment();
+    }
+
+    public void droppedOutbound(DropReason reason) {
+        outDrops[reason.ordinal()].increment();
+    }
+
+    public void decoded(long nanos) {
+        decode.record(nanos);
+    }
+
+    public void encoded(long nanos) {
+        encode.record(nanos);
+    }
+
+    public Snapshot snapshot() {
+        Map<PacketType, Traffic> inbound = new EnumMap<>(PacketType.class);
+        Map<PacketType, Traffic> outbound = new EnumMap<>(PacketType.class);
+        for (PacketType type : TYPES) {
+            Traffic in = traffic(inPackets, inBytes, type.ordinal());
+            if (in.packets() > 0) inbound.put(type, in);
+            Traffic out = traffic(outPackets, outBytes, type.ordinal());
+            if (out.packets() > 0) outbound.put(type, out);
+        }
+
+        return new Snapshot(
+                Collections.unmodifiableMap(inbound),
+                traffic(inPackets, inBytes, TYPES.length),
+                Collections.unmodifiableMap(outbound),
+                drops(inDrops),
+                drops(outDrops),
+                decode.snapshot(),
+                encode.snapshot()
+        );
+    }
+
+    public void reset() {
+        for (LongAdder[] adders : new LongAdder[][]{inPackets, inBytes, outPackets, outBytes, inDrops, outDrops}) {
+            for (LongAdder adder : adders) {
+                adder.reset();
+            }
+        }
+        decode.reset();
+        encode.reset();
+    }
+
+    private static Traffic traffic(LongAdder[] packets, LongAdder[] bytes, int index) {
+        return new Traffic(packets[index].sum(), bytes[index].sum());
+    }
+
+    private static Map<DropReason, Long> drops(LongAdder[] adders) {
+        Map<DropReason, Long> drops = new EnumMap<>(DropReason.class);
+        for (DropReason reason : REASONS) {
+            long count = adders[reason.ordinal()].sum();
+            if (count > 0) drops.put(reason, count);
+        }
+        return Collections.unmodifiableMap(drops);
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public record Traffic(long packets, long bytes) {
+
+        public static final Traffic ZERO = new Traffic(0, 0);
+
+        public Traffic plus(Traffic other) {
+            return new Traffic(packets + other.packets, bytes + other.bytes);
+        }
+
+        public Traffic minus(Traffic other) {
+            return new Traffic(packets - other.packets, bytes - other.bytes);
+        }
+    }
+
+    /**
+     * @param inbound        PacketType별 수신량 (0인 타입은 제외)
+     * @param inboundUnknown 디코딩 전에 타입을 판별할 수 없었던 수신량
+     * @param outbound       PacketType별 송신량 (0인 타입은 제외)
+     * @param inboundDrops   수신 측에서 버린 패킷 수 (0인 이유는 제외)
+     * @param outboundDrops  송신 측에서 버린 패킷 수 (0인 이유는 제외)
+     * @param decode         디코딩 지연 시간
+     * @param encode         인코딩 지연 시간
+     */
+    public record Snapshot(
+            Map<PacketType, Traffic> inbound,
+            Traffic inboundUnknown,
+            Map<PacketType, Traffic> outbound,
+            Map<DropReason, Long> inboundDrops,
+            Map<DropReason, Long> outboundDrops,
+            LatencyHistogram.Snapshot decode,
+            LatencyHistogram.Snapshot encode
+    ) {
+
+        public Traffic inboundTotal() {
+            Traffic total = inboundUnknown;
+            for (Traffic traffic : inbound.values()) {
+                total = total.plus(traffic);
+            }
+            return total;
+        }
+
+        public Traffic outboundTotal() {
+            Traffic total = Traffic.ZERO;
+            for (Traffic traffic : outbound.values()) {
+                total = total.plus(traffic);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package kr.crownrpg.packethandler.packet;
+
+/**
+ * HANDSHAKE 패킷으로 협상하는 클라이언트 기능.
+ *
+ * 클라이언트는 지원하는 기능의 wire 이름 목록을 보내고,
+ * 서버는 그중 수락한 기능만 되돌려 보낸다.
+ * 협상 결과는 플레이어별 bitmask로 보관한다.
+ */
+public enum ClientFeature {
+
+    /** 버전 1 바이너리 와이어 포맷 */
+    BINARY_V1("binary/1"),
+
+    /** 한 틱 동안 쌓인 서버 → 클라이언트 패킷을 BATCH 하나로 수신 */
+    BATCH("batch"),
+
+    /** threshold 이상 패킷을 DEFLATE로 압축해 송수신 */
+    DEFLATE("deflate"),
+
+    /** 최대 크기를 넘는 메시지를 조각으로 나눠 송수신 */
+    FRAGMENT("fragment"),
+
+    /** 서버의 PING에 PONG으로 응답 (지연 / 시계 차이 측정) */
+    PING("ping");
+
+    private final String wireName;
+
+    ClientFeature(String wireName) {
+        this.wireName = wireName;
+    }
+
+    public String wireName() {
+        return wireName;
+    }
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public boolean isIn(int features) {
+        return (features & mask()) != 0;
+    }
+
+    /**
+     * wire 이름에 해당하는 bit를 반환한다. 알 수 없는 이름이면 0.
+     */
+    public static int maskOf(String wireName) {
+        for (ClientFeature feature : values()) {
+            if (feature.wireName.equals(wireName)) {
+                return feature.mask();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * bitmask에 포함된 기능의 wire 이름 목록을 반환한다.
+     */
+    public static String[] wireNames(int features) {
+        String[] names = new String[Integer.bitCount(features & allMask())];
+        int index = 0;
+        for (ClientFeature feature : values()) {
+            if (feature.isIn(features)) {
+                names[index++] = feature.wireName;
+            }
+        }
+        return names;
+    }
+
+    public static int allMask() {
+        return (1 << values().length) - 1;
+    }
+}
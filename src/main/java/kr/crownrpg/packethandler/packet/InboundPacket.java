@@ -0,0 +1,26 @@
+package kr.crownrpg.packethandler.packet;
+
+/**
+ * 클라이언트 → 서버 패킷을 디코딩한 결과.
+ *
+ * {@link Envelope}와 달리 payload를 JsonObject로 보관하지 않고,
+ * 입력 패킷에서 사용하는 필드만 평탄하게 담는다.
+ * 해당 PacketType에서 사용하지 않거나 타입이 맞지 않는 필드는 null이다.
+ *
+ * seq는 PONG이 되돌려 준 PING 번호이다.
+ * features는 HANDSHAKE에서 클라이언트가 알린 {@link ClientFeature} bitmask이다.
+ */
+public record InboundPacket(
+        PacketType type,
+        String requestId,
+        Long clientTime,
+        String action,
+        Boolean pressed,
+        String context,
+        String text,
+        Boolean confirmed,
+        String ui,
+        Integer seq,
+        int features
+) {
+}
@@ -0,0 +1,27 @@
+package kr.crownrpg.packethandler.packet;
+
+/**
+ * {@link PayloadSchema}에 필수로 선언된 값이 없는 입력 패킷.
+ *
+ * 디코더가 던지며, 수신 리스너는 이 예외를 MISSING_FIELD로 센다.
+ */
+public final class MissingFieldException extends IllegalArgumentException {
+
+    private final PacketType type;
+    private final String field;
+
+    public MissingFieldException(PacketType type, String field) {
+        super("Missing required field '" + field + "' in " + type);
+        this.type = type;
+        this.field = field;
+    }
+
+    public PacketType type() {
+        return type;
+    }
+
+    /** 없는 필드의 JSON 키 (requestId / clientTime 포함) */
+    public String field() {
+        return field;
+    }
+}
@@ -0,0 +1,15 @@
+package kr.crownrpg.packethandler.packet;
+
+/**
+ * 서버 → 클라이언트 패킷의 payload.
+ *
+ * 선택된 코덱의 {@link PayloadWriter}에 필드를 기록한다.
+ */
+@FunctionalInterface
+public interface OutboundPayload {
+
+    OutboundPayload EMPTY = writer -> {
+    };
+
+    void writeTo(PayloadWriter writer);
+}
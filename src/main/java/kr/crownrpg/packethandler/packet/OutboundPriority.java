@@ -0,0 +1,29 @@
+package kr.crownrpg.packethandler.packet;
+
+/**
+ * 서버 → 클라이언트 패킷의 송신 우선순위. (outbound.scheduling)
+ *
+ * 플레이어의 틱당 송신 예산을 넘겼을 때 어떤 패킷을 먼저 보낼지 정한다.
+ */
+public enum OutboundPriority {
+
+    /** 대기하지 않고 항상 바로 보낸다. (UI 열기 / 닫기 등) */
+    HIGH,
+
+    /** 예산을 넘기면 대기열에 쌓였다가 LOW보다 먼저 나간다. */
+    NORMAL,
+
+    /** 예산을 넘기면 NORMAL이 모두 나간 뒤에 나가며, 대기열이 가득 차면 가장 먼저 밀려난다. */
+    LOW;
+
+    /**
+     * 설정이 없을 때의 PacketType별 기본 우선순위.
+     */
+    public static OutboundPriority defaultFor(PacketType type) {
+        return switch (type) {
+            case OPEN_CONFIRM_UI, OPEN_TEXT_INPUT, CLOSE_UI, HANDSHAKE, PING -> HIGH;
+            case UI_VALIDATE_RESULT -> LOW;
+            default -> NORMAL;
+        };
+    }
+}
@@ -0,0 +1,344 @@
+package kr.crownrpg.packethandler.packet;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import kr.crownrpg.packethandler.symbol.SymbolTable;
+import kr.crownrpg.packethandler.util.Utf8ByteReader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * 클라이언트 → 서버 패킷을 raw byte[]에서 한 번에 디코딩한다.
+ *
+ * JsonObject 트리를 만들지 않고 스트리밍 리더로 필요한 필드만 꺼낸다.
+ * 판정 결과는 기존 {@code JsonUtils.parse} + {@link Envelope#from} + 필드 추출 경로와 동일하다.
+ * - 최상위가 객체가 아니거나 문서 뒤에 추가 내용이 있으면 거부
+ * - 동일 키가 여러 번 등장하면 마지막 값을 사용
+ * - PacketType이 읽는 payload 필드가 객체/배열/null이면 패킷 전체를 거부
+ *
+ * PacketType별로 읽는 payload 필드는 {@link PayloadSchema}의 선언을 따른다.
+ * 선언되지 않은 필드는 값이 있어도 {@link InboundPacket}에서 null이다.
+ * 필수로 선언된 필드가 없거나 값의 타입이 맞지 않으면 {@link MissingFieldException}으로 거부한다.
+ *
+ * 추가로 중첩 깊이와 객체당 필드 수를 읽는 도중에 제한한다.
+ *
+ * 심볼 테이블을 넘기면 action / ui / context를 canonical 인스턴스로 바꾼다.
+ * (JSON 리더가 이미 String을 만든 뒤이므로 중복 인스턴스만 줄어든다)
+ */
+public final class PacketDecoder {
+
+    /** 최상위 객체를 1로 하는 최대 중첩 깊이. */
+    public static final int MAX_DEPTH = 8;
+
+    /** 객체 하나에 허용하는 최대 필드 수. */
+    public static final int MAX_FIELDS = 32;
+
+    private static final int TYPE = 0;
+    private static final int REQUEST_ID = 1;
+    private static final int CLIENT_TIME = 2;
+    private static final int PAYLOAD = 3;
+    /** payload 필드 slot은 PAYLOAD_BASE + {@link PayloadSchema.Field#ordinal()} */
+    private static final int PAYLOAD_BASE = 4;
+    private static final int FEATURES = PAYLOAD_BASE + PayloadSchema.Field.FEATURES.ordinal();
+    private static final int SLOT_COUNT = PAYLOAD_BASE + PayloadSchema.FIELD_COUNT;
+
+    private static final byte ABSENT = 0;
+    private static final byte STRING = 1;
+    private static final byte NUMBER = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte NULL = 4;
+    private static final byte COMPOUND = 5;
+
+    private PacketDecoder() {}
+
+    /**
+     * raw byte[]를 디코딩한다.
+     *
+     * @throws IOException JSON 문법 오류 시
+     * @throws IllegalArgumentException 필수 필드 누락, 타입 불일치, 제한 초과 시
+     */
+    public static InboundPacket decode(byte[] message) throws IOException {
+        return decode(message, null);
+    }
+
+    /**
+     * raw byte[]를 디코딩하면서 action / ui / context를 심볼 테이블로 정규화한다.
+     *
+     * @param symbols null이면 정규화하지 않는다
+     * @throws IOException JSON 문법 오류 시
+     * @throws IllegalArgumentException 필수 필드 누락, 타입 불일치, 제한 초과 시
+     */
+    public static InboundPacket decode(byte[] message, SymbolTable symbols) throws IOException {
+        Fields fields = new Fields();
+
+        JsonReader reader = new JsonReader(new Utf8ByteReader(message));
+        reader.setStrictness(Strictness.LENIENT);
+
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IllegalArgumentException("Invalid packet envelope");
+        }
+
+        reader.beginObject();
+        int count = 0;
+        while (reader.hasNext()) {
+            checkFieldCount(++count);
+            switch (reader.nextName()) {
+                case "type" -> readSlot(reader, fields, TYPE, 2);
+                case "requestId" -> readSlot(reader, fields, REQUEST_ID, 2);
+                case "clientTime" -> readSlot(reader, fields, CLIENT_TIME, 2);
+                case "payload" -> readPayload(reader, fields);
+                default -> skipValue(reader, 2);
+            }
+        }
+        reader.endObject();
+
+        // JsonParser는 문서 끝 확인 전에 strictness를 되돌리므로 뒤따르는 주석 등도 거부된다.
+        reader.setStrictness(Strictness.LEGACY_STRICT);
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new IllegalArgumentException("Trailing data after packet envelope");
+        }
+
+        return toPacket(fields, symbols);
+    }
+
+    private static InboundPacket toPacket(Fields fields, SymbolTable symbols) {
+        byte[] kinds = fields.kinds;
+        String[] values = fields.values;
+
+        if (kinds[TYPE] == ABSENT || kinds[PAYLOAD] == ABSENT) {
+            throw new IllegalArgumentException("Invalid packet envelope");
+        }
+
+        PacketType type = PacketType.valueOf(primitive(kinds, values, TYPE));
+        // Envelope.from()의 getAsJsonPrimitive()는 명시적 null에서도 예외를 던졌다.
+        String requestId = kinds[REQUEST_ID] == ABSENT ? null : primitive(kinds, values, REQUEST_ID);
+        Long clientTime = clientTime(kinds[CLIENT_TIME], values[CLIENT_TIME]);
+
+        if (kinds[PAYLOAD] != COMPOUND) {
+            throw new IllegalArgumentException("Invalid packet envelope");
+        }
+
+        PayloadSchema.Entry[] entries = PayloadSchema.of(type);
+        Object[] payload = new Object[PayloadSchema.FIELD_COUNT];
+        if (entries != null) {
+            for (PayloadSchema.Entry entry : entries) {
+                PayloadSchema.Field field = entry.field();
+                int slot = PAYLOAD_BASE + field.ordinal();
+                if (field.kind() == PayloadSchema.Kind.FEATURES) {
+                    // features는 배열이므로 readFeatures에서 따로 검증한다.
+                    payload[field.ordinal()] = kinds[slot] == COMPOUND ? fields.features : null;
+                    continue;
+                }
+                // 기존 getAsJsonPrimitive()는 객체/배열/null 값에서 예외를 던졌다.
+                if (kinds[slot] == COMPOUND || kinds[slot] == NULL) {
+                    throw new IllegalArgumentException("Invalid payload field");
+                }
+                payload[field.ordinal()] = switch (field.kind()) {
+                    case SYMBOL -> symbol(symbols, string(kinds, values, slot));
+                    case STRING -> string(kinds, values, slot);
+                    case INT -> integer(kinds, values, slot);
+                    default -> bool(kinds, values, slot);
+                };
+            }
+        }
+
+        return PayloadSchema.toPacket(type, requestId, clientTime, payload);
+    }
+
+    private static void readPayload(JsonReader reader, Fields fields) throws IOException {
+        byte[] kinds = fields.kinds;
+
+        // 마지막 payload가 이긴다.
+        for (int slot = PAYLOAD_BASE; slot < SLOT_COUNT; slot++) {
+            kinds[slot] = ABSENT;
+            fields.values[slot] = null;
+        }
+        fields.features = 0;
+
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            // 객체가 아닌 payload는 거부 대상으로만 기록한다.
+            skipValue(reader, 2);
+            kinds[PAYLOAD] = NULL;
+            return;
+        }
+
+        reader.beginObject();
+        int count = 0;
+        while (reader.hasNext()) {
+            checkFieldCount(++count);
+            PayloadSchema.Field field = PayloadSchema.Field.fromKey(reader.nextName());
+            if (field == null) {
+                skipValue(reader, 3);
+            } else if (field.kind() == PayloadSchema.Kind.FEATURES) {
+                readFeatures(reader, fields);
+            } else {
+                readSlot(reader, fields, PAYLOAD_BASE + field.ordinal(), 3);
+            }
+        }
+        reader.endObject();
+        kinds[PAYLOAD] = COMPOUND;
+    }
+
+    /**
+     * HANDSHAKE의 features 배열을 bitmask로 읽는다.
+     * 배열만 유효하며, 문자열이 아니거나 알 수 없는 원소는 무시한다.
+     */
+    private static void readFeatures(JsonReader reader, Fields fields) throws IOException {
+        fields.features = 0;
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            readSlot(reader, fields, FEATURES, 3);
+            if (fields.kinds[FEATURES] == COMPOUND) {
+                // 객체는 features로 인정하지 않는다.
+                fields.kinds[FEATURES] = NULL;
+            }
+            return;
+        }
+
+        checkDepth(3);
+        reader.beginArray();
+        int count = 0;
+        while (reader.hasNext()) {
+            checkFieldCount(++count);
+            if (reader.peek() == JsonToken.STRING) {
+                fields.features |= ClientFeature.maskOf(reader.nextString());
+            } else {
+                skipValue(reader, 4);
+            }
+        }
+        reader.endArray();
+        fields.kinds[FEATURES] = COMPOUND;
+    }
+
+    private static void readSlot(JsonReader reader, Fields fields, int slot, int depth) throws IOException {
+        byte[] kinds = fields.kinds;
+        String[] values = fields.values;
+        switch (reader.peek()) {
+            case STRING -> {
+                kinds[slot] = STRING;
+                values[slot] = reader.nextString();
+            }
+            case NUMBER -> {
+                // 숫자 원문을 그대로 보관한다. (JsonPrimitive.getAsString()과 동일)
+                kinds[slot] = NUMBER;
+                values[slot] = reader.nextString();
+            }
+            case BOOLEAN -> {
+                kinds[slot] = BOOLEAN;
+                values[slot] = reader.nextBoolean() ? "true" : "false";
+            }
+            case NULL -> {
+                reader.nextNull();
+                kinds[slot] = NULL;
+                values[slot] = null;
+            }
+            default -> {
+                skipValue(reader, depth);
+                kinds[slot] = COMPOUND;
+                values[slot] = null;
+            }
+        }
+    }
+
+    /**
+     * 관심 없는 값을 건너뛴다. 중첩 깊이와 필드 수 제한은 그대로 적용된다.
+     *
+     * @param depth 이 값이 객체/배열일 때 갖게 되는 깊이
+     */
+    private static void skipValue(JsonReader reader, int depth) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT -> {
+                checkDepth(depth);
+                reader.beginObject();
+                int fields = 0;
+                while (reader.hasNext()) {
+                    checkFieldCount(++fields);
+                    reader.nextName();
+                    skipValue(reader, depth + 1);
+                }
+                reader.endObject();
+            }
+            case BEGIN_ARRAY -> {
+                checkDepth(depth);
+                reader.beginArray();
+                int elements = 0;
+                while (reader.hasNext()) {
+                    checkFieldCount(++elements);
+                    skipValue(reader, depth + 1);
+                }
+                reader.endArray();
+            }
+            default -> reader.skipValue();
+        }
+    }
+
+    private static final class Fields {
+        final byte[] kinds = new byte[SLOT_COUNT];
+        final String[] values = new String[SLOT_COUNT];
+        int features;
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Packet nesting too deep");
+        }
+    }
+
+    private static void checkFieldCount(int fields) {
+        if (fields > MAX_FIELDS) {
+            throw new IllegalArgumentException("Too many fields in packet");
+        }
+    }
+
+    private static String primitive(byte[] kinds, String[] values, int slot) {
+        if (kinds[slot] == STRING || kinds[slot] == NUMBER || kinds[slot] == BOOLEAN) {
+            return values[slot];
+        }
+        throw new IllegalArgumentException("Invalid packet envelope");
+    }
+
+    private static String string(byte[] kinds, String[] values, int slot) {
+        return kinds[slot] == STRING ? values[slot] : null;
+    }
+
+    private static String symbol(SymbolTable symbols, String value) {
+        return symbols == null ? value : symbols.intern(value);
+    }
+
+    private static Boolean bool(byte[] kinds, String[] values, int slot) {
+        return kinds[slot] == BOOLEAN ? Boolean.valueOf(values[slot]) : null;
+    }
+
+    /**
+     * 정수가 아니거나 int 범위를 벗어난 숫자는 null로 취급한다.
+     */
+    private static Integer integer(byte[] kinds, String[] values, int slot) {
+        if (kinds[slot] != NUMBER) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(values[slot]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long clientTime(byte kind, String value) {
+        return switch (kind) {
+            case ABSENT, NULL -> null;
+            case NUMBER -> parseNumber(value);
+            case STRING, BOOLEAN -> Long.parseLong(value);
+            default -> throw new IllegalArgumentException("Invalid clientTime");
+        };
+    }
+
+    private static long parseNumber(String value) {
+        // LazilyParsedNumber.longValue()와 동일한 변환
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return new BigDecimal(value).longValue();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package kr.crownrpg.packethandler.packet;
+
+import kr.crownrpg.packethandler.codec.BinaryPacketCodec;
+import kr.crownrpg.packethandler.codec.PacketCompression;
+import kr.crownrpg.packethandler.codec.PacketFragments;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 디코딩 전에 raw byte[]에서 PacketType만 빠르게 읽는다.
+ *
+ * - 바이너리 포맷 / 압축 메시지 / 조각: 두 번째 바이트의 태그 (압축을 풀거나 조립하지 않는다)
+ * - JSON 포맷: 최상위 객체의 {@code "type":"..."} 값 (문자열 안의 내용이나 중첩 객체는 무시)
+ *
+ * 따옴표 없는 키 등 lenient 문법이나 이스케이프된 키는 인식하지 않는다.
+ * 속도 제한 등 디코딩 전 단계에서만 사용하며, 판별 결과가 틀려도 안전해야 하는 용도로 쓴다.
+ * (리스너는 디코딩한 타입이 판별 결과와 다르면 패킷을 버린다)
+ * 판별할 수 없으면 null을 반환한다.
+ */
+public final class PacketSniffer {
+
+    private static final byte[] TYPE_KEY = "type".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] NAMES = new byte[PacketType.values().length][];
+
+    static {
+        for (PacketType type : PacketType.values()) {
+            NAMES[type.ordinal()] = type.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private PacketSniffer() {}
+
+    public static PacketType sniffType(byte[] message) {
+        if (message.length == 0) return null;
+        if (BinaryPacketCodec.matches(message)
+                || PacketCompression.matches(message)
+                || PacketFragments.matches(message)) {
+            return message.length > 1 ? PacketType.fromId(message[1] & 0xFF) : null;
+        }
+        return sniffJson(message);
+    }
+
+    private static PacketType sniffJson(byte[] message) {
+        PacketType found = null;
+        int depth = 0;
+        int i = 0;
+        int length = message.length;
+
+        while (i < length) {
+            byte b = message[i];
+            switch (b) {
+                case '{', '[' -> {
+                    depth++;
+                    i++;
+                }
+                case '}', ']' -> {
+                    depth--;
+                    i++;
+                }
+                case '"' -> {
+                    int end = skipString(message, i + 1);
+                    if (end < 0) return null;
+
+                    if (depth == 1 && matches(message, i + 1, end, TYPE_KEY)) {
+                        int value = skipWhitespace(message, end + 1);
+                        if (value < length && message[value] == ':') {
+                            // 디코더와 마찬가지로 동일 키는 마지막 값을 사용한다.
+                            found = readTypeValue(message, skipWhitespace(message, value + 1));
+                        }
+                    }
+                    i = end + 1;
+                }
+                default -> i++;
+            }
+        }
+        return found;
+    }
+
+    private static PacketType readTypeValue(byte[] message, int start) {
+        if (start >= message.length || message[start] != '"') return null;
+        int end = skipString(message, start + 1);
+        if (end < 0) return null;
+
+        for (PacketType type : PacketType.values()) {
+            if (matches(message, start + 1, end, NAMES[type.ordinal()])) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 닫는 따옴표의 위치, 문자열이 끝나지 않으면 -1
+     */
+    private static int skipString(byte[] message, int from) {
+        for (int i = from; i < message.length; i++) {
+            byte b = message[i];
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] message, int from) {
+        int i = from;
+        while (i < message.length && (message[i] == ' ' || message[i] == '\t' || message[i] == '\n' || message[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean matches(byte[] message, int start, int end, byte[] expected) {
+        if (end - start != expected.length) return false;
+        for (int i = 0; i < expected.length; i++) {
+            if (message[start + i] != expected[i]) return false;
+        }
+        return true;
+    }
+}
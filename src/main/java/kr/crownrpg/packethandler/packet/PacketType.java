@@ -1,18 +1,51 @@
 package kr.crownrpg.packethandler.packet;
 
 public enum PacketType {
-    HOTKEY,
-    TEXT_INPUT_PREVIEW,
-    TEXT_INPUT,
-    UI_ACTION,
-    OPEN_CONFIRM_UI,
-    OPEN_TEXT_INPUT,
-    UI_VALIDATE_RESULT,
-    CLOSE_UI;
+    HOTKEY(0x01),
+    TEXT_INPUT_PREVIEW(0x02),
+    TEXT_INPUT(0x03),
+    UI_ACTION(0x04),
+    OPEN_CONFIRM_UI(0x10),
+    OPEN_TEXT_INPUT(0x11),
+    UI_VALIDATE_RESULT(0x12),
+    CLOSE_UI(0x13),
+    HANDSHAKE(0x20),
+    BATCH(0x21),
+    PING(0x22),
+    PONG(0x23);
+
+    private static final PacketType[] BY_ID = new PacketType[256];
+
+    static {
+        for (PacketType type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
+
+    private final int id;
+
+    PacketType(int id) {
+        this.id = id;
+    }
+
+    /**
+     * 바이너리 와이어 포맷에서 사용하는 1바이트 태그.
+     * CrownClient와 계약된 값이므로 절대 변경 금지.
+     */
+    public int id() {
+        return id;
+    }
+
+    /**
+     * 1바이트 태그로 PacketType을 찾는다. 알 수 없는 태그면 null.
+     */
+    public static PacketType fromId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
 
     public boolean requiresRequestId() {
         return switch (this) {
-            case HOTKEY -> false;
+            case HOTKEY, HANDSHAKE, BATCH, PING, PONG -> false;
             default -> true;
         };
     }
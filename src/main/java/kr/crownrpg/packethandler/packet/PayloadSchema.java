@@ -0,0 +1,320 @@
+package kr.crownrpg.packethandler.packet;
+
+/**
+ * PacketType별 payload 선언.
+ *
+ * 클라이언트 → 서버: JSON 디코더({@link PacketDecoder})와 바이너리 디코더가 모두 이 선언을 따른다.
+ * - JSON: 선언된 필드만 {@link InboundPacket}에 담고, 나머지 키는 건너뛴다.
+ * - 바이너리: 선언 순서가 곧 와이어 상의 필드 순서다. (CrownClient와 계약된 순서이므로 변경 금지)
+ * - 필수 필드(와 requestId / clientTime)가 없으면 {@link MissingFieldException}으로 거부한다.
+ *
+ * 서버 → 클라이언트: {@link #payload}가 선언 순서대로 {@link PayloadWriter}에 기록하는 payload를 만든다.
+ * 값의 개수와 종류는 payload를 만들 때 선언과 대조한다.
+ *
+ * 패킷을 추가하거나 필드를 바꿀 때는 이 클래스와 {@link InboundPacket}만 고치면 된다.
+ * 선언은 클래스 로딩 시 배열로 고정되며, 디코딩 / 인코딩 중에는 리플렉션이나 Map 조회가 없다.
+ */
+public final class PayloadSchema {
+
+    /**
+     * 필드 값의 종류.
+     */
+    public enum Kind {
+        /** 고정 어휘 문자열 (심볼 테이블로 정규화) */
+        SYMBOL,
+        /** 자유 입력 문자열 */
+        STRING,
+        BOOL,
+        /** 부호 있는 32bit 정수 (바이너리: ZigZag VarInt) */
+        INT,
+        /** {@link ClientFeature} wire 이름 배열 → bitmask */
+        FEATURES
+    }
+
+    /**
+     * 입력 패킷에서 사용하는 payload 필드. ordinal은 디코더의 값 배열 인덱스다.
+     */
+    public enum Field {
+        ACTION("action", Kind.SYMBOL),
+        PRESSED("pressed", Kind.BOOL),
+        CONTEXT("context", Kind.SYMBOL),
+        TEXT("text", Kind.STRING),
+        CONFIRMED("confirmed", Kind.BOOL),
+        UI("ui", Kind.SYMBOL),
+        FEATURES("features", Kind.FEATURES),
+        SEQ("seq", Kind.INT);
+
+        private final String key;
+        private final Kind kind;
+
+        Field(String key, Kind kind) {
+            this.key = key;
+            this.kind = kind;
+        }
+
+        /** JSON payload 키 */
+        public String key() {
+            return key;
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        /**
+         * JSON 키로 필드를 찾는다. 알 수 없는 키면 null.
+         */
+        public static Field fromKey(String key) {
+            return switch (key) {
+                case "action" -> ACTION;
+                case "pressed" -> PRESSED;
+                case "context" -> CONTEXT;
+                case "text" -> TEXT;
+                case "confirmed" -> CONFIRMED;
+                case "ui" -> UI;
+                case "features" -> FEATURES;
+                case "seq" -> SEQ;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * PacketType에 선언된 필드 하나.
+     *
+     * @param optional true면 바이너리에서 null 마커를 가진다. (JSON에서는 생략 가능, 명시적 null은 거부)
+     */
+    public record Entry(Field field, boolean optional) {
+    }
+
+    /**
+     * 서버 → 클라이언트 payload 필드 값의 종류. {@link PayloadWriter}의 메서드와 하나씩 대응한다.
+     */
+    public enum OutboundKind {
+        /** String (null 불가), 템플릿에서는 {@link #slot} 가능 */
+        STRING,
+        /** String 또는 null */
+        NULLABLE_STRING,
+        /** Integer */
+        INT,
+        /** Integer, 0 이하이면 JSON에서 생략 */
+        POSITIVE_INT,
+        /** Boolean */
+        BOOL,
+        /** String[] (null 불가) */
+        STRING_ARRAY
+    }
+
+    /**
+     * 서버 → 클라이언트 PacketType에 선언된 필드 하나.
+     *
+     * @param key JSON payload 키
+     */
+    public record OutboundEntry(String key, OutboundKind kind) {
+    }
+
+    /** 템플릿 컴파일 시 송신 시점에 채울 문자열 자리 ({@link PayloadWriter#stringSlot}) */
+    private record Slot(int index) {
+    }
+
+    /** 값 배열 크기 */
+    public static final int FIELD_COUNT = Field.values().length;
+
+    /** 입력 패킷에 requestId가 있어야 한다. (빈 문자열 불가) */
+    private static final int REQUEST_ID = 1;
+    /** 입력 패킷에 clientTime이 있어야 한다. */
+    private static final int CLIENT_TIME = 1 << 1;
+
+    private static final Entry[][] BY_TYPE = new Entry[PacketType.values().length][];
+    private static final int[] HEADERS = new int[PacketType.values().length];
+    private static final OutboundEntry[][] OUTBOUND = new OutboundEntry[PacketType.values().length][];
+
+    static {
+        declare(PacketType.HOTKEY, 0,
+                required(Field.ACTION), required(Field.PRESSED), optional(Field.CONTEXT));
+        declare(PacketType.TEXT_INPUT_PREVIEW, REQUEST_ID,
+                required(Field.CONTEXT), required(Field.TEXT));
+        declare(PacketType.TEXT_INPUT, REQUEST_ID,
+                required(Field.CONTEXT), required(Field.TEXT), required(Field.CONFIRMED));
+        declare(PacketType.UI_ACTION, REQUEST_ID,
+                required(Field.UI), required(Field.ACTION));
+        declare(PacketType.HANDSHAKE, 0,
+                required(Field.FEATURES));
+        declare(PacketType.PONG, CLIENT_TIME,
+                required(Field.SEQ));
+
+        declareOutbound(PacketType.OPEN_CONFIRM_UI,
+                out("ui", OutboundKind.STRING),
+                out("title", OutboundKind.STRING),
+                out("message", OutboundKind.STRING),
+                out("acceptAction", OutboundKind.STRING),
+                out("cancelAction", OutboundKind.STRING),
+                out("timeout", OutboundKind.POSITIVE_INT));
+        declareOutbound(PacketType.OPEN_TEXT_INPUT,
+                out("context", OutboundKind.STRING),
+                out("title", OutboundKind.STRING),
+                out("placeholder", OutboundKind.NULLABLE_STRING),
+                out("maxLength", OutboundKind.INT),
+                out("timeout", OutboundKind.POSITIVE_INT));
+        declareOutbound(PacketType.UI_VALIDATE_RESULT,
+                out("valid", OutboundKind.BOOL),
+                out("message", OutboundKind.NULLABLE_STRING));
+        declareOutbound(PacketType.CLOSE_UI);
+        declareOutbound(PacketType.HANDSHAKE,
+                out("features", OutboundKind.STRING_ARRAY));
+        declareOutbound(PacketType.PING,
+                out("seq", OutboundKind.INT));
+    }
+
+    private PayloadSchema() {
+    }
+
+    /**
+     * PacketType의 payload 선언. 서버 → 클라이언트 전용 타입이면 null.
+     * 반환된 배열은 공유되므로 수정하지 않는다.
+     */
+    public static Entry[] of(PacketType type) {
+        return BY_TYPE[type.ordinal()];
+    }
+
+    /**
+     * PacketType의 서버 → 클라이언트 payload 선언. 클라이언트 → 서버 전용 타입이면 null.
+     * 반환된 배열은 공유되므로 수정하지 않는다.
+     */
+    public static OutboundEntry[] outbound(PacketType type) {
+        return OUTBOUND[type.ordinal()];
+    }
+
+    /**
+     * 선언 순서대로 값을 받아 서버 → 클라이언트 payload를 만든다.
+     *
+     * @param values 선언된 필드 값 (INT / POSITIVE_INT는 Integer, BOOL은 Boolean, STRING_ARRAY는 String[])
+     * @throws IllegalArgumentException 송신하지 않는 타입이거나 값의 개수 / 종류가 선언과 다르면
+     */
+    public static OutboundPayload payload(PacketType type, Object... values) {
+        OutboundEntry[] entries = OUTBOUND[type.ordinal()];
+        if (entries == null) {
+            throw new IllegalArgumentException("No outbound payload declared for " + type);
+        }
+        if (values.length != entries.length) {
+            throw new IllegalArgumentException(
+                    type + " payload expects " + entries.length + " values, got " + values.length);
+        }
+        for (int i = 0; i < entries.length; i++) {
+            check(type, entries[i], values[i]);
+        }
+        if (entries.length == 0) {
+            return OutboundPayload.EMPTY;
+        }
+
+        Object[] copy = values.clone();
+        return writer -> {
+            for (int i = 0; i < entries.length; i++) {
+                write(writer, entries[i], copy[i]);
+            }
+        };
+    }
+
+    /**
+     * 템플릿의 STRING 필드 값으로 넘기면 송신 시점에 채울 자리가 된다. ({@link PayloadWriter#stringSlot})
+     *
+     * @param index 송신 시 전달하는 값 배열의 인덱스
+     */
+    public static Object slot(int index) {
+        return new Slot(index);
+    }
+
+    private static void check(PacketType type, OutboundEntry entry, Object value) {
+        boolean valid = switch (entry.kind()) {
+            case STRING -> value instanceof String || value instanceof Slot;
+            case NULLABLE_STRING -> value == null || value instanceof String;
+            case INT, POSITIVE_INT -> value instanceof Integer;
+            case BOOL -> value instanceof Boolean;
+            case STRING_ARRAY -> value instanceof String[];
+        };
+        if (!valid) {
+            throw new IllegalArgumentException(
+                    "Invalid value for " + type + " payload field '" + entry.key() + "' (" + entry.kind() + ")");
+        }
+    }
+
+    private static void write(PayloadWriter writer, OutboundEntry entry, Object value) {
+        String key = entry.key();
+        switch (entry.kind()) {
+            case STRING -> {
+                if (value instanceof Slot slot) {
+                    writer.stringSlot(key, slot.index());
+                } else {
+                    writer.string(key, (String) value);
+                }
+            }
+            case NULLABLE_STRING -> writer.nullableString(key, (String) value);
+            case INT -> writer.integer(key, (Integer) value);
+            case POSITIVE_INT -> writer.positiveInteger(key, (Integer) value);
+            case BOOL -> writer.bool(key, (Boolean) value);
+            case STRING_ARRAY -> writer.stringArray(key, (String[]) value);
+        }
+    }
+
+    /**
+     * 디코딩한 필드 값으로 InboundPacket을 만든다.
+     * 선언된 필수 필드와 requestId / clientTime이 모두 있는지 여기서 확인한다.
+     *
+     * @param values {@link Field#ordinal()} 인덱스의 값 배열. 선언된 필드만 채워져 있어야 한다.
+     *               FEATURES는 Integer bitmask이다.
+     * @throws MissingFieldException 필수 값이 없으면
+     */
+    public static InboundPacket toPacket(PacketType type, String requestId, Long clientTime, Object[] values) {
+        Entry[] entries = BY_TYPE[type.ordinal()];
+        if (entries != null) {
+            int headers = HEADERS[type.ordinal()];
+            if ((headers & REQUEST_ID) != 0 && (requestId == null || requestId.isEmpty())) {
+                throw new MissingFieldException(type, "requestId");
+            }
+            if ((headers & CLIENT_TIME) != 0 && clientTime == null) {
+                throw new MissingFieldException(type, "clientTime");
+            }
+            for (Entry entry : entries) {
+                if (!entry.optional() && values[entry.field().ordinal()] == null) {
+                    throw new MissingFieldException(type, entry.field().key());
+                }
+            }
+        }
+
+        Integer features = (Integer) values[Field.FEATURES.ordinal()];
+        return new InboundPacket(
+                type,
+                requestId,
+                clientTime,
+                (String) values[Field.ACTION.ordinal()],
+                (Boolean) values[Field.PRESSED.ordinal()],
+                (String) values[Field.CONTEXT.ordinal()],
+                (String) values[Field.TEXT.ordinal()],
+                (Boolean) values[Field.CONFIRMED.ordinal()],
+                (String) values[Field.UI.ordinal()],
+                (Integer) values[Field.SEQ.ordinal()],
+                features == null ? 0 : features
+        );
+    }
+
+    private static void declare(PacketType type, int headers, Entry... entries) {
+        BY_TYPE[type.ordinal()] = entries;
+        HEADERS[type.ordinal()] = headers;
+    }
+
+    private static void declareOutbound(PacketType type, OutboundEntry... entries) {
+        OUTBOUND[type.ordinal()] = entries;
+    }
+
+    private static OutboundEntry out(String key, OutboundKind kind) {
+        return new OutboundEntry(key, kind);
+    }
+
+    private static Entry required(Field field) {
+        return new Entry(field, false);
+    }
+
+    private static Entry optional(Field field) {
+        return new Entry(field, true);
+    }
+}
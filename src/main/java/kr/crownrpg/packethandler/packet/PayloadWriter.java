@@ -0,0 +1,37 @@
+package kr.crownrpg.packethandler.packet;
+
+/**
+ * 서버 → 클라이언트 payload 필드를 코덱에 독립적으로 기록한다.
+ *
+ * JSON 코덱은 key를 필드명으로 사용하고,
+ * 바이너리 코덱은 key를 무시하고 호출 순서대로 값을 기록한다.
+ * 따라서 같은 PacketType의 필드는 항상 같은 순서로 기록해야 한다.
+ */
+public interface PayloadWriter {
+
+    void string(String key, String value);
+
+    /** null이면 JSON에서는 null, 바이너리에서는 null 마커로 기록한다. */
+    void nullableString(String key, String value);
+
+    void integer(String key, int value);
+
+    void bool(String key, boolean value);
+
+    /** 0 이하이면 JSON에서는 필드를 생략하고, 바이너리에서는 0으로 기록한다. */
+    void positiveInteger(String key, int value);
+
+    void stringArray(String key, String[] values);
+
+    /**
+     * 송신 시점에 채워질 문자열 필드 자리를 기록한다. (null 불가)
+     *
+     * 템플릿 컴파일 중에만 사용할 수 있으며, 일반 송신 경로에서는
+     * {@link UnsupportedOperationException}을 던진다.
+     *
+     * @param index 송신 시 전달하는 값 배열의 인덱스
+     */
+    default void stringSlot(String key, int index) {
+        throw new UnsupportedOperationException("Slots are only supported while compiling templates");
+    }
+}
@@ -0,0 +1,343 @@
+package kr.crownrpg.packethandler.request;
+
+import kr.crownrpg.packethandler.util.CrownScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 서버가 연 UI 요청(OPEN_TEXT_INPUT / OPEN_CONFIRM_UI)과 클라이언트 응답의 대응표.
+ *
+ * - 응답은 (플레이어, requestId)로 O(1) 조회하며, UI 종류가 같아야 한다.
+ *   같은 requestId를 여러 플레이어에게 동시에 사용할 수 있다.
+ * - 요청은 응답 / CLOSE_UI / 타임아웃 / 퇴장 중 먼저 일어난 것에서 끝난다.
+ * - 타임아웃은 future 방식 요청에만 적용된다. 이벤트 방식 요청은 서버에서 만료시키지 않는다.
+ * - 타임아웃은 요청마다 예약 작업을 만들지 않고 하나의 {@link TimingWheel}로 처리한다.
+ *   {@link #run()}은 매 틱 실행되어야 한다.
+ *
+ * CompletableFuture로 등록된 요청은 이벤트 대신 future가 완료된다. (플레이어를 소유한 스레드)
+ * - 타임아웃: {@link TimeoutException}
+ * - 퇴장 / CLOSE_UI / 같은 requestId로 다시 요청: {@link CancellationException}
+ */
+public final class PendingRequests implements Runnable, Listener {
+
+    /** 서버 틱 길이(ms). 타이밍 휠의 해상도이다. */
+    private static final long TICK_MILLIS = 50;
+
+    private static final int WHEEL_SIZE = 512;
+
+    public enum Kind {
+        TEXT_INPUT,
+        CONFIRM_UI
+    }
+
+    /**
+     * 응답 처리 결과.
+     */
+    public enum Resolution {
+        /** 이벤트 방식 요청이다. 이벤트를 발행한다. */
+        EVENT,
+        /** future 방식 요청이다. future가 완료되었으므로 이벤트를 발행하지 않는다. */
+        COMPLETED,
+        /** 알 수 없거나 이미 끝난 요청이다. 응답을 버린다. */
+        UNKNOWN
+    }
+
+    /** 플레이어 → (requestId → 요청) */
+    private final Map<UUID, Map<String, Pending>> pending = new HashMap<>();
+    private final TimingWheel<Pending> wheel = new TimingWheel<>(WHEEL_SIZE);
+    private int size;
+
+    private final boolean dropUnknown;
+    private final long graceMillis;
+    private final long defaultTimeoutMillis;
+    private final CrownScheduler scheduler;
+
+    public PendingRequests(boolean dropUnknown, long graceMillis, long defaultTimeoutMillis) {
+        this(dropUnknown, graceMillis, defaultTimeoutMillis, null);
+    }
+
+    /**
+     * @param dropUnknown          등록되지 않은 requestId의 응답을 버릴지 여부
+     * @param graceMillis          클라이언트 타임아웃 이후 서버가 응답을 기다리는 추가 시간(ms)
+     * @param defaultTimeoutMillis 클라이언트 타임아웃이 없는 future 방식 요청을 서버가 기다리는 시간(ms)
+     * @param scheduler            타임아웃을 플레이어를 소유한 스레드에서 완료할 스케줄러, 사용하지 않으면 null
+     */
+    public PendingRequests(boolean dropUnknown, long graceMillis, long defaultTimeoutMillis, CrownScheduler scheduler) {
+        this.dropUnknown = dropUnknown;
+        this.graceMillis = Math.max(0, graceMillis);
+        this.defaultTimeoutMillis = Math.max(TICK_MILLIS, defaultTimeoutMillis);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 이벤트 방식 요청을 등록한다. 응답 시 기존처럼 이벤트가 발행된다.
+     * 응답 / CLOSE_UI / 퇴장 / 같은 requestId로 다시 요청하기 전까지 만료되지 않는다.
+     */
+    public void track(Player player, String requestId, Kind kind, int timeoutMillis) {
+        register(player, requestId, kind, timeoutMillis, null);
+    }
+
+    /**
+     * 텍스트 입력 요청을 등록하고 결과 future를 반환한다.
+     */
+    public CompletableFuture<TextInputResult> awaitTextInput(Player player, String requestId, int timeoutMillis) {
+        CompletableFuture<TextInputResult> future = new CompletableFuture<>();
+        register(player, requestId, Kind.TEXT_INPUT, timeoutMillis, future);
+        return future;
+    }
+
+    /**
+     * 확인/취소 UI 요청을 등록하고 결과 future를 반환한다.
+     */
+    public CompletableFuture<UiActionResult> awaitConfirmUi(Player player, String requestId, int timeoutMillis) {
+        CompletableFuture<UiActionResult> future = new CompletableFuture<>();
+        register(player, requestId, Kind.CONFIRM_UI, timeoutMillis, future);
+        return future;
+    }
+
+    private void register(
+            Player player,
+            String requestId,
+            Kind kind,
+            int timeoutMillis,
+            CompletableFuture<?> future
+    ) {
+        Pending entry = new Pending(requestId, player.getUniqueId(), kind, future);
+        Pending replaced;
+        synchronized (this) {
+            if (future != null) {
+                // 이벤트 방식 요청은 기다리는 쪽이 없으므로 늦은 응답도 이벤트로 전달한다.
+                long waitMillis = timeoutMillis > 0 ? timeoutMillis + graceMillis : defaultTimeoutMillis;
+                entry.node = wheel.schedule(entry, (waitMillis + TICK_MILLIS - 1) / TICK_MILLIS);
+            }
+            replaced = pending.computeIfAbsent(entry.playerId, id -> new HashMap<>(4)).put(requestId, entry);
+            if (replaced != null) {
+                unschedule(replaced);
+            } else {
+                size++;
+            }
+        }
+
+        if (replaced != null) {
+            replaced.fail(new CancellationException("Request replaced: " + requestId));
+        }
+    }
+
+    /**
+     * 전송 실패 등으로 요청을 즉시 끝낸다.
+     */
+    public void fail(Player player, String requestId, Throwable cause) {
+        Pending entry = remove(player.getUniqueId(), requestId, null);
+        if (entry != null) {
+            entry.fail(cause);
+        }
+    }
+
+    /**
+     * 서버가 UI를 닫았을 때(CLOSE_UI) 호출한다.
+     */
+    public void close(Player player, String requestId) {
+        Pending entry = remove(player.getUniqueId(), requestId, null);
+        if (entry != null) {
+            entry.fail(new CancellationException("UI closed: " + requestId));
+        }
+    }
+
+    /**
+     * 진행 중인 요청의 중간 입력(TEXT_INPUT_PREVIEW)을 처리해도 되는지 확인한다.
+     */
+    public synchronized boolean accepts(Player player, String requestId, Kind kind) {
+        Pending entry = find(player.getUniqueId(), requestId);
+        if (entry == null) return !dropUnknown;
+        return entry.kind == kind;
+    }
+
+    /**
+     * TEXT_INPUT 응답을 처리한다.
+     */
+    public Resolution completeTextInput(Player player, String requestId, String context, String text, boolean confirmed) {
+        Pending entry = remove(player.getUniqueId(), requestId, Kind.TEXT_INPUT);
+        if (entry == null) return unknown(player, requestId);
+        if (entry.future == null) return Resolution.EVENT;
+
+        entry.complete(new TextInputResult(context, text, confirmed));
+        return Resolution.COMPLETED;
+    }
+
+    /**
+     * UI_ACTION 응답을 처리한다.
+     */
+    public Resolution completeUiAction(Player player, String requestId, String ui, String action) {
+        Pending entry = remove(player.getUniqueId(), requestId, Kind.CONFIRM_UI);
+        if (entry == null) return unknown(player, requestId);
+        if (entry.future == null) return Resolution.EVENT;
+
+        entry.complete(new UiActionResult(ui, action));
+        return Resolution.COMPLETED;
+    }
+
+    private Resolution unknown(Player player, String requestId) {
+        if (dropUnknown) return Resolution.UNKNOWN;
+
+        synchronized (this) {
+            // 다른 종류의 UI로 등록된 requestId의 응답은 등록 여부와 관계없이 버린다.
+            return find(player.getUniqueId(), requestId) != null ? Resolution.UNKNOWN : Resolution.EVENT;
+        }
+    }
+
+    private Pending find(UUID playerId, String requestId) {
+        Map<String, Pending> requests = pending.get(playerId);
+        return requests == null ? null : requests.get(requestId);
+    }
+
+    /**
+     * @param kind null이 아니면 종류가 같을 때만 제거한다
+     */
+    private synchronized Pending remove(UUID playerId, String requestId, Kind kind) {
+        Map<String, Pending> requests = pending.get(playerId);
+        if (requests == null) return null;
+
+        Pending entry = requests.get(requestId);
+        if (entry == null || (kind != null && entry.kind != kind)) {
+            return null;
+        }
+
+        requests.remove(requestId);
+        if (requests.isEmpty()) {
+            pending.remove(playerId);
+        }
+        unschedule(entry);
+        size--;
+        return entry;
+    }
+
+    private void unschedule(Pending entry) {
+        if (entry.node != null) {
+            wheel.cancel(entry.node);
+        }
+    }
+
+    /**
+     * 매 틱 실행된다. 타임아웃된 요청을 끝낸다.
+     * 스케줄러가 있으면 future는 플레이어를 소유한 스레드에서 완료된다. (Folia에서는 다음 틱)
+     */
+    @Override
+    public void run() {
+        List<Pending> expired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(entry -> {
+                Map<String, Pending> requests = pending.get(entry.playerId);
+                if (requests != null && requests.remove(entry.requestId) != null) {
+                    size--;
+                    if (requests.isEmpty()) {
+                        pending.remove(entry.playerId);
+                    }
+                }
+                expired.add(entry);
+            });
+        }
+
+        for (Pending entry : expired) {
+            TimeoutException cause = new TimeoutException("Request timed out: " + entry.requestId);
+            Player player = scheduler == null || entry.future == null ? null : Bukkit.getPlayer(entry.playerId);
+            if (player == null) {
+                entry.fail(cause);
+            } else {
+                scheduler.execute(player, () -> entry.fail(cause));
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Map<String, Pending> removed;
+        synchronized (this) {
+            removed = pending.remove(event.getPlayer().getUniqueId());
+            if (removed == null) return;
+
+            for (Pending entry : removed.values()) {
+                unschedule(entry);
+            }
+            size -= removed.size();
+        }
+
+        for (Pending entry : removed.values()) {
+            entry.fail(new CancellationException("Player quit: " + entry.requestId));
+        }
+    }
+
+    /**
+     * 플러그인 비활성화 시 남은 요청을 모두 취소한다.
+     */
+    public void cancelAll() {
+        List<Pending> removed = new ArrayList<>();
+        synchronized (this) {
+            for (Map<String, Pending> requests : pending.values()) {
+                for (Pending entry : requests.values()) {
+                    unschedule(entry);
+                    removed.add(entry);
+                }
+            }
+            pending.clear();
+            size = 0;
+        }
+
+        for (Pending entry : removed) {
+            entry.fail(new CancellationException("Plugin disabled"));
+        }
+    }
+
+    /**
+     * 현재 진행 중인 요청 수.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static final class Pending {
+        final String requestId;
+        final UUID playerId;
+        final Kind kind;
+
+        /** 이벤트 방식이면 null */
+        final CompletableFuture<?> future;
+
+        /** 이벤트 방식이면 null (만료되지 않음) */
+        TimingWheel.Node<Pending> node;
+
+        Pending(String requestId, UUID playerId, Kind kind, CompletableFuture<?> future) {
+            this.requestId = requestId;
+            this.playerId = playerId;
+            this.kind = kind;
+            this.future = future;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> void complete(T result) {
+            ((CompletableFuture<T>) future).complete(result);
+        }
+
+        void fail(Throwable cause) {
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package kr.crownrpg.packethandler.request;
+
+/**
+ * 텍스트 입력 UI 요청의 결과. (클라이언트가 보낸 TEXT_INPUT)
+ *
+ * @param context   요청 시 지정한 context
+ * @param text      입력된 텍스트
+ * @param confirmed 확인으로 닫았으면 true, 취소/타임아웃이면 false
+ */
+public record TextInputResult(String context, String text, boolean confirmed) {
+}
@@ -0,0 +1,97 @@
+package kr.crownrpg.packethandler.request;
+
+import java.util.function.Consumer;
+
+/**
+ * 틱 단위 hashed timing wheel.
+ *
+ * 요청마다 예약 작업을 만들지 않고, 만료 시각(틱)을 기준으로 버킷에 넣어 두었다가
+ * {@link #advance}가 호출될 때마다 현재 버킷만 확인한다.
+ * - 등록 / 취소: O(1) (버킷은 이중 연결 리스트)
+ * - 틱 진행: 현재 버킷의 항목 수에 비례
+ * 바퀴 한 바퀴보다 긴 지연은 남은 바퀴 수(rounds)로 처리한다.
+ *
+ * 스레드 안전하지 않다. 호출자가 동기화해야 한다.
+ */
+final class TimingWheel<T> {
+
+    private final Node<T>[] buckets;
+    private final int mask;
+    private long tick;
+
+    /**
+     * @param size 버킷 수 (2의 거듭제곱으로 올림)
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+        this.buckets = new Node[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * delayTicks 뒤에 만료되도록 등록한다. (최소 1틱)
+     */
+    Node<T> schedule(T value, long delayTicks) {
+        long delay = Math.max(1, delayTicks);
+        long deadline = tick + delay;
+
+        Node<T> node = new Node<>(value);
+        node.bucket = (int) (deadline & mask);
+        node.rounds = (delay - 1) / buckets.length;
+
+        Node<T> head = buckets[node.bucket];
+        node.next = head;
+        if (head != null) head.prev = node;
+        buckets[node.bucket] = node;
+        return node;
+    }
+
+    /**
+     * 등록을 취소한다. 이미 만료되었거나 취소된 항목이면 무시한다.
+     */
+    void cancel(Node<T> node) {
+        if (node.bucket < 0) return;
+
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            buckets[node.bucket] = node.next;
+        }
+        if (node.next != null) node.next.prev = node.prev;
+
+        node.prev = null;
+        node.next = null;
+        node.bucket = -1;
+    }
+
+    /**
+     * 한 틱 진행하고 만료된 항목을 expired에 넘긴다.
+     */
+    void advance(Consumer<T> expired) {
+        tick++;
+        Node<T> node = buckets[(int) (tick & mask)];
+        while (node != null) {
+            Node<T> next = node.next;
+            if (node.rounds > 0) {
+                node.rounds--;
+            } else {
+                cancel(node);
+                expired.accept(node.value);
+            }
+            node = next;
+        }
+    }
+
+    static final class Node<T> {
+        final T value;
+        int bucket;
+        long rounds;
+        Node<T> prev;
+        Node<T> next;
+
+        Node(T value) {
+            this.value = value;
+        }
+    }
+}
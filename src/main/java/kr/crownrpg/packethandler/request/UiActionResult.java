@@ -0,0 +1,10 @@
+package kr.crownrpg.packethandler.request;
+
+/**
+ * 확인/취소 UI 요청의 결과. (클라이언트가 보낸 UI_ACTION)
+ *
+ * @param ui     요청 시 지정한 ui
+ * @param action 선택된 action (acceptAction 또는 cancelAction)
+ */
+public record UiActionResult(String ui, String action) {
+}
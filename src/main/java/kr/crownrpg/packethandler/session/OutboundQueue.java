@@ -0,0 +1,65 @@
+package kr.crownrpg.packethandler.session;
+
+import kr.crownrpg.packethandler.packet.PacketType;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 플레이어별 송신 대기열. (BATCH 모드 전용)
+ *
+ * 어느 스레드에서든 lock 없이 패킷을 쌓을 수 있으며,
+ * 틱 끝에 한 번 비워져 BATCH 패킷으로 전송된다.
+ */
+public final class OutboundQueue {
+
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * 인코딩된 패킷을 쌓는다.
+     *
+     * CLOSE_UI는 같은 requestId로 아직 전송되지 않은 패킷을 먼저 취소한다.
+     */
+    public void offer(PacketType type, String requestId, byte[] bytes) {
+        if (type == PacketType.CLOSE_UI && requestId != null) {
+            cancel(requestId);
+        }
+        entries.add(new Entry(type, requestId, bytes));
+    }
+
+    /**
+     * 같은 requestId로 대기 중인 패킷을 제거한다.
+     *
+     * @return 제거된 패킷이 있으면 true
+     */
+    public boolean cancel(String requestId) {
+        return entries.removeIf(entry -> requestId.equals(entry.requestId()));
+    }
+
+    public Entry poll() {
+        return entries.poll();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * flush 대상으로 아직 등록되지 않았으면 등록 상태로 바꾸고 true를 반환한다.
+     */
+    public boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * flush 직전에 호출한다. 이후에 쌓이는 패킷은 다시 등록된다.
+     */
+    public void clearScheduled() {
+        scheduled.set(false);
+    }
+
+    public record Entry(PacketType type, String requestId, byte[] bytes) {
+    }
+}
@@ -0,0 +1,54 @@
+package kr.crownrpg.packethandler.session;
+
+import kr.crownrpg.packethandler.codec.JsonPacketCodec;
+import kr.crownrpg.packethandler.codec.PacketCodec;
+import kr.crownrpg.packethandler.codec.PacketCodecs;
+import kr.crownrpg.packethandler.packet.ClientFeature;
+
+import java.util.UUID;
+
+/**
+ * 플레이어별 crown:packet 세션 상태.
+ *
+ * HANDSHAKE로 협상된 기능과 그에 따른 송신 코덱을 보관한다.
+ * HANDSHAKE를 보내지 않은 클라이언트는 JSON 세션으로 취급한다.
+ */
+public final class PlayerSession {
+
+    private final UUID playerId;
+    private final OutboundQueue outbound = new OutboundQueue();
+
+    private volatile int features;
+    private volatile PacketCodec codec = JsonPacketCodec.INSTANCE;
+
+    PlayerSession(UUID playerId) {
+        this.playerId = playerId;
+    }
+
+    public UUID playerId() {
+        return playerId;
+    }
+
+    /** 협상된 {@link ClientFeature} bitmask */
+    public int features() {
+        return features;
+    }
+
+    public boolean supports(ClientFeature feature) {
+        return feature.isIn(features);
+    }
+
+    public PacketCodec codec() {
+        return codec;
+    }
+
+    /** BATCH 모드에서 사용하는 송신 대기열 */
+    public OutboundQueue outbound() {
+        return outbound;
+    }
+
+    void apply(int features) {
+        this.features = features;
+        this.codec = PacketCodecs.forFeatures(features);
+    }
+}
@@ -0,0 +1,70 @@
+package kr.crownrpg.packethandler.session;
+
+import kr.crownrpg.packethandler.packet.ClientFeature;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 접속 중인 플레이어의 {@link PlayerSession} 저장소.
+ *
+ * 세션은 HANDSHAKE 수신 시 만들어지고 퇴장 시 제거된다.
+ */
+public final class SessionRegistry implements Listener {
+
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+    private final int supportedFeatures;
+
+    /**
+     * @param supportedFeatures 서버가 수락할 수 있는 {@link ClientFeature} bitmask
+     */
+    public SessionRegistry(int supportedFeatures) {
+        this.supportedFeatures = supportedFeatures;
+    }
+
+    /**
+     * 세션이 없으면 null을 반환한다.
+     */
+    public PlayerSession find(Player player) {
+        return sessions.get(player.getUniqueId());
+    }
+
+    public PlayerSession getOrCreate(Player player) {
+        return sessions.computeIfAbsent(player.getUniqueId(), PlayerSession::new);
+    }
+
+    /**
+     * 클라이언트가 요청한 기능 중 서버가 지원하는 것만 남긴다.
+     */
+    public int negotiate(int requestedFeatures) {
+        return requestedFeatures & supportedFeatures;
+    }
+
+    /**
+     * 협상 결과를 세션에 반영한다.
+     */
+    public void apply(Player player, int features) {
+        getOrCreate(player).apply(features);
+    }
+
+    /**
+     * 재협상 전 세션을 기본(JSON) 상태로 되돌린다.
+     */
+    public void reset(Player player) {
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session != null) {
+            session.apply(0);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        sessions.remove(event.getPlayer().getUniqueId());
+    }
+}
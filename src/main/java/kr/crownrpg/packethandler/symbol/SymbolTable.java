@@ -0,0 +1,280 @@
+package kr.crownrpg.packethandler.symbol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * action / ui / context 문자열의 심볼 테이블.
+ *
+ * 입력 패킷의 action / ui / context는 작은 고정 어휘에서 나오므로,
+ * 같은 값은 하나의 String 인스턴스(canonical)와 안정적인 int ID로 대응시킨다.
+ * - Feature Plugin은 onEnable에서 사용할 값을 미리 등록한다. ({@link #register})
+ * - ID는 1부터 촘촘하게 배정되며 서버가 켜져 있는 동안 바뀌지 않는다. (배열 인덱스로 사용 가능)
+ * - switch에 쓸 상수가 필요하면 ID를 직접 지정해 등록할 수 있다.
+ * - 바이너리 포맷은 UTF-8 바이트에서 곧바로 조회하므로 등록된 값은 String을 새로 만들지 않는다.
+ *
+ * 등록되지 않은 값도 최대 maxDynamic개까지는 canonical 인스턴스를 공유하도록 자동으로 등록된다.
+ * 자동 등록된 값은 명시적 ID 범위(1 ~ maxSize) 밖의 내부 슬롯에 들어가므로
+ * 나중에 등록될 ID를 차지하지 않고, {@link #id}는 {@link #UNKNOWN}을 반환한다.
+ * 자동 등록된 값을 나중에 {@link #register}하면 명시적 ID로 옮겨진다.
+ * 한도를 넘는 값(또는 너무 긴 값)은 등록되지 않는다.
+ *
+ * 조회는 잠금 없이 불변 스냅샷을 읽고, 등록은 스냅샷을 통째로 교체한다.
+ */
+public final class SymbolTable {
+
+    /** 등록되지 않은 값의 ID. */
+    public static final int UNKNOWN = 0;
+
+    /** 심볼로 취급하는 최대 길이(char). 더 긴 값은 등록하지 않는다. */
+    public static final int MAX_LENGTH = 64;
+
+    private final int maxSize;
+    private final int maxDynamic;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param maxSize    등록 가능한 최대 심볼 수 (ID 범위는 1 ~ maxSize)
+     * @param maxDynamic 입력에서 자동 등록할 최대 심볼 수 (ID 범위 밖의 별도 슬롯)
+     */
+    public SymbolTable(int maxSize, int maxDynamic) {
+        this.maxSize = Math.max(1, maxSize);
+        this.maxDynamic = Math.max(0, Math.min(maxDynamic, this.maxSize));
+        this.snapshot = Snapshot.build(new String[this.maxSize + this.maxDynamic + 1], 0, 0);
+    }
+
+    /**
+     * 값을 등록하고 ID를 반환한다. 이미 등록된 값이면 기존 ID를 반환한다.
+     *
+     * @throws IllegalArgumentException 값이 null / 빈 문자열이거나 너무 길면
+     * @throws IllegalStateException    테이블이 가득 찼으면
+     */
+    public synchronized int register(String name) {
+        checkName(name);
+        Snapshot current = snapshot;
+        Integer existing = current.ids.get(name);
+        if (existing != null && existing <= maxSize) {
+            return existing;
+        }
+
+        for (int id = 1; id <= maxSize; id++) {
+            if (current.names[id] == null) {
+                publish(current, name, id, existing);
+                return id;
+            }
+        }
+        throw new IllegalStateException("Symbol table is full");
+    }
+
+    /**
+     * 값을 지정한 ID로 등록한다. switch 상수로 쓸 ID가 필요할 때 사용한다.
+     *
+     * @throws IllegalArgumentException ID가 범위를 벗어났거나, 값 또는 ID가 이미 다르게 등록되어 있으면
+     */
+    public synchronized int register(String name, int id) {
+        checkName(name);
+        if (id < 1 || id > maxSize) {
+            throw new IllegalArgumentException("Symbol id out of range: " + id);
+        }
+
+        Snapshot current = snapshot;
+        Integer existing = current.ids.get(name);
+        if (existing != null && existing <= maxSize) {
+            if (existing == id) return id;
+            throw new IllegalArgumentException("Symbol '" + name + "' is already registered as " + existing);
+        }
+        if (current.names[id] != null) {
+            throw new IllegalArgumentException("Symbol id " + id + " is already used by '" + current.names[id] + "'");
+        }
+
+        publish(current, name, id, existing);
+        return id;
+    }
+
+    /**
+     * 값의 ID를 반환한다. 등록되지 않았거나 입력에서 자동 등록된 값이면 {@link #UNKNOWN}.
+     */
+    public int id(String name) {
+        if (name == null) return UNKNOWN;
+        Integer id = snapshot.ids.get(name);
+        return id == null || id > maxSize ? UNKNOWN : id;
+    }
+
+    /**
+     * ID의 값을 반환한다. 등록되지 않은 ID면 null.
+     */
+    public String name(int id) {
+        return id > 0 && id <= maxSize ? snapshot.names[id] : null;
+    }
+
+    /**
+     * 입력에서 읽은 값을 canonical 인스턴스로 바꾼다.
+     * 등록되지 않은 값은 자동 등록 한도 안에서 등록하고, 한도를 넘으면 그대로 반환한다.
+     */
+    public String intern(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_LENGTH) {
+            return value;
+        }
+
+        Snapshot current = snapshot;
+        Integer id = current.ids.get(value);
+        if (id != null) {
+            return current.names[id];
+        }
+        if (current.dynamic >= maxDynamic) {
+            // 한도에 도달한 뒤의 쓰레기 입력이 매번 전역 잠금을 잡지 않도록 잠금 없이 먼저 거른다.
+            return value;
+        }
+        return internDynamic(value);
+    }
+
+    /**
+     * UTF-8 바이트에서 곧바로 canonical 값을 찾는다. 등록된 값이면 String을 새로 만들지 않는다.
+     */
+    public String intern(byte[] buffer, int offset, int length) {
+        Snapshot current = snapshot;
+        int id = current.find(buffer, offset, length);
+        if (id != UNKNOWN) {
+            return current.names[id];
+        }
+        return intern(new String(buffer, offset, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return 현재 등록된 심볼 수 (자동 등록 포함)
+     */
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * @return 입력에서 자동 등록된 심볼 수
+     */
+    public int dynamicSize() {
+        return snapshot.dynamic;
+    }
+
+    private synchronized String internDynamic(String value) {
+        Snapshot current = snapshot;
+        Integer existing = current.ids.get(value);
+        if (existing != null) {
+            return current.names[existing];
+        }
+        if (current.dynamic >= maxDynamic) {
+            // 쓰레기 입력으로 테이블이 커지지 않도록 더 이상 등록하지 않는다.
+            return value;
+        }
+
+        for (int id = maxSize + 1; id < current.names.length; id++) {
+            if (current.names[id] == null) {
+                publish(current, value, id, null);
+                return value;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @param dynamicId 자동 등록 슬롯에서 명시적 ID로 옮기는 경우 기존 슬롯, 아니면 null
+     */
+    private void publish(Snapshot current, String name, int id, Integer dynamicId) {
+        String[] names = current.names.clone();
+        int size = current.size + 1;
+        int dynamic = current.dynamic + (id > maxSize ? 1 : 0);
+        if (dynamicId != null) {
+            // 이미 나눠준 canonical 인스턴스를 그대로 유지한다.
+            name = names[dynamicId];
+            names[dynamicId] = null;
+            size--;
+            dynamic--;
+        }
+        names[id] = name;
+        snapshot = Snapshot.build(names, size, dynamic);
+    }
+
+    private static void checkName(String name) {
+        if (name == null || name.isEmpty() || name.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Invalid symbol: " + name);
+        }
+    }
+
+    /**
+     * 불변 조회 구조.
+     */
+    private static final class Snapshot {
+
+        /** ID → 값 */
+        final String[] names;
+
+        /** ID → UTF-8 바이트 */
+        final byte[][] utf8;
+
+        /** 바이트 해시 → ID (open addressing, 0은 빈 칸) */
+        final int[] index;
+
+        /** 값 → ID */
+        final Map<String, Integer> ids;
+
+        final int size;
+        final int dynamic;
+
+        private Snapshot(String[] names, byte[][] utf8, int[] index, Map<String, Integer> ids, int size, int dynamic) {
+            this.names = names;
+            this.utf8 = utf8;
+            this.index = index;
+            this.ids = ids;
+            this.size = size;
+            this.dynamic = dynamic;
+        }
+
+        static Snapshot build(String[] names, int size, int dynamic) {
+            byte[][] utf8 = new byte[names.length][];
+            int[] index = new int[Math.max(16, Integer.highestOneBit(Math.max(1, size) * 4))];
+            int mask = index.length - 1;
+            Map<String, Integer> ids = new HashMap<>(size * 2);
+
+            for (int id = 1; id < names.length; id++) {
+                String name = names[id];
+                if (name == null) continue;
+
+                ids.put(name, id);
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                utf8[id] = bytes;
+
+                int slot = hash(bytes, 0, bytes.length) & mask;
+                while (index[slot] != UNKNOWN) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = id;
+            }
+            return new Snapshot(names, utf8, index, ids, size, dynamic);
+        }
+
+        int find(byte[] buffer, int offset, int length) {
+            int mask = index.length - 1;
+            int slot = hash(buffer, offset, length) & mask;
+            int id;
+            while ((id = index[slot]) != UNKNOWN) {
+                byte[] bytes = utf8[id];
+                if (Arrays.equals(bytes, 0, bytes.length, buffer, offset, offset + length)) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return UNKNOWN;
+        }
+
+        /** FNV-1a */
+        private static int hash(byte[] buffer, int offset, int length) {
+            int hash = 0x811C9DC5;
+            for (int i = offset; i < offset + length; i++) {
+                hash ^= buffer[i] & 0xFF;
+                hash *= 0x01000193;
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package kr.crownrpg.packethandler.template;
+
+import kr.crownrpg.packethandler.channel.CrownPacketChannel;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.request.UiActionResult;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ui / title / acceptAction / cancelAction / timeout이 고정된 확인 UI 템플릿.
+ *
+ * {@link kr.crownrpg.packethandler.CrownPacketSender#confirmUiTemplate}로 얻으며,
+ * 보관해 두고 여러 번 재사용할 수 있다.
+ */
+public final class ConfirmUiTemplate {
+
+    private final CrownPacketChannel channel;
+    private final PendingRequests requests;
+    private final PacketTemplate template;
+    private final int timeoutMillis;
+
+    public ConfirmUiTemplate(
+            CrownPacketChannel channel,
+            PendingRequests requests,
+            PacketTemplate template,
+            int timeoutMillis
+    ) {
+        this.channel = channel;
+        this.requests = requests;
+        this.template = template;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * requestId와 message만 채워 확인/취소 UI를 연다.
+     */
+    public void open(Player player, String requestId, String message) {
+        if (player == null || requestId == null || message == null) {
+            return;
+        }
+
+        requests.track(player, requestId, PendingRequests.Kind.CONFIRM_UI, timeoutMillis);
+        if (!channel.send(player, template, requestId, message)) {
+            requests.fail(player, requestId, new IllegalStateException("Failed to send OPEN_CONFIRM_UI: " + requestId));
+        }
+    }
+
+    /**
+     * requestId와 message만 채워 확인/취소 UI를 열고 결과를 CompletableFuture로 받는다.
+     *
+     * @see kr.crownrpg.packethandler.CrownPacketSender#requestConfirmUi
+     */
+    public CompletableFuture<UiActionResult> request(Player player, String requestId, String message) {
+        if (player == null || requestId == null || message == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Missing required argument"));
+        }
+
+        CompletableFuture<UiActionResult> future = requests.awaitConfirmUi(player, requestId, timeoutMillis);
+        if (!channel.send(player, template, requestId, message)) {
+            requests.fail(player, requestId, new IllegalStateException("Failed to send OPEN_CONFIRM_UI: " + requestId));
+        }
+        return future;
+    }
+}
@@ -0,0 +1,34 @@
+package kr.crownrpg.packethandler.template;
+
+import kr.crownrpg.packethandler.codec.CompiledTemplate;
+import kr.crownrpg.packethandler.codec.PacketCodec;
+import kr.crownrpg.packethandler.packet.OutboundPayload;
+import kr.crownrpg.packethandler.packet.PacketType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 고정 필드를 미리 인코딩해 둔 서버 → 클라이언트 패킷.
+ *
+ * 코덱별 인코딩 결과는 처음 사용할 때 한 번만 만들어 보관한다.
+ */
+public final class PacketTemplate {
+
+    private final PacketType type;
+    private final OutboundPayload payload;
+    private final Map<PacketCodec, CompiledTemplate> compiled = new ConcurrentHashMap<>(2);
+
+    public PacketTemplate(PacketType type, OutboundPayload payload) {
+        this.type = type;
+        this.payload = payload;
+    }
+
+    public PacketType type() {
+        return type;
+    }
+
+    public byte[] render(PacketCodec codec, String requestId, long serverTime, String... slots) {
+        return compiled.computeIfAbsent(codec, c -> c.compile(type, payload)).render(requestId, serverTime, slots);
+    }
+}
@@ -0,0 +1,70 @@
+package kr.crownrpg.packethandler.template;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 컴파일된 {@link PacketTemplate}의 LRU 캐시.
+ *
+ * 같은 고정 필드로 템플릿을 반복 요청하면 기존 인스턴스를 돌려준다.
+ * 최대 개수를 넘으면 가장 오래 사용하지 않은 템플릿부터 제거한다.
+ * 제거된 템플릿을 이미 보관 중인 호출자는 그대로 계속 사용할 수 있다.
+ */
+public final class TemplateCache {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final int maxSize;
+    private final LinkedHashMap<List<Object>, PacketTemplate> templates;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public TemplateCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, PacketTemplate> eldest) {
+                if (size() > TemplateCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key PacketType과 고정 필드 값 목록 (null 원소 허용)
+     */
+    public synchronized PacketTemplate get(List<Object> key, Supplier<PacketTemplate> factory) {
+        PacketTemplate template = templates.get(key);
+        if (template != null) {
+            hits++;
+            return template;
+        }
+
+        misses++;
+        template = factory.get();
+        templates.put(key, template);
+        return template;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, templates.size(), maxSize);
+    }
+
+    /**
+     * 템플릿 캐시 통계.
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int maxSize) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package kr.crownrpg.packethandler.template;
+
+import kr.crownrpg.packethandler.channel.CrownPacketChannel;
+import kr.crownrpg.packethandler.request.PendingRequests;
+import kr.crownrpg.packethandler.request.TextInputResult;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * context / title / placeholder / maxLength / timeout이 고정된 텍스트 입력 UI 템플릿.
+ *
+ * {@link kr.crownrpg.packethandler.CrownPacketSender#textInputTemplate}로 얻으며,
+ * 보관해 두고 여러 번 재사용할 수 있다.
+ */
+public final class TextInputTemplate {
+
+    private final CrownPacketChannel channel;
+    private final PendingRequests requests;
+    private final PacketTemplate template;
+    private final int timeoutMillis;
+
+    public TextInputTemplate(
+            CrownPacketChannel channel,
+            PendingRequests requests,
+            PacketTemplate template,
+            int timeoutMillis
+    ) {
+        this.channel = channel;
+        this.requests = requests;
+        this.template = template;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * requestId만 채워 텍스트 입력 UI를 연다.
+     */
+    public void open(Player player, String requestId) {
+        if (player == null || requestId == null) {
+            return;
+        }
+
+        requests.track(player, requestId, PendingRequests.Kind.TEXT_INPUT, timeoutMillis);
+        if (!channel.send(player, template, requestId)) {
+            requests.fail(player, requestId, new IllegalStateException("Failed to send OPEN_TEXT_INPUT: " + requestId));
+        }
+    }
+
+    /**
+     * requestId만 채워 텍스트 입력 UI를 열고 결과를 CompletableFuture로 받는다.
+     *
+     * @see kr.crownrpg.packethandler.CrownPacketSender#requestTextInput
+     */
+    public CompletableFuture<TextInputResult> request(Player player, String requestId) {
+        if (player == null || requestId == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Missing required argument"));
+        }
+
+        CompletableFuture<TextInputResult> future = requests.awaitTextInput(player, requestId, timeoutMillis);
+        if (!channel.send(player, template, requestId)) {
+            requests.fail(player, requestId, new IllegalStateException("Failed to send OPEN_TEXT_INPUT: " + requestId));
+        }
+        return future;
+    }
+}
@@ -0,0 +1,93 @@
+package kr.crownrpg.packethandler.util;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Paper / Folia 공용 작업 예약.
+ *
+ * Folia에는 메인 스레드가 없고, 플레이어는 자신을 소유한 region 스레드에서만 다룰 수 있다.
+ * region / entity scheduler API는 Paper에서도 동작하므로(모두 메인 스레드에서 실행) 모든 예약을 이 API로 한다.
+ * - 반복 작업: global region scheduler (Paper에서는 메인 스레드)
+ * - 플레이어 작업: 현재 스레드가 플레이어를 소유하면 바로 실행하고, 아니면 플레이어의 entity scheduler로 넘긴다.
+ *   넘긴 작업은 다음 틱에 실행되며, 그 전에 플레이어가 나가면 버려진다.
+ *
+ * 모든 메서드는 어느 스레드에서든 호출할 수 있다.
+ */
+public final class CrownScheduler {
+
+    private static final boolean FOLIA = detectFolia();
+
+    private final Plugin plugin;
+
+    public CrownScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Folia(region 멀티스레드) 서버인지 확인한다.
+     */
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    /**
+     * 현재 스레드가 플레이어를 소유하는지 확인한다. (Paper에서는 메인 스레드 여부)
+     */
+    public boolean owns(Player player) {
+        return Bukkit.isOwnedByCurrentRegion(player);
+    }
+
+    /**
+     * 플레이어를 소유한 스레드에서 작업을 실행한다. 이미 소유한 스레드면 바로 실행한다.
+     */
+    public void execute(Player player, Runnable task) {
+        if (owns(player)) {
+            task.run();
+            return;
+        }
+        later(player, task);
+    }
+
+    /**
+     * 플레이어를 소유한 스레드에서 다음 틱에 작업을 실행한다.
+     */
+    public void later(Player player, Runnable task) {
+        player.getScheduler().run(plugin, scheduled -> task.run(), null);
+    }
+
+    /**
+     * global region에서 반복 작업을 실행한다. (Paper에서는 메인 스레드)
+     *
+     * @param delayTicks 첫 실행까지의 틱, 1 미만이면 1
+     */
+    public ScheduledTask repeat(Runnable task, long delayTicks, long periodTicks) {
+        return Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                plugin, scheduled -> task.run(), Math.max(1, delayTicks), periodTicks);
+    }
+
+    /**
+     * global region에서 다음 틱에 작업을 실행한다.
+     */
+    public void global(Runnable task) {
+        Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+    }
+
+    /**
+     * 틱 스레드 밖에서 작업을 실행한다. (파일 읽기 등)
+     */
+    public void async(Runnable task) {
+        Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run());
+    }
+
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package kr.crownrpg.packethandler.util;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * byte[]를 중간 String 없이 UTF-8로 디코딩하는 Reader.
+ *
+ * 잘못된 바이트 시퀀스는 {@code new String(bytes, UTF_8)}과 동일하게
+ * U+FFFD로 치환된다. 호출자의 char[]에 직접 디코딩하므로 별도 버퍼를 두지 않는다.
+ */
+public final class Utf8ByteReader extends Reader {
+
+    private final ByteBuffer in;
+    private final CharsetDecoder decoder;
+    private boolean flushed;
+
+    public Utf8ByteReader(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    public Utf8ByteReader(byte[] bytes, int offset, int length) {
+        this.in = ByteBuffer.wrap(bytes, offset, length);
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+        if (len == 0) return 0;
+        if (flushed) return -1;
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        CoderResult result = decoder.decode(in, out, true);
+        if (result.isUnderflow()) {
+            // 입력을 모두 소비했으면 디코더에 남은 상태를 내보낸다.
+            if (decoder.flush(out).isUnderflow()) {
+                flushed = !in.hasRemaining();
+            }
+        }
+
+        int read = out.position() - off;
+        if (read == 0 && flushed) return -1;
+        return read;
+    }
+
+    @Override
+    public void close() {
+        // 외부 자원 없음
+    }
+}
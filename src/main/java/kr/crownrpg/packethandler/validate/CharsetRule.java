@@ -0,0 +1,76 @@
+package kr.crownrpg.packethandler.validate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 허용 문자 범위 규칙. ({@link TextRule#charset})
+ *
+ * ASCII는 128칸 표로, 그 외는 범위 배열로 검사한다.
+ */
+final class CharsetRule implements TextRule {
+
+    private final boolean[] ascii = new boolean[128];
+    /** ASCII 밖 범위. [시작, 끝] 쌍 */
+    private final int[] ranges;
+    private final String message;
+
+    CharsetRule(String spec, String message) {
+        if (spec == null || spec.isEmpty()) {
+            throw new IllegalArgumentException("Empty charset");
+        }
+        this.message = message;
+
+        int[] codePoints = spec.codePoints().toArray();
+        List<int[]> wide = new ArrayList<>();
+        for (int i = 0; i < codePoints.length; i++) {
+            int start = codePoints[i];
+            int end = start;
+            // 'a-z' 형태. 맨 앞이나 맨 뒤의 '-'는 문자 그대로 취급한다.
+            if (i + 2 < codePoints.length && codePoints[i + 1] == '-') {
+                end = codePoints[i + 2];
+                i += 2;
+                if (end < start) {
+                    throw new IllegalArgumentException("Invalid charset range: " + spec);
+                }
+            }
+            for (int c = start; c <= Math.min(end, 127); c++) {
+                ascii[c] = true;
+            }
+            if (end > 127) {
+                wide.add(new int[]{Math.max(start, 128), end});
+            }
+        }
+
+        ranges = new int[wide.size() * 2];
+        for (int i = 0; i < wide.size(); i++) {
+            ranges[i * 2] = wide.get(i)[0];
+            ranges[i * 2 + 1] = wide.get(i)[1];
+        }
+    }
+
+    @Override
+    public String check(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; ) {
+            int c = text.codePointAt(i);
+            if (!allowed(c)) {
+                return message;
+            }
+            i += Character.charCount(c);
+        }
+        return null;
+    }
+
+    private boolean allowed(int c) {
+        if (c < 128) {
+            return ascii[c];
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (c >= ranges[i] && c <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
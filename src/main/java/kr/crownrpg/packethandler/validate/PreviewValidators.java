@@ -0,0 +1,171 @@
+package kr.crownrpg.packethandler.validate;
+
+import kr.crownrpg.packethandler.CrownPacketSender;
+import kr.crownrpg.packethandler.input.Subscription;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * context별 TEXT_INPUT_PREVIEW 검증 규칙 등록소.
+ *
+ * 규칙이 등록된 context의 미리보기는 수신 경로에서 바로 검증하고 UI_VALIDATE_RESULT로 응답한다.
+ * 이때 {@code CrownPlayerTextInputPreviewEvent}는 발행되지 않는다.
+ * 규칙이 없는 context만 기존처럼 이벤트 / 구독 핸들러로 전달된다.
+ *
+ * - 규칙은 등록 순서대로 실행하며, 처음 실패한 규칙의 메시지로 응답한다.
+ * - context마다 최근 결과를 {@link #CACHE_SIZE}칸 캐시에 보관한다. (같은 텍스트를 다시 검증하지 않음)
+ * - 등록은 소유 플러그인이 비활성화되면 자동으로 해제된다.
+ */
+public final class PreviewValidators implements Listener {
+
+    /** context별 결과 캐시 크기 (2의 거듭제곱) */
+    public static final int CACHE_SIZE = 64;
+
+    private final CrownPacketSender sender;
+    private final Map<String, RuleSet> byContext = new ConcurrentHashMap<>();
+
+    private final LongAdder answered = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+
+    public PreviewValidators(CrownPacketSender sender) {
+        this.sender = sender;
+    }
+
+    /**
+     * context의 검증 규칙을 등록한다. 이미 등록된 context면 새 규칙으로 교체한다.
+     *
+     * 예: {@code register(plugin, "nickname_change", TextRule.length(2, 12, "2~12자"), TextRule.charset("a-zA-Z0-9_가-힣", "허용되지 않는 문자"))}
+     */
+    public Subscription register(Plugin owner, String context, TextRule... rules) {
+        if (owner == null || context == null || rules == null || rules.length == 0) {
+            throw new IllegalArgumentException("owner, context and rules must not be null or empty");
+        }
+        for (TextRule rule : rules) {
+            if (rule == null) {
+                throw new IllegalArgumentException("rules must not contain null");
+            }
+        }
+
+        RuleSet ruleSet = new RuleSet(owner, rules.clone());
+        byContext.put(context, ruleSet);
+        return () -> byContext.remove(context, ruleSet);
+    }
+
+    /**
+     * 등록된 규칙이 하나도 없는지 확인한다.
+     */
+    public boolean isEmpty() {
+        return byContext.isEmpty();
+    }
+
+    /**
+     * context에 규칙이 있으면 텍스트를 검증한다.
+     *
+     * @return 규칙이 없으면 null
+     */
+    public Verdict validate(String context, String text) {
+        RuleSet ruleSet = byContext.get(context);
+        return ruleSet == null ? null : ruleSet.validate(text);
+    }
+
+    /**
+     * 미리보기를 검증하고 UI_VALIDATE_RESULT로 응답한다.
+     *
+     * @return 규칙이 있어 응답했으면 true, 없으면 false (이벤트로 전달해야 함)
+     */
+    public boolean answer(Player player, String requestId, String context, String text) {
+        Verdict verdict = validate(context, text);
+        if (verdict == null) {
+            return false;
+        }
+
+        answered.increment();
+        if (!verdict.valid()) {
+            rejected.increment();
+        }
+        sender.sendValidateResult(player, requestId, verdict.valid(), verdict.message());
+        return true;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        Plugin plugin = event.getPlugin();
+        byContext.values().removeIf(ruleSet -> ruleSet.owner == plugin);
+    }
+
+    public Stats stats() {
+        return new Stats(answered.sum(), rejected.sum(), cacheHits.sum(), byContext.size());
+    }
+
+    /**
+     * 검증 결과.
+     *
+     * @param message 실패한 규칙의 메시지, 통과했으면 null
+     */
+    public record Verdict(boolean valid, String message) {
+
+        static final Verdict VALID = new Verdict(true, null);
+    }
+
+    /**
+     * 미리보기 검증 통계.
+     *
+     * @param answered  규칙으로 바로 응답한 미리보기 수
+     * @param rejected  그중 통과하지 못한 수
+     * @param cacheHits 캐시된 결과로 응답한 수
+     * @param contexts  규칙이 등록된 context 수
+     */
+    public record Stats(long answered, long rejected, long cacheHits, int contexts) {
+    }
+
+    private record Cached(String text, Verdict verdict) {
+    }
+
+    private final class RuleSet {
+        final Plugin owner;
+        final TextRule[] rules;
+        /** 텍스트 해시로 칸을 정하는 direct-mapped 캐시. 칸마다 마지막 결과 하나만 남는다. */
+        final Cached[] cache = new Cached[CACHE_SIZE];
+
+        RuleSet(Plugin owner, TextRule[] rules) {
+            this.owner = owner;
+            this.rules = rules;
+        }
+
+        Verdict validate(String text) {
+            int slot = (text.hashCode() ^ (text.hashCode() >>> 16)) & (CACHE_SIZE - 1);
+            Cached cached = cache[slot];
+            if (cached != null && cached.text().equals(text)) {
+                cacheHits.increment();
+                return cached.verdict();
+            }
+
+            Verdict verdict = Verdict.VALID;
+            for (TextRule rule : rules) {
+                String message;
+                try {
+                    message = rule.check(text);
+                } catch (Exception e) {
+                    // ❗ 규칙 하나의 예외가 서버에 영향을 주지 않도록 통과로 취급한다.
+                    continue;
+                }
+                if (message != null) {
+                    verdict = new Verdict(false, message);
+                    break;
+                }
+            }
+
+            cache[slot] = new Cached(text, verdict);
+            return verdict;
+        }
+    }
+}
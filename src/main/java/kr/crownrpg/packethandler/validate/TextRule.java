@@ -0,0 +1,65 @@
+package kr.crownrpg.packethandler.validate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * TEXT_INPUT_PREVIEW 텍스트 검증 규칙.
+ *
+ * 정적 팩토리로 만든 규칙은 생성 시점에 미리 컴파일되며(정규식, 문자 범위 표, 예약어 집합),
+ * 검증 중에는 추가 준비 작업이 없다.
+ * 직접 구현한 규칙도 등록할 수 있으며, 수신 경로(플레이어를 소유한 스레드)에서 바로 실행되므로 가벼워야 한다.
+ */
+@FunctionalInterface
+public interface TextRule {
+
+    /**
+     * @return 통과하면 null, 아니면 클라이언트에 보여줄 메시지
+     */
+    String check(String text);
+
+    /**
+     * 길이(코드 포인트 수)가 min 이상 max 이하여야 한다.
+     */
+    static TextRule length(int min, int max, String message) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Invalid length range: " + min + "~" + max);
+        }
+        return text -> {
+            int length = text.codePointCount(0, text.length());
+            return length < min || length > max ? message : null;
+        };
+    }
+
+    /**
+     * 모든 문자가 허용 범위 안에 있어야 한다.
+     *
+     * @param ranges 정규식 문자 클래스처럼 쓴 범위 목록. 예: {@code "a-zA-Z0-9_가-힣"}
+     */
+    static TextRule charset(String ranges, String message) {
+        return new CharsetRule(ranges, message);
+    }
+
+    /**
+     * 텍스트 전체가 정규식과 일치해야 한다.
+     */
+    static TextRule pattern(String regex, String message) {
+        Pattern pattern = Pattern.compile(regex);
+        return text -> pattern.matcher(text).matches() ? null : message;
+    }
+
+    /**
+     * 예약어와 같으면 안 된다. (대소문자, 앞뒤 공백 무시)
+     */
+    static TextRule reserved(Collection<String> words, String message) {
+        Set<String> normalized = new HashSet<>();
+        for (String word : words) {
+            normalized.add(word.strip().toLowerCase(Locale.ROOT));
+        }
+        Set<String> reserved = Set.copyOf(normalized);
+        return text -> reserved.contains(text.strip().toLowerCase(Locale.ROOT)) ? message : null;
+    }
+}